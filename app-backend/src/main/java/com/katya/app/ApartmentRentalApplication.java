@@ -9,6 +9,7 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 @SpringBootApplication
 @EnableConfigurationProperties
 @EnableJpaAuditing
+@EnableScheduling
 public class ApartmentRentalApplication {
 
 	public static void main(String[] args) {
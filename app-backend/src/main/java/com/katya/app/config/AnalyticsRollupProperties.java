@@ -0,0 +1,25 @@
+package com.katya.app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.analytics.rollup")
+public class AnalyticsRollupProperties {
+
+    private long intervalMs = 60000;
+
+    // Source rows folded per transaction, and how many chunks one run may take
+    private int chunkSize = 5000;
+    private int maxChunksPerRun = 20;
+
+    // Rows younger than this are left for the next run, so transactions still in flight
+    // with lower ids commit before the watermark moves past them
+    private long settleSeconds = 120;
+
+    // Widest range the time-series endpoint serves per granularity
+    private int maxHourlyRangeDays = 31;
+    private int maxDailyRangeDays = 731;
+}
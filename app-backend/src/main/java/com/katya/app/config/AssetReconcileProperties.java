@@ -0,0 +1,32 @@
+package com.katya.app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.assets.reconcile")
+public class AssetReconcileProperties {
+
+    private boolean enabled = true;
+
+    private String cron = "0 30 3 * * *";
+
+    // Folders scanned besides the property image folder; generic uploads are never scanned
+    private List<String> extraPrefixes = List.of("hero");
+
+    // Younger files may belong to an upload whose row is not committed yet
+    private long minAgeHours = 24;
+
+    private int pageSize = 500;
+
+    // Cloudinary deletes at most 100 images per Admin API call
+    private int deleteBatchSize = 100;
+
+    // Failed deletes are retried with doubling delays, then left for the next run
+    private int maxAttempts = 4;
+    private long initialBackoffMs = 2000;
+}
@@ -2,12 +2,14 @@ package com.katya.app.config;
 
 import com.cloudinary.Cloudinary;
 import lombok.Data;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Data
 @Configuration
@@ -19,14 +21,44 @@ public class CloudinaryConfig {
     private String apiSecret;
     private String folder = "q-apartment";
 
+    // Bounds every call, so a stalled Cloudinary frees its bulkhead permit instead of hanging
+    private int connectTimeoutMs = 5000;
+    private int uploadTimeoutMs = 60000;
+    private int connectionRequestTimeoutMs = 5000;
+    private int adminApiTimeoutSeconds = 30;
+
+    // Where uploads are written before streaming to Cloudinary; the system temp directory when blank
+    private String stagingDir;
+
     @Bean
-    public Cloudinary cloudinary() {
-        Map<String, String> config = new HashMap<>();
+    public Cloudinary cloudinary(ExecutionProperties executionProperties) {
+        // The SDK builds a client per call; a shared pool sized to the bulkhead lets them reuse connections
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(60, TimeUnit.SECONDS);
+        connectionManager.setMaxTotal(executionProperties.getCloudinaryMaxConcurrency());
+        connectionManager.setDefaultMaxPerRoute(executionProperties.getCloudinaryMaxConcurrency());
+
+        Map<String, Object> config = new HashMap<>();
         config.put("cloud_name", cloudName);
         config.put("api_key", apiKey);
         config.put("api_secret", apiSecret);
         config.put("secure", "true");
+        config.put("timeout", adminApiTimeoutSeconds);
+        config.put("properties", Map.of("connectionManager", connectionManager));
 
         return new Cloudinary(config);
     }
-}
\ No newline at end of file
+
+    // Property images and their variants, apart from generic uploads so orphan reconciliation owns the folder
+    public String propertyImageFolder() {
+        return folder + "/property";
+    }
+
+    // Per-request options understood by the uploader
+    public Map<String, Object> uploadTimeouts() {
+        Map<String, Object> timeouts = new HashMap<>();
+        timeouts.put("connect_timeout", connectTimeoutMs);
+        timeouts.put("timeout", uploadTimeoutMs);
+        timeouts.put("connection_request_timeout", connectionRequestTimeoutMs);
+        return timeouts;
+    }
+}
@@ -0,0 +1,26 @@
+package com.katya.app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.contact.ingestion")
+public class ContactIngestionProperties {
+
+    // Buffer between the public endpoint and the database writer
+    private int queueCapacity = 1000;
+    private int batchSize = 100;
+    private long flushIntervalMs = 500;
+
+    // Per-IP token bucket: burst of ipBurst messages, refilled over ipRefillPeriodSeconds
+    private int ipBurst = 5;
+    private long ipRefillPeriodSeconds = 600;
+
+    // Same email + message within this window is dropped
+    private long duplicateWindowSeconds = 3600;
+
+    // Upper bound on tracked IPs / message digests
+    private int maxTrackedKeys = 10000;
+}
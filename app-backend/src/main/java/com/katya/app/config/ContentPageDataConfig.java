@@ -0,0 +1,27 @@
+package com.katya.app.config;
+
+import com.katya.app.service.ContentPageService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@RequiredArgsConstructor
+@Slf4j
+public class ContentPageDataConfig {
+
+    private final ContentPageService contentPageService;
+
+    @Bean
+    public CommandLineRunner backfillContentPagePreviews() {
+        return args -> {
+            try {
+                contentPageService.backfillBodyPreviews();
+            } catch (Exception e) {
+                log.error("Failed to backfill content page previews", e);
+            }
+        };
+    }
+}
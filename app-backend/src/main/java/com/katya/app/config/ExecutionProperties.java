@@ -0,0 +1,22 @@
+package com.katya.app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.execution")
+public class ExecutionProperties {
+
+    // Connections handed out at once in virtual-thread mode; keep at or below the Hikari pool size
+    private int dbMaxConcurrency = 20;
+    private long dbAcquireTimeoutMs = 20000;
+
+    // Cloudinary API calls in flight at once, in either mode
+    private int cloudinaryMaxConcurrency = 8;
+    private long cloudinaryAcquireTimeoutMs = 30000;
+
+    // Virtual-thread mode only: report carrier pinning longer than this
+    private long pinnedThresholdMs = 20;
+}
@@ -15,13 +15,21 @@ public class FileUploadConfig {
     private String provider = "cloudinary"; // "local" hoặc "cloudinary"
     private String cloudinaryFolder = "qapartment"; // Folder trên Cloudinary
 
-    // Legacy local settings (backup)
+    // Local storage root and the URL prefix it is served under
     private String path = "/tmp/uploads/";
     private String baseUrl = "/uploads/";
 
+    // Content-addressed files never change, so browsers may keep them for a year
+    private long cacheMaxAgeSeconds = 31536000L;
+    // Smaller files are copied by the application; larger ones are handed to the container's sendfile
+    private long sendfileMinSize = 49152L;
+
     // File validation
     private long maxFileSize = 10485760L; // 10MB
-    private long maxRequestSize = 52428800L; // 50MB
+    private long maxRequestSize = 220200960L; // 210MB: a full batch of 20 files at the file limit
+
+    // Files of one batch request uploaded to Cloudinary at once
+    private int batchParallelism = 4;
 
     private List<String> allowedImageTypes = List.of(
             "image/jpeg", "image/jpg", "image/png", "image/gif", "image/webp"
@@ -0,0 +1,32 @@
+package com.katya.app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.images.variants")
+public class ImageVariantProperties {
+
+    private boolean enabled = true;
+
+    // Rendition widths in pixels; each becomes one srcset candidate
+    private List<Integer> widths = List.of(320, 640, 1024, 1600);
+
+    // JPEG quality, 0-1
+    private float quality = 0.8f;
+
+    // Width of the rendition used as the listing card cover
+    private int cardWidth = 640;
+
+    // Decoding is CPU and memory heavy, so it runs on a small pool with a short queue;
+    // uploads that find it full are stored without variants
+    private int processingThreads = 2;
+    private int processingQueueCapacity = 16;
+
+    // Sources with more pixels than this are not decoded at all (decompression bombs)
+    private long maxSourcePixels = 50_000_000L;
+}
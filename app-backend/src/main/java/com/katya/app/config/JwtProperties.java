@@ -12,4 +12,18 @@ public class JwtProperties {
     private String secret;
     private long accessTokenExpiration;
     private long refreshTokenExpiration;
+
+    // Verified tokens remembered until they expire, so repeat requests skip the signature check
+    private int verifiedCacheSize = 10000;
+
+    // How often each node polls for user changes made on other nodes
+    private long tokenVersionPollMs = 2000;
+
+    // Expired refresh tokens, and revoked ones older than the retention, are deleted in chunks
+    private long refreshPurgeIntervalMs = 3600000;
+    private int refreshPurgeChunkSize = 1000;
+    private int refreshPurgeMaxChunks = 100;
+
+    // Revoked tokens are kept a while so a replayed one is still recognised as reuse
+    private long revokedRetentionHours = 24;
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.katya.app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.auth.login")
+public class LoginProtectionProperties {
+
+    // Password hashes computed at once; each BCrypt(12) check is roughly 250ms of one core
+    private int hashConcurrency = 2;
+
+    // Hashes allowed to wait for a slot, and how long one may wait before the login is refused.
+    // A waiting login holds a pool connection, so keep the queue well below the pool size
+    private int hashQueueCapacity = 8;
+    private long hashQueueTimeoutMs = 2000;
+
+    // Attempts per account: burst of accountBurst, refilled over accountRefillPeriodSeconds
+    private int accountBurst = 5;
+    private long accountRefillPeriodSeconds = 300;
+
+    // Attempts per client IP, across all accounts
+    private int ipBurst = 20;
+    private long ipRefillPeriodSeconds = 300;
+
+    // Upper bound on tracked accounts / IPs
+    private int maxTrackedKeys = 10000;
+}
@@ -0,0 +1,29 @@
+package com.katya.app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.notifications")
+public class NotificationProperties {
+
+    private boolean enabled = true;
+    private String from = "no-reply@q-apartment.local";
+
+    // Dispatcher cadence and how many outbox rows one run may claim
+    private long dispatchIntervalMs = 30000;
+    private int batchSize = 200;
+
+    // Outgoing mail rate, shared by all recipients
+    private int maxEmailsPerMinute = 30;
+
+    // Retry: backoff doubles from initialBackoffSeconds up to maxBackoffSeconds
+    private int maxAttempts = 8;
+    private long initialBackoffSeconds = 60;
+    private long maxBackoffSeconds = 3600;
+
+    // Claimed rows become due again after this if the node dies mid-send
+    private long claimLeaseSeconds = 300;
+}
@@ -0,0 +1,27 @@
+package com.katya.app.config;
+
+import com.katya.app.service.PropertyService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@RequiredArgsConstructor
+@Slf4j
+public class PropertyDataConfig {
+
+    private final PropertyService propertyService;
+
+    @Bean
+    public CommandLineRunner backfillPropertyCardFields() {
+        return args -> {
+            try {
+                propertyService.backfillCardFields();
+            } catch (Exception e) {
+                log.error("Failed to backfill property card fields", e);
+            }
+        };
+    }
+}
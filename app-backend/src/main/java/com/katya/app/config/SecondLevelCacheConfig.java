@@ -0,0 +1,107 @@
+package com.katya.app.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+
+import static com.katya.app.util.constant.AppConstants.*;
+
+/**
+ * Hibernate second-level cache on Caffeine through JCache. Every region is created here with
+ * its own size and TTL before Hibernate starts, and Hibernate is told to fail on any other
+ * region name, so a new @Cache annotation cannot silently get an unbounded cache.
+ * Entries are local to this instance: the TTL bounds how stale a row changed by another
+ * instance can be.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    static final String CACHE_MANAGER_TAG = "hibernate";
+
+    private static final List<String> REGIONS = List.of(
+            L2_AMENITY, L2_AMENITY_TRANSLATIONS, L2_AMENITY_I18N,
+            L2_SITE_SETTING, L2_SITE_SETTING_TRANSLATIONS, L2_SITE_SETTING_I18N,
+            L2_APP_USER, L2_QUERY_AMENITIES, L2_QUERY_COMPANY_INFO,
+            RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME);
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(SecondLevelCacheProperties properties) {
+        // Own provider instance, so each application context gets its own manager
+        CacheManager cacheManager = new CaffeineCachingProvider()
+                .getCacheManager(URI.create(CACHE_MANAGER_TAG), getClass().getClassLoader());
+
+        for (String region : REGIONS) {
+            SecondLevelCacheProperties.Region settings = properties.getRegions().get(region);
+            long maxEntries = settings != null && settings.getMaxEntries() != null
+                    ? settings.getMaxEntries() : properties.getDefaultMaxEntries();
+            Duration timeToLive = settings != null && settings.getTimeToLive() != null
+                    ? settings.getTimeToLive() : properties.getDefaultTimeToLive();
+            cacheManager.createCache(region, regionConfiguration(OptionalLong.of(maxEntries), timeToLive));
+        }
+
+        // Cached query results are only valid while this region remembers when each table last
+        // changed, so it is never size-limited or expired; it holds one entry per table
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                regionConfiguration(OptionalLong.empty(), Duration.ZERO));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(SecondLevelCacheProperties properties,
+                                                                    CacheManager secondLevelCacheManager) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, properties.isEnabled());
+            hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, properties.isEnabled());
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    // cache.gets{result=hit|miss}, evictions and size per region, plus the hit ratio directly
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(CacheManager secondLevelCacheManager) {
+        return registry -> {
+            for (String region : secondLevelCacheManager.getCacheNames()) {
+                Cache<Object, Object> cache = secondLevelCacheManager.getCache(region);
+                @SuppressWarnings("unchecked")
+                com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache =
+                        cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class);
+                Tags tags = Tags.of("cacheManager", CACHE_MANAGER_TAG);
+
+                CaffeineCacheMetrics.monitor(registry, nativeCache, region, tags);
+                Gauge.builder("cache.hit.ratio", nativeCache, c -> c.stats().hitRate())
+                        .tags(tags)
+                        .tag("cache", region)
+                        .description("Share of lookups answered from the cache since startup")
+                        .register(registry);
+            }
+        };
+    }
+
+    // Helper methods
+    private static CaffeineConfiguration<Object, Object> regionConfiguration(OptionalLong maxEntries, Duration timeToLive) {
+        return new CaffeineConfiguration<>()
+                // Hibernate stores immutable cache entries; copying them on every access is wasted work
+                .setStoreByValue(false)
+                .setMaximumSize(maxEntries)
+                .setExpireAfterWrite(timeToLive.isZero() ? OptionalLong.empty() : OptionalLong.of(timeToLive.toNanos()))
+                .setNativeStatisticsEnabled(true);
+    }
+}
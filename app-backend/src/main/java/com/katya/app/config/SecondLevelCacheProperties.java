@@ -0,0 +1,32 @@
+package com.katya.app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.l2-cache")
+public class SecondLevelCacheProperties {
+
+    // Off: entities and cacheable queries always go to the database
+    private boolean enabled = true;
+
+    // Applied to every region without its own entry
+    private long defaultMaxEntries = 1000;
+
+    private Duration defaultTimeToLive = Duration.ofMinutes(30);
+
+    // Keyed by region name (AppConstants.L2_*); unset fields fall back to the defaults
+    private Map<String, Region> regions = new HashMap<>();
+
+    @Data
+    public static class Region {
+        private Long maxEntries;
+        private Duration timeToLive;
+    }
+}
@@ -1,8 +1,10 @@
 package com.katya.app.config;
 
+import com.katya.app.security.BoundedPasswordEncoder;
 import com.katya.app.security.CustomUserDetailsService;
 import com.katya.app.security.JwtAuthenticationFilter;
 import com.katya.app.util.constant.ApiEndpoints;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -20,6 +22,8 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.time.Duration;
+
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
@@ -28,11 +32,18 @@ public class SecurityConfig {
 
     private final CustomUserDetailsService userDetailsService;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final LoginProtectionProperties loginProtectionProperties;
+    private final MeterRegistry meterRegistry;
 
     // ===== Password Encoder =====
+    // BCrypt runs on its own bounded pool so login bursts cannot take every core
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(12),
+                loginProtectionProperties.getHashConcurrency(),
+                loginProtectionProperties.getHashQueueCapacity(),
+                Duration.ofMillis(loginProtectionProperties.getHashQueueTimeoutMs()),
+                meterRegistry);
     }
 
     // ===== Authentication Provider =====
@@ -0,0 +1,66 @@
+package com.katya.app.config;
+
+import com.katya.app.util.sql.SqlStatistics;
+import com.katya.app.util.sql.SqlStatisticsDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Per-request database statistics (see {@link SqlStatisticsFilter}). Statements are counted
+ * at the DataSource so JdbcTemplate work is included; entity loads and collection fetches
+ * come from Hibernate events. Outside a request nothing is recorded and connections are
+ * not wrapped.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.sql-stats", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStatisticsConfig {
+
+    // Static so the DataSource is wrapped without pulling other beans into early initialization
+    @Bean
+    static BeanPostProcessor sqlStatisticsDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof SqlStatisticsDataSource)) {
+                    return new SqlStatisticsDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public SmartInitializingSingleton sqlStatisticsHibernateListeners(EntityManagerFactory entityManagerFactory) {
+        return () -> {
+            EventListenerRegistry listeners = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                    .getServiceRegistry().requireService(EventListenerRegistry.class);
+            listeners.appendListeners(EventType.POST_LOAD, (PostLoadEventListener) event -> SqlStatistics.entityLoaded());
+            listeners.appendListeners(EventType.INIT_COLLECTION,
+                    (InitializeCollectionEventListener) event -> SqlStatistics.collectionFetched());
+        };
+    }
+
+    // Ahead of the security chain, so token checks and user lookups are counted too
+    @Bean
+    public FilterRegistrationBean<SqlStatisticsFilter> sqlStatisticsFilter(SqlStatisticsProperties properties,
+                                                                          MeterRegistry meterRegistry) {
+        FilterRegistrationBean<SqlStatisticsFilter> registration =
+                new FilterRegistrationBean<>(new SqlStatisticsFilter(properties, meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,127 @@
+package com.katya.app.config;
+
+import com.katya.app.util.sql.SqlStatistics;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Records the database work of each request. The totals go out as a Server-Timing header
+ * (work done before the response was committed) and as sql.request.* metrics tagged with
+ * the handler method, and stay on the request as {@link #STATISTICS_ATTRIBUTE} for tests.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+
+    public static final String STATISTICS_ATTRIBUTE = SqlStatistics.class.getName();
+
+    private static final String NO_HANDLER = "none";
+
+    private final SqlStatisticsProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatistics statistics = SqlStatistics.begin();
+        request.setAttribute(STATISTICS_ATTRIBUTE, statistics);
+        ServerTimingResponse timedResponse = properties.isServerTimingHeader()
+                ? new ServerTimingResponse(response, statistics) : null;
+        try {
+            chain.doFilter(request, timedResponse != null ? timedResponse : response);
+            if (timedResponse != null) {
+                // Nothing flushed the response (e.g. an empty body), so the header still fits
+                timedResponse.writeHeader();
+            }
+        } finally {
+            statistics.end();
+            record(request, statistics);
+        }
+    }
+
+    // Helper methods
+    private void record(HttpServletRequest request, SqlStatistics statistics) {
+        String handler = handlerName(request);
+
+        DistributionSummary.builder("sql.request.statements")
+                .description("JDBC statements executed per request")
+                .tag("handler", handler)
+                .register(meterRegistry)
+                .record(statistics.getStatements());
+        DistributionSummary.builder("sql.request.entity.loads")
+                .description("Entities loaded per request, from the database or the second-level cache")
+                .tag("handler", handler)
+                .register(meterRegistry)
+                .record(statistics.getEntityLoads());
+        DistributionSummary.builder("sql.request.collection.fetches")
+                .description("Lazy collections initialized per request")
+                .tag("handler", handler)
+                .register(meterRegistry)
+                .record(statistics.getCollectionFetches());
+        Timer.builder("sql.request.jdbc.time")
+                .description("Time spent executing JDBC statements per request")
+                .tag("handler", handler)
+                .register(meterRegistry)
+                .record(statistics.getJdbcTime());
+
+        int threshold = properties.getWarnStatements();
+        if (threshold > 0 && statistics.getStatements() > threshold) {
+            log.warn("{} {} ({}) ran {}", request.getMethod(), request.getRequestURI(), handler, statistics);
+        }
+    }
+
+    // Bounded tag values: one per controller method, never the raw path
+    private static String handlerName(HttpServletRequest request) {
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (handler instanceof HandlerMethod method) {
+            return method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+        }
+        return handler != null ? handler.getClass().getSimpleName() : NO_HANDLER;
+    }
+
+    private static String serverTiming(SqlStatistics statistics) {
+        return String.format(Locale.ROOT, "db;dur=%.2f;desc=\"%d statements, %d entities, %d collections\"",
+                statistics.getJdbcTime().toNanos() / 1_000_000.0, statistics.getStatements(),
+                statistics.getEntityLoads(), statistics.getCollectionFetches());
+    }
+
+    // Headers cannot be added once the body starts going out, so the header is set at that moment
+    private static class ServerTimingResponse extends OnCommittedResponseWrapper {
+
+        private final SqlStatistics statistics;
+
+        ServerTimingResponse(HttpServletResponse response, SqlStatistics statistics) {
+            super(response);
+            this.statistics = statistics;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            writeHeader();
+        }
+
+        void writeHeader() {
+            if (isDisableOnResponseCommitted()) {
+                return;
+            }
+            disableOnResponseCommitted();
+            if (!isCommitted()) {
+                addHeader("Server-Timing", serverTiming(statistics));
+            }
+        }
+    }
+}
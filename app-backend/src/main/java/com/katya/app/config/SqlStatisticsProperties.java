@@ -0,0 +1,20 @@
+package com.katya.app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.sql-stats")
+public class SqlStatisticsProperties {
+
+    // Off: JDBC and Hibernate are not instrumented at all
+    private boolean enabled = true;
+
+    // Adds a Server-Timing header with the request's database work
+    private boolean serverTimingHeader = true;
+
+    // Requests running more statements than this are logged with their handler (0 disables)
+    private int warnStatements = 50;
+}
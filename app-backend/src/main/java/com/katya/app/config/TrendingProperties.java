@@ -0,0 +1,32 @@
+package com.katya.app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.trending")
+public class TrendingProperties {
+
+    private boolean enabled = true;
+
+    // Time for an event's contribution to halve
+    private double halfLifeHours = 24;
+
+    private double viewWeight = 1.0;
+
+    private double inquiryWeight = 10.0;
+
+    // Ranked properties kept in memory per property type (and overall)
+    private int topSize = 50;
+
+    // How long a computed top-K list is served before it is recomputed from the live scores
+    private long rankingRefreshMs = 1000;
+
+    // How often local scores are merged into property_trending_score and rankings rebuilt
+    private long flushIntervalMs = 300000;
+
+    // Stored scores older than this many half-lives are deleted
+    private int retentionHalfLives = 30;
+}
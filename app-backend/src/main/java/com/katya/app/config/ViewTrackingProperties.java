@@ -0,0 +1,19 @@
+package com.katya.app.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.views")
+public class ViewTrackingProperties {
+
+    private boolean enabled = true;
+
+    // How often in-memory counters and sketches are merged into property_view_stat
+    private long flushIntervalMs = 60000;
+
+    // Properties listed on the admin dashboard
+    private int dashboardTopSize = 5;
+}
@@ -0,0 +1,59 @@
+package com.katya.app.config;
+
+import com.katya.app.util.ratelimit.ConcurrencyLimitedDataSource;
+import com.katya.app.util.ratelimit.ConcurrencyLimiter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Active when spring.threads.virtual.enabled=true on Java 21+. Spring Boot then serves
+ * Tomcat requests and @Scheduled jobs on virtual threads; this adds the pieces that keep
+ * unbounded request concurrency from turning into unbounded database concurrency.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    // Static, and bound straight from the environment, so the DataSource is wrapped without
+    // pulling other beans into early initialization
+    @Bean
+    static BeanPostProcessor dbConcurrencyLimitPostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConcurrencyLimitedDataSource)) {
+                    ExecutionProperties properties = Binder.get(environment)
+                            .bindOrCreate("app.execution", ExecutionProperties.class);
+                    ConcurrencyLimiter limiter = new ConcurrencyLimiter("db", properties.getDbMaxConcurrency(),
+                            Duration.ofMillis(properties.getDbAcquireTimeoutMs()));
+                    return new ConcurrencyLimitedDataSource(dataSource, limiter);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder dbConcurrencyLimiterMetrics(DataSource dataSource) {
+        return registry -> {
+            // May sit under other DataSource wrappers
+            try {
+                if (dataSource.isWrapperFor(ConcurrencyLimitedDataSource.class)) {
+                    dataSource.unwrap(ConcurrencyLimitedDataSource.class).getLimiter().bindTo(registry);
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException("Cannot inspect DataSource", e);
+            }
+        };
+    }
+}
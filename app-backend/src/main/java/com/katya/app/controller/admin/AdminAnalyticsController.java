@@ -2,14 +2,22 @@ package com.katya.app.controller.admin;
 
 import com.katya.app.dto.common.ApiResponse;
 import com.katya.app.dto.response.DashboardStatsResponse;
+import com.katya.app.dto.response.TimeSeriesPointResponse;
 import com.katya.app.service.AnalyticsService;
 import com.katya.app.util.ResponseBuilder;
 import com.katya.app.util.constant.ApiEndpoints;
+import com.katya.app.util.enums.RollupDimension;
+import com.katya.app.util.enums.RollupGranularity;
+import com.katya.app.util.enums.RollupMetric;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @RestController
 @RequestMapping(ApiEndpoints.ADMIN_ANALYTICS)
 @RequiredArgsConstructor
@@ -23,4 +31,17 @@ public class AdminAnalyticsController {
         DashboardStatsResponse stats = analyticsService.getDashboardStats();
         return ResponseBuilder.success(stats);
     }
+
+    @GetMapping("/timeseries")
+    public ResponseEntity<ApiResponse<List<TimeSeriesPointResponse>>> getTimeSeries(
+            @RequestParam RollupMetric metric,
+            @RequestParam(required = false, defaultValue = "DAY") RollupGranularity granularity,
+            @RequestParam(required = false, defaultValue = "ALL") RollupDimension dimension,
+            @RequestParam(required = false) String key,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+
+        List<TimeSeriesPointResponse> series = analyticsService.getTimeSeries(metric, granularity, dimension, key, from, to);
+        return ResponseBuilder.success(series);
+    }
 }
\ No newline at end of file
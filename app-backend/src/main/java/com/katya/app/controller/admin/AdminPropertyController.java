@@ -7,6 +7,7 @@ import com.katya.app.dto.request.PropertyCreateRequest;
 import com.katya.app.dto.request.PropertySearchRequest;
 import com.katya.app.dto.request.PropertyUpdateRequest;
 import com.katya.app.dto.response.PropertyDetailResponse;
+import com.katya.app.dto.response.PropertyImageBatchResponse;
 import com.katya.app.dto.response.PropertyImageResponse;
 import com.katya.app.dto.response.PropertySummaryResponse;
 import com.katya.app.security.UserPrincipal;
@@ -101,6 +102,18 @@ public class AdminPropertyController {
         return ResponseBuilder.created(image, "Image uploaded successfully");
     }
 
+    @PostMapping("/{id}/images/batch")
+    @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN', 'EDITOR')")
+    public ResponseEntity<ApiResponse<PropertyImageBatchResponse>> uploadPropertyImages(
+            @PathVariable Long id,
+            @RequestParam("files") List<MultipartFile> files,
+            @RequestParam(required = false) Integer coverIndex) {
+
+        PropertyImageBatchResponse result = fileUploadService.uploadPropertyImages(id, files, coverIndex);
+        return ResponseBuilder.created(result,
+                String.format("Uploaded %d of %d images", result.getUploaded(), files.size()));
+    }
+
     @DeleteMapping("/images/{imageId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN', 'EDITOR')")
     public ResponseEntity<ApiResponse<String>> deletePropertyImage(@PathVariable Long imageId) {
@@ -6,8 +6,10 @@ import com.katya.app.dto.request.PasswordChangeRequest;
 import com.katya.app.dto.response.LoginResponse;
 import com.katya.app.security.UserPrincipal;
 import com.katya.app.service.AuthService;
+import com.katya.app.util.RequestUtils;
 import com.katya.app.util.ResponseBuilder;
 import com.katya.app.util.constant.ApiEndpoints;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.*;
 import org.springframework.http.ResponseEntity;
@@ -22,8 +24,9 @@ public class AuthController {
     private final AuthService authService;
 
     @PostMapping("/login")
-    public ResponseEntity<ApiResponse<LoginResponse>> login(@Valid @RequestBody LoginRequest request) {
-        LoginResponse response = authService.login(request);
+    public ResponseEntity<ApiResponse<LoginResponse>> login(@Valid @RequestBody LoginRequest request,
+                                                            HttpServletRequest httpRequest) {
+        LoginResponse response = authService.login(request, RequestUtils.getClientIp(httpRequest));
         return ResponseBuilder.success(response, "Login successful");
     }
 
@@ -48,7 +51,7 @@ public class AuthController {
                 .id(userPrincipal.getId())
                 .email(userPrincipal.getUsername())
                 .fullName(userPrincipal.getFullName())
-                .role(userPrincipal.getUser().getRole())
+                .role(userPrincipal.getRole())
                 .isActive(userPrincipal.isEnabled())
                 .build();
 
@@ -3,9 +3,11 @@ package com.katya.app.controller.page;
 import com.katya.app.dto.common.ApiResponse;
 import com.katya.app.dto.request.ContactMessageRequest;
 import com.katya.app.service.ContactMessageService;
+import com.katya.app.util.RequestUtils;
 import com.katya.app.util.ResponseBuilder;
 import com.katya.app.util.constant.ApiEndpoints;
 import com.katya.app.util.constant.AppConstants;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -19,8 +21,11 @@ public class ContactController {
     private final ContactMessageService contactMessageService;
 
     @PostMapping
-    public ResponseEntity<ApiResponse<String>> submitContactMessage(@Valid @RequestBody ContactMessageRequest request) {
-        contactMessageService.submitContactMessage(request);
+    public ResponseEntity<ApiResponse<String>> submitContactMessage(
+            @Valid @RequestBody ContactMessageRequest request,
+            HttpServletRequest httpRequest) {
+
+        contactMessageService.submitContactMessage(request, RequestUtils.getClientIp(httpRequest));
         return ResponseBuilder.success(AppConstants.SUCCESS_CREATED, "Contact message submitted successfully");
     }
 }
\ No newline at end of file
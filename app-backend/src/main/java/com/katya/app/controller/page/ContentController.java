@@ -1,6 +1,7 @@
 package com.katya.app.controller.page;
 
 import com.katya.app.dto.common.ApiResponse;
+import com.katya.app.dto.response.ContentPageListItemResponse;
 import com.katya.app.dto.response.ContentPageResponse;
 import com.katya.app.service.ContentPageService;
 import com.katya.app.util.DtoUtils;
@@ -23,11 +24,11 @@ public class ContentController {
     private final ContentPageService contentPageService;
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<ContentPageResponse>>> getPublishedPages(
+    public ResponseEntity<ApiResponse<List<ContentPageListItemResponse>>> getPublishedPages(
             @RequestParam(required = false, defaultValue = AppConstants.DEFAULT_LOCALE) @ValidLocale String locale) {
 
         Locale loc = DtoUtils.parseLocale(locale, Locale.VI);
-        List<ContentPageResponse> pages = contentPageService.getPublishedPages(loc);
+        List<ContentPageListItemResponse> pages = contentPageService.getPublishedPages(loc);
         return ResponseBuilder.success(pages);
     }
 
@@ -6,13 +6,17 @@ import com.katya.app.dto.request.PropertySearchRequest;
 import com.katya.app.dto.response.PropertyDetailResponse;
 import com.katya.app.dto.response.PropertySummaryResponse;
 import com.katya.app.service.PropertyService;
+import com.katya.app.service.PropertyViewService;
+import com.katya.app.service.TrendingService;
 import com.katya.app.util.DtoUtils;
+import com.katya.app.util.RequestUtils;
 import com.katya.app.util.ResponseBuilder;
 import com.katya.app.util.constant.ApiEndpoints;
 import com.katya.app.util.constant.AppConstants;
 import com.katya.app.util.enums.Locale;
 import com.katya.app.util.enums.PropertyType;
 import com.katya.app.util.validation.ValidLocale;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -27,6 +31,8 @@ import java.util.List;
 public class PropertyController {
 
     private final PropertyService propertyService;
+    private final PropertyViewService propertyViewService;
+    private final TrendingService trendingService;
 
     @GetMapping
     public ResponseEntity<ApiResponse<PageResponse<PropertySummaryResponse>>> getProperties(
@@ -44,10 +50,12 @@ public class PropertyController {
     @GetMapping("/{slug}")
     public ResponseEntity<ApiResponse<PropertyDetailResponse>> getPropertyBySlug(
             @PathVariable String slug,
-            @RequestParam(required = false, defaultValue = AppConstants.DEFAULT_LOCALE) String locale) {
+            @RequestParam(required = false, defaultValue = AppConstants.DEFAULT_LOCALE) String locale,
+            HttpServletRequest httpRequest) {
 
         Locale loc = DtoUtils.parseLocale(locale, Locale.VI);
         PropertyDetailResponse property = propertyService.getPropertyBySlug(slug, loc);
+        propertyViewService.recordView(property.getId(), RequestUtils.getVisitorKey(httpRequest));
         return ResponseBuilder.success(property);
     }
 
@@ -71,6 +79,18 @@ public class PropertyController {
         return ResponseBuilder.success(properties);
     }
 
+    @GetMapping("/trending")
+    public ResponseEntity<ApiResponse<List<PropertySummaryResponse>>> getTrendingProperties(
+            @RequestParam(required = false) String propertyType,
+            @RequestParam(required = false, defaultValue = AppConstants.DEFAULT_LOCALE) String locale,
+            @RequestParam(required = false, defaultValue = "10") int limit) {
+
+        PropertyType type = DtoUtils.parsePropertyType(propertyType);
+        Locale loc = DtoUtils.parseLocale(locale, Locale.VI);
+        List<PropertySummaryResponse> properties = trendingService.getTrendingProperties(type, loc, limit);
+        return ResponseBuilder.success(properties);
+    }
+
     @GetMapping("/{slug}/available")
     public ResponseEntity<ApiResponse<Boolean>> checkSlugAvailability(@PathVariable String slug) {
         boolean available = propertyService.isSlugAvailable(slug, null);
@@ -0,0 +1,169 @@
+package com.katya.app.controller.page;
+
+import com.katya.app.config.FileUploadConfig;
+import com.katya.app.util.constant.ApiEndpoints;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.*;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Serves files written by the local content-addressed storage. The URL carries the
+ * SHA-256 of the content, so responses are cacheable forever and the ETag is the hash
+ * itself: conditional requests are answered without touching the file. Bodies go out via
+ * the container's sendfile when available, otherwise via FileChannel.transferTo.
+ * Files sit in the folder they were uploaded to (up to three levels, e.g.
+ * q-apartment/property/variants/ab/cd/abcd....jpg); other paths under /uploads fall
+ * through to the static resource handler in WebConfig.
+ */
+@RestController
+@RequestMapping(ApiEndpoints.UPLOADS)
+@RequiredArgsConstructor
+public class UploadController {
+
+    // Tomcat's sendfile contract, as used by its DefaultServlet
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final int HASH_LENGTH = 64;
+
+    // Path patterns cannot match a variable number of segments before the shards, so each depth is listed
+    private static final String SHARDED_FILE =
+            "{shard1:[0-9a-f][0-9a-f]}/{shard2:[0-9a-f][0-9a-f]}/{fileName:[0-9a-f]+(?:\\.[a-z0-9]+)?}";
+    private static final String FOLDER = "[A-Za-z0-9_-][A-Za-z0-9._-]*";
+
+    private final FileUploadConfig fileUploadConfig;
+
+    private Path root;
+    private String cacheControl;
+
+    @PostConstruct
+    void init() {
+        root = Path.of(fileUploadConfig.getPath()).toAbsolutePath().normalize();
+        cacheControl = CacheControl.maxAge(Duration.ofSeconds(fileUploadConfig.getCacheMaxAgeSeconds()))
+                .cachePublic()
+                .immutable()
+                .getHeaderValue();
+    }
+
+    // GET mappings also answer HEAD; the body is skipped for those
+    @GetMapping({
+            "/" + SHARDED_FILE,
+            "/{folder1:" + FOLDER + "}/" + SHARDED_FILE,
+            "/{folder1:" + FOLDER + "}/{folder2:" + FOLDER + "}/" + SHARDED_FILE,
+            "/{folder1:" + FOLDER + "}/{folder2:" + FOLDER + "}/{folder3:" + FOLDER + "}/" + SHARDED_FILE
+    })
+    public void serve(@PathVariable String shard1, @PathVariable String shard2, @PathVariable String fileName,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        int dot = fileName.indexOf('.');
+        String hash = dot < 0 ? fileName : fileName.substring(0, dot);
+        if (hash.length() != HASH_LENGTH || !hash.startsWith(shard1 + shard2)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        String etag = "\"" + hash + "\"";
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return;
+        }
+
+        // The key is the path below /uploads, the same one LocalStorageService wrote
+        String key = request.getRequestURI().substring(request.getContextPath().length() + ApiEndpoints.UPLOADS.length() + 1);
+        Path file = root.resolve(key).normalize();
+        if (!file.startsWith(root)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        long length;
+        try {
+            length = Files.size(file);
+        } catch (IOException e) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setContentType(MediaTypeFactory.getMediaType(fileName)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        // A stale If-Range means the client's partial copy is of other content: send it all
+        if (range != null && isRangeCurrent(request.getHeader(HttpHeaders.IF_RANGE), etag)) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(range);
+                // Several ranges would need a multipart body; serving the whole file is allowed instead
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length);
+                    if (start >= length || start > end) {
+                        throw new IllegalArgumentException("Range starts past the end of the file");
+                    }
+                    response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+                }
+            } catch (IllegalArgumentException e) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if (HttpMethod.HEAD.matches(request.getMethod()) || count == 0) {
+            return;
+        }
+        transfer(request, response, file, start, count);
+    }
+
+    // Helper methods
+    private void transfer(HttpServletRequest request, HttpServletResponse response, Path file,
+                          long start, long count) throws IOException {
+        if (count >= fileUploadConfig.getSendfileMinSize() && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // The container streams the file from the kernel after this method returns
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + count);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long end = start + count;
+            while (position < end) {
+                long sent = channel.transferTo(position, end - position, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+            }
+        }
+    }
+
+    private static boolean isRangeCurrent(String ifRange, String etag) {
+        // Only strong validators may be used with If-Range; a date never matches a hash
+        return ifRange == null || ifRange.trim().equals(etag);
+    }
+}
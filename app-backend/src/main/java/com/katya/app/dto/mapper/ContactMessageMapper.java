@@ -3,6 +3,7 @@ package com.katya.app.dto.mapper;
 import com.katya.app.dto.request.ContactMessageRequest;
 import com.katya.app.dto.response.ContactMessageResponse;
 import com.katya.app.dto.response.PropertySummaryResponse;
+import com.katya.app.model.entity.AppUser;
 import com.katya.app.model.entity.ContactMessage;
 import com.katya.app.util.enums.Locale;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -35,7 +36,12 @@ public class ContactMessageMapper {
         if (message.getProperty() != null) {
             propertyResponse = propertyMapper.toSummaryResponse(message.getProperty(), locale);
         }
+        return toResponse(message, propertyResponse, message.getHandledBy());
+    }
 
+    // For list pages where property cards and handlers were batch-loaded up front
+    public ContactMessageResponse toResponse(ContactMessage message, PropertySummaryResponse propertyResponse,
+                                             AppUser handledBy) {
         String responseTimeFormatted = null;
         if (message.isHandled()) {
             Duration responseTime = message.getResponseTime();
@@ -55,7 +61,7 @@ public class ContactMessageMapper {
                 .preferredLang(message.getPreferredLang())
                 .createdAt(message.getCreatedAt())
                 .isHandled(message.isHandled())
-                .handledBy(userMapper.toSummaryResponse(message.getHandledBy()))
+                .handledBy(userMapper.toSummaryResponse(handledBy))
                 .handledAt(message.getHandledAt())
                 .responseTimeFormatted(responseTimeFormatted)
                 .build();
@@ -5,7 +5,9 @@ import com.katya.app.dto.request.PropertyCreateRequest;
 import com.katya.app.dto.request.PropertyTranslationRequest;
 import com.katya.app.dto.request.PropertyUpdateRequest;
 import com.katya.app.dto.response.*;
+import com.katya.app.model.embeddable.ImageVariant;
 import com.katya.app.model.entity.*;
+import com.katya.app.service.ImageVariantService;
 import com.katya.app.util.enums.Locale;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -24,6 +26,7 @@ public class PropertyMapper {
 
     private final UserMapper userMapper;
     private final CloudinaryConfig cloudinaryConfig;
+    private final ImageVariantService imageVariantService;
 
     public Property toEntity(PropertyCreateRequest request) {
         Property property = Property.builder()
@@ -80,22 +83,37 @@ public class PropertyMapper {
 
     public PropertySummaryResponse toSummaryResponse(Property property, Locale locale) {
         PropertyI18n translation = property.getTranslation(locale);
-        PropertyImage coverImage = property.getCoverImage();
+        return toSummaryResponse(property,
+                translation != null ? translation.getTitle() : null,
+                translation != null ? translation.getShortDescription() : null,
+                translation != null ? translation.getAddressText() : null);
+    }
+
+    // For callers that load cards in bulk
+    // Row shape of PropertyRepository.findSummaryRowsByIdIn: property, title, short description, address text
+    public PropertySummaryResponse toSummaryResponse(Object[] summaryRow) {
+        return toSummaryResponse((Property) summaryRow[0], (String) summaryRow[1],
+                (String) summaryRow[2], (String) summaryRow[3]);
+    }
 
+    // The cover comes from the property row itself, so cards never touch property_image
+    public PropertySummaryResponse toSummaryResponse(Property property, String title,
+                                                     String shortDescription, String addressText) {
+        List<ImageVariant> coverVariants = property.getCoverImageVariants();
         return PropertySummaryResponse.builder()
                 .id(property.getId())
                 .slug(property.getSlug())
                 .code(property.getCode())
                 .propertyType(property.getPropertyType())
-                .title(translation != null ? translation.getTitle() : property.getSlug())
-                .shortDescription(translation != null && translation.getDescriptionMd() != null ?
-                        truncateText(translation.getDescriptionMd(), 150) : null)
+                .title(title != null ? title : property.getSlug())
+                .shortDescription(shortDescription)
                 .priceMonth(property.getPriceMonth())
                 .areaSqm(property.getAreaSqm())
                 .bedrooms(property.getBedrooms())
                 .bathrooms(property.getBathrooms())
-                .addressText(translation != null ? translation.getAddressText() : property.getAddressLine())
-                .coverImageUrl(coverImage != null ? coverImage.getImageUrl() : null)
+                .addressText(addressText != null ? addressText : property.getAddressLine())
+                .coverImageUrl(coverImageUrl(property.getCoverImageUrl(), coverVariants))
+                .coverImageSrcset(imageVariantService.toSrcset(coverVariants))
                 .status(property.getStatus())
                 .isFeatured(property.getIsFeatured())
                 .publishedAt(property.getPublishedAt())
@@ -187,9 +205,10 @@ public class PropertyMapper {
                     .amenities(amenityResponses)  // Now properly mapped
                     .createdBy(userMapper.toSummaryResponse(property.getCreatedBy()))
                     .updatedBy(userMapper.toSummaryResponse(property.getUpdatedBy()))
-                    .totalImages(property.getImages().size())
-                    .totalAmenities(property.getAmenities().size())
-                    .totalInquiries(property.getContactMessages().size())
+                    // Maintained counters: inquiries in particular are never loaded just to be counted
+                    .totalImages(property.getImageCount())
+                    .totalAmenities(property.getAmenityCount())
+                    .totalInquiries(property.getInquiryCount())
                     .build();
 
         } catch (Exception e) {
@@ -207,8 +226,8 @@ public class PropertyMapper {
         // Build imageUrl - handle both Cloudinary and local files
         String imageUrl;
         if (image.getFilePath() != null) {
-            if (image.getFilePath().startsWith("http")) {
-                // Already a full Cloudinary URL
+            if (image.getFilePath().startsWith("http") || image.getFilePath().startsWith("/")) {
+                // Already a full Cloudinary URL, or a URL served by local storage
                 imageUrl = image.getFilePath();
             } else if (image.getFilePath().contains("/")) {
                 // Cloudinary public_id format, construct URL
@@ -230,17 +249,20 @@ public class PropertyMapper {
                 .fileSizeFormatted(image.getImageSizeFormatted())
                 .sortOrder(image.getSortOrder())
                 .isCover(image.getIsCover())
+                .variants(image.getVariants())
+                .srcset(imageVariantService.toSrcset(image.getVariants()))
                 .build();
     }
 
-    private String truncateText(String text, int maxLength) {
-        if (text == null || text.length() <= maxLength) {
-            return text;
+    // Cards show the card-sized rendition when there is one, not the full upload
+    private String coverImageUrl(String coverPath, List<ImageVariant> coverVariants) {
+        ImageVariant cardVariant = imageVariantService.selectCardVariant(coverVariants);
+        if (cardVariant != null) {
+            return cardVariant.getUrl();
         }
-        return text.substring(0, maxLength) + "...";
+        return coverPath != null ? PropertyImage.toImageUrl(coverPath) : null;
     }
 
-
     private PropertyI18n getTranslationSafe(Property property, Locale locale) {
         try {
             PropertyI18n translation = property.getTranslation(locale);
@@ -266,28 +288,6 @@ public class PropertyMapper {
     }
 
 
-    private PropertyImage getCoverImageSafe(Property property) {
-        try {
-            PropertyImage coverImage = property.getCoverImage();
-            if (coverImage != null) {
-                return coverImage;
-            }
-
-            // Fallback to first image
-            if (!property.getImages().isEmpty()) {
-                return property.getImages().stream()
-                        .min((img1, img2) -> Short.compare(img1.getSortOrder(), img2.getSortOrder()))
-                        .orElse(property.getImages().get(0));
-            }
-
-            return null;
-        } catch (Exception e) {
-            log.warn("Error getting cover image for property {}: {}", property.getId(), e.getMessage());
-            return null;
-        }
-    }
-
-
     private PropertyTranslationResponse buildTranslationResponse(PropertyI18n translation) {
         if (translation == null) {
             return null;
@@ -304,7 +304,6 @@ public class PropertyMapper {
     public PropertySummaryResponse toSummaryResponseSafe(Property property, Locale locale) {
         try {
             PropertyI18n translation = getTranslationSafe(property, locale);
-            PropertyImage coverImage = getCoverImageSafe(property);
 
             return PropertySummaryResponse.builder()
                     .id(property.getId())
@@ -313,14 +312,15 @@ public class PropertyMapper {
                     .propertyType(property.getPropertyType())
                     .title(translation != null ? translation.getTitle() :
                             (property.getCode() != null ? property.getCode() : "Property " + property.getId()))
-                    .shortDescription(translation != null && translation.getDescriptionMd() != null ?
-                            truncateText(translation.getDescriptionMd(), 150) : null)
+                    .shortDescription(translation != null ? translation.getShortDescription() : null)
                     .priceMonth(property.getPriceMonth())
                     .areaSqm(property.getAreaSqm())
                     .bedrooms(property.getBedrooms())
                     .bathrooms(property.getBathrooms())
-                    .addressText(translation != null ? translation.getAddressText() : property.getAddressLine())
-                    .coverImageUrl(coverImage != null ? coverImage.getImageUrl() : null)
+                    .addressText(translation != null && translation.getAddressText() != null
+                            ? translation.getAddressText() : property.getAddressLine())
+                    .coverImageUrl(coverImageUrl(property.getCoverImageUrl(), property.getCoverImageVariants()))
+                    .coverImageSrcset(imageVariantService.toSrcset(property.getCoverImageVariants()))
                     .status(property.getStatus())
                     .isFeatured(property.getIsFeatured())
                     .publishedAt(property.getPublishedAt())
@@ -0,0 +1,20 @@
+package com.katya.app.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ContentPageListItemResponse {
+    private Long id;
+    private String slug;
+    private String title; // Current locale title
+    private String bodyPreview; // Stored preview, first 200 chars
+    private LocalDateTime updatedAt;
+}
@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 @Data
 @NoArgsConstructor
@@ -44,4 +45,8 @@ public class DashboardStatsResponse {
     // Recent activity counts
     private Long propertiesCreatedThisWeek;
     private Long messagesReceivedThisWeek;
+
+    // View statistics
+    private Long totalViews;
+    private List<PropertyViewStatsResponse> topViewedProperties;
 }
@@ -50,4 +50,6 @@ public class PropertyDetailResponse {
     private Integer totalImages;
     private Integer totalAmenities;
     private Integer totalInquiries;
+    private Long viewCount;
+    private Long uniqueVisitors;
 }
\ No newline at end of file
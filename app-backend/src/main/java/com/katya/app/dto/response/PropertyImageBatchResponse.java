@@ -0,0 +1,21 @@
+package com.katya.app.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PropertyImageBatchResponse {
+    private Long propertyId;
+    private Integer uploaded;
+    private Integer failed;
+
+    // One entry per submitted file, in request order
+    private List<PropertyImageUploadResult> results;
+}
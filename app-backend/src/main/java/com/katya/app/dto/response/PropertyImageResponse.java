@@ -1,10 +1,13 @@
 package com.katya.app.dto.response;
 
+import com.katya.app.model.embeddable.ImageVariant;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -18,4 +21,8 @@ public class PropertyImageResponse {
     private String fileSizeFormatted;
     private Short sortOrder;
     private Boolean isCover;
+
+    // Resized renditions, smallest first, and the matching srcset attribute value
+    private List<ImageVariant> variants;
+    private String srcset;
 }
\ No newline at end of file
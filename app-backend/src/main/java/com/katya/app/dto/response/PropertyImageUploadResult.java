@@ -0,0 +1,18 @@
+package com.katya.app.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PropertyImageUploadResult {
+    private Integer index;
+    private String fileName;
+    private Boolean success;
+    private PropertyImageResponse image;
+    private String error;
+}
@@ -27,6 +27,7 @@ public class PropertySummaryResponse {
     private Short bathrooms;
     private String addressText;
     private String coverImageUrl;
+    private String coverImageSrcset;
     private PropertyStatus status;
     private Boolean isFeatured;
     private LocalDateTime publishedAt;
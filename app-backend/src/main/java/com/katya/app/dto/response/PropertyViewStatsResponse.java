@@ -0,0 +1,18 @@
+package com.katya.app.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PropertyViewStatsResponse {
+    private Long propertyId;
+    private String slug;
+    private String code;
+    private Long viewCount;
+    private Long uniqueVisitors;
+}
@@ -0,0 +1,18 @@
+package com.katya.app.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TimeSeriesPointResponse {
+    private LocalDateTime bucketStart;
+    private String key;
+    private Long count;
+}
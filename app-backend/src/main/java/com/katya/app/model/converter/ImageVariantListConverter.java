@@ -0,0 +1,43 @@
+package com.katya.app.model.converter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.katya.app.model.embeddable.ImageVariant;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.List;
+
+// Stored as JSON text so plain JDBC writers can set it as a string on any database
+@Converter
+public class ImageVariantListConverter implements AttributeConverter<List<ImageVariant>, String> {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<List<ImageVariant>> TYPE = new TypeReference<>() {
+    };
+
+    @Override
+    public String convertToDatabaseColumn(List<ImageVariant> variants) {
+        if (variants == null || variants.isEmpty()) {
+            return null;
+        }
+        try {
+            return MAPPER.writeValueAsString(variants);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize image variants", e);
+        }
+    }
+
+    @Override
+    public List<ImageVariant> convertToEntityAttribute(String json) {
+        if (json == null || json.isBlank()) {
+            return null;
+        }
+        try {
+            return MAPPER.readValue(json, TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot read image variants", e);
+        }
+    }
+}
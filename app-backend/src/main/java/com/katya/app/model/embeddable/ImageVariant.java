@@ -0,0 +1,21 @@
+package com.katya.app.model.embeddable;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+// One resized rendition of a property image, stored as JSON on property_image.variants
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImageVariant implements Serializable {
+
+    private Integer width;
+    private Integer height;
+    private Integer bytes;
+    private String url;
+}
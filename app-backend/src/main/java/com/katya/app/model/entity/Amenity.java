@@ -1,13 +1,18 @@
 package com.katya.app.model.entity;
 
+import com.katya.app.util.constant.AppConstants;
 import com.katya.app.util.enums.Locale;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = AppConstants.L2_AMENITY)
 @Table(name = "amenity")
 @Data
 @NoArgsConstructor
@@ -24,6 +29,7 @@ public class Amenity {
     private String key;
 
     // Relationships
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = AppConstants.L2_AMENITY_TRANSLATIONS)
     @OneToMany(mappedBy = "amenity", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
     @Builder.Default
     private List<AmenityI18n> translations = new ArrayList<>();
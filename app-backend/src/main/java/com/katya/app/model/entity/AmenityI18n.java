@@ -1,11 +1,16 @@
 package com.katya.app.model.entity;
 
 import com.katya.app.model.embeddable.AmenityI18nId;
+import com.katya.app.util.constant.AppConstants;
 import com.katya.app.util.enums.Locale;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = AppConstants.L2_AMENITY_I18N)
 @Table(name = "amenity_i18n")
 @Data
 @NoArgsConstructor
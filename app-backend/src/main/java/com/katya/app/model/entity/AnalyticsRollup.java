@@ -0,0 +1,47 @@
+package com.katya.app.model.entity;
+
+import com.katya.app.util.enums.RollupDimension;
+import com.katya.app.util.enums.RollupGranularity;
+import com.katya.app.util.enums.RollupMetric;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "analytics_rollup", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_analytics_rollup_bucket",
+                columnNames = {"metric", "granularity", "dimension", "bucket_start", "dimension_value"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AnalyticsRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 30)
+    @Enumerated(EnumType.STRING)
+    private RollupMetric metric;
+
+    @Column(nullable = false, length = 10)
+    @Enumerated(EnumType.STRING)
+    private RollupGranularity granularity;
+
+    @Column(nullable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private RollupDimension dimension;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(name = "dimension_value", nullable = false, length = 50)
+    private String dimensionValue;
+
+    @Column(name = "event_count", nullable = false)
+    @Builder.Default
+    private Long eventCount = 0L;
+}
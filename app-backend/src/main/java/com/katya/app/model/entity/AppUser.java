@@ -1,14 +1,19 @@
 package com.katya.app.model.entity;
 
 import com.katya.app.model.baseEntity.BaseEntity;
+import com.katya.app.util.constant.AppConstants;
 import com.katya.app.util.enums.UserRole;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = AppConstants.L2_APP_USER)
 @Table(name = "app_user")
 @Data
 @NoArgsConstructor
@@ -40,6 +45,16 @@ public class AppUser extends BaseEntity {
     @Builder.Default
     private Boolean isActive = true;
 
+    // Embedded in access tokens; bumping it revokes every token issued before
+    @Column(name = "token_version", nullable = false, columnDefinition = "integer default 0 not null")
+    @Builder.Default
+    private Integer tokenVersion = 0;
+
+    // Cached rows can be stale on other nodes; a save based on one fails instead of overwriting
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0 not null")
+    private Long version;
+
     // Relationships
     @OneToMany(mappedBy = "createdBy", fetch = FetchType.LAZY)
     @Builder.Default
@@ -48,4 +63,8 @@ public class AppUser extends BaseEntity {
     @OneToMany(mappedBy = "updatedBy", fetch = FetchType.LAZY)
     @Builder.Default
     private List<Property> updatedProperties = new ArrayList<>();
+
+    public void incrementTokenVersion() {
+        this.tokenVersion = this.tokenVersion + 1;
+    }
 }
@@ -8,7 +8,9 @@ import java.time.Duration;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "contact_message")
+@Table(name = "contact_message", indexes = {
+        @Index(name = "idx_contact_message_created_at", columnList = "created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -14,6 +14,8 @@ import lombok.*;
 @ToString(exclude = "contentPage")
 public class ContentPageI18n {
 
+    public static final int BODY_PREVIEW_LENGTH = 200;
+
     @EmbeddedId
     private ContentPageI18nId id;
 
@@ -28,11 +30,21 @@ public class ContentPageI18n {
     @Column(name = "body_md", columnDefinition = "TEXT")
     private String bodyMd;
 
+    // Plain-text preview kept in sync with bodyMd so listings never load the full body
+    @Column(name = "body_preview", length = BODY_PREVIEW_LENGTH + 3)
+    private String bodyPreview;
+
     // Convenience methods
     public Locale getLocale() {
         return id != null ? id.getLocale() : null;
     }
 
+    @PrePersist
+    @PreUpdate
+    public void refreshBodyPreview() {
+        this.bodyPreview = getBodyPreview(BODY_PREVIEW_LENGTH);
+    }
+
     public String getBodyPreview(int maxLength) {
         if (bodyMd == null) return "";
         String plainText = bodyMd.replaceAll("#+\\s*", "").replaceAll("\\*", "");
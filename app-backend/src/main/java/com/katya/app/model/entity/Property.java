@@ -1,6 +1,8 @@
 package com.katya.app.model.entity;
 
 import com.katya.app.model.baseEntity.BaseEntity;
+import com.katya.app.model.converter.ImageVariantListConverter;
+import com.katya.app.model.embeddable.ImageVariant;
 import com.katya.app.util.enums.Locale;
 import com.katya.app.util.enums.PropertyStatus;
 import com.katya.app.util.enums.PropertyType;
@@ -10,7 +12,6 @@ import lombok.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 
 @Entity
@@ -75,6 +76,32 @@ public class Property extends BaseEntity {
     @Column(name = "published_at")
     private LocalDateTime publishedAt;
 
+    // Listing card cover, copied from the cover image by PropertyRepository.refreshCoverImage.
+    // Never written through the entity, so saving a stale property cannot undo an image change
+    @Column(name = "cover_image_url", length = 512, insertable = false, updatable = false)
+    private String coverImageUrl;
+
+    @Convert(converter = ImageVariantListConverter.class)
+    @Column(name = "cover_image_variants", columnDefinition = "text", insertable = false, updatable = false)
+    private List<ImageVariant> coverImageVariants;
+
+    // Child row counts, changed only by relative updates in PropertyRepository and recounted
+    // by StatCounterReconcileJob, so totals never require loading the collections
+    @Column(name = "image_count", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "integer default 0")
+    @Builder.Default
+    private Integer imageCount = 0;
+
+    @Column(name = "amenity_count", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "integer default 0")
+    @Builder.Default
+    private Integer amenityCount = 0;
+
+    @Column(name = "inquiry_count", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "integer default 0")
+    @Builder.Default
+    private Integer inquiryCount = 0;
+
     // Audit fields
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "created_by")
@@ -109,15 +136,6 @@ public class Property extends BaseEntity {
                 .orElse(null);
     }
 
-    public PropertyImage getCoverImage() {
-        return images.stream()
-                .filter(PropertyImage::getIsCover)
-                .min(Comparator.comparing(PropertyImage::getSortOrder))
-                .orElse(images.stream()
-                        .min(Comparator.comparing(PropertyImage::getSortOrder))
-                        .orElse(null));
-    }
-
     // Property type specific helpers
     public boolean isRoom() {
         return PropertyType.ROOM.equals(this.propertyType);
@@ -14,6 +14,8 @@ import lombok.*;
 @ToString(exclude = "property")
 public class PropertyI18n {
 
+    public static final int SHORT_DESCRIPTION_LENGTH = 150;
+
     @EmbeddedId
     private PropertyI18nId id;
 
@@ -31,6 +33,10 @@ public class PropertyI18n {
     @Column(name = "address_text")
     private String addressText;
 
+    // Card excerpt kept in sync with descriptionMd so listings never load the full text
+    @Column(name = "short_description", length = SHORT_DESCRIPTION_LENGTH + 3)
+    private String shortDescription;
+
     // Convenience methods
     public Locale getLocale() {
         return id != null ? id.getLocale() : null;
@@ -43,6 +49,16 @@ public class PropertyI18n {
         this.id.setLocale(locale);
     }
 
+    @PrePersist
+    @PreUpdate
+    public void refreshShortDescription() {
+        if (descriptionMd == null || descriptionMd.length() <= SHORT_DESCRIPTION_LENGTH) {
+            this.shortDescription = descriptionMd;
+        } else {
+            this.shortDescription = descriptionMd.substring(0, SHORT_DESCRIPTION_LENGTH) + "...";
+        }
+    }
+
     // Helper method for property type specific content
     public String getTypeSpecificDescription() {
         if (property != null && property.isRoom()) {
@@ -1,11 +1,17 @@
 package com.katya.app.model.entity;
 
 import com.katya.app.model.baseEntity.BaseEntity;
+import com.katya.app.model.converter.ImageVariantListConverter;
+import com.katya.app.model.embeddable.ImageVariant;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.util.List;
+
 @Entity
-@Table(name = "property_image")
+@Table(name = "property_image", indexes = {
+        @Index(name = "idx_property_image_file_path", columnList = "file_path")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -39,12 +45,22 @@ public class PropertyImage extends BaseEntity {
     @Builder.Default
     private Boolean isCover = false;
 
+    // Resized renditions created at upload; null for images uploaded before variants existed
+    @Convert(converter = ImageVariantListConverter.class)
+    @Column(name = "variants", columnDefinition = "text")
+    private List<ImageVariant> variants;
+
     public String getImageUrl() {
+        return toImageUrl(filePath);
+    }
+
+    public static String toImageUrl(String filePath) {
         if (filePath == null) {
             return "/images/placeholder.jpg";
         }
 
-        if (filePath.startsWith("http")) {
+        // Full Cloudinary URL, or a URL served by local storage
+        if (filePath.startsWith("http") || filePath.startsWith("/")) {
             return filePath;
         }
 
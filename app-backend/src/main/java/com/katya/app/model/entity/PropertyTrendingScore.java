@@ -0,0 +1,30 @@
+package com.katya.app.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "property_trending_score", indexes = {
+        @Index(name = "idx_property_trending_score_updated_at", columnList = "updated_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PropertyTrendingScore {
+
+    @Id
+    @Column(name = "property_id")
+    private Long propertyId;
+
+    // Decayed score as of updated_at; readers decay it further to their own clock
+    @Column(name = "score", nullable = false)
+    @Builder.Default
+    private Double score = 0.0;
+
+    @Column(name = "updated_at", nullable = false)
+    @Builder.Default
+    private LocalDateTime updatedAt = LocalDateTime.now();
+}
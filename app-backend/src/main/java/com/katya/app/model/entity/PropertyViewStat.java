@@ -0,0 +1,38 @@
+package com.katya.app.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "property_view_stat", indexes = {
+        @Index(name = "idx_property_view_stat_views", columnList = "view_count")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString(exclude = "visitorSketch")
+public class PropertyViewStat {
+
+    @Id
+    @Column(name = "property_id")
+    private Long propertyId;
+
+    @Column(name = "view_count", nullable = false)
+    @Builder.Default
+    private Long viewCount = 0L;
+
+    @Column(name = "unique_visitors", nullable = false)
+    @Builder.Default
+    private Long uniqueVisitors = 0L;
+
+    // Serialized HyperLogLog registers, merged on every flush
+    @Column(name = "visitor_sketch", length = 65536)
+    private byte[] visitorSketch;
+
+    @Column(name = "updated_at", nullable = false)
+    @Builder.Default
+    private LocalDateTime updatedAt = LocalDateTime.now();
+}
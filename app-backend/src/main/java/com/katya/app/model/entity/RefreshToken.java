@@ -6,7 +6,10 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "refresh_token")
+@Table(name = "refresh_token", indexes = {
+        @Index(name = "idx_refresh_token_expires_at", columnList = "expires_at"),
+        @Index(name = "idx_refresh_token_revoked_at", columnList = "revoked_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -18,8 +21,9 @@ public class RefreshToken {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false, unique = true)
-    private String token;
+    // SHA-256 hex digest of the refresh JWT; the token itself is never stored
+    @Column(name = "token", nullable = false, unique = true, length = 64)
+    private String tokenHash;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "user_id", nullable = false)
@@ -36,6 +40,9 @@ public class RefreshToken {
     @Builder.Default
     private Boolean isRevoked = false;
 
+    @Column(name = "revoked_at")
+    private LocalDateTime revokedAt;
+
     @Column(name = "device_info")
     private String deviceInfo;
 
@@ -47,4 +54,9 @@ public class RefreshToken {
     public boolean isValid() {
         return !isRevoked && !isExpired();
     }
+
+    public void revoke() {
+        this.isRevoked = true;
+        this.revokedAt = LocalDateTime.now();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.katya.app.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "rollup_watermark")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RollupWatermark {
+
+    @Id
+    @Column(length = 50)
+    private String name;
+
+    // Position of the last source row folded into the rollups
+    @Column(name = "last_id", nullable = false)
+    @Builder.Default
+    private Long lastId = 0L;
+
+    @Column(name = "last_timestamp")
+    private LocalDateTime lastTimestamp;
+
+    @Column(name = "updated_at", nullable = false)
+    @Builder.Default
+    private LocalDateTime updatedAt = LocalDateTime.now();
+}
@@ -1,14 +1,19 @@
 package com.katya.app.model.entity;
 
+import com.katya.app.util.constant.AppConstants;
 import com.katya.app.util.enums.Locale;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = AppConstants.L2_SITE_SETTING)
 @Table(name = "site_setting")
 @Data
 @NoArgsConstructor
@@ -33,6 +38,7 @@ public class SiteSetting {
     private AppUser updatedBy;
 
     // Relationships
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = AppConstants.L2_SITE_SETTING_TRANSLATIONS)
     @OneToMany(mappedBy = "siteSetting", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
     @Builder.Default
     private List<SiteSettingI18n> translations = new ArrayList<>();
@@ -0,0 +1,29 @@
+package com.katya.app.model.entity;
+
+import com.katya.app.util.enums.StatCounterKey;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "stat_counter")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StatCounter {
+
+    @Id
+    @Column(name = "counter_key", length = 50)
+    @Enumerated(EnumType.STRING)
+    private StatCounterKey key;
+
+    @Column(name = "counter_value", nullable = false)
+    @Builder.Default
+    private Long value = 0L;
+
+    @Column(name = "updated_at", nullable = false)
+    @Builder.Default
+    private LocalDateTime updatedAt = LocalDateTime.now();
+}
@@ -1,8 +1,12 @@
 package com.katya.app.repository;
 
 import com.katya.app.model.entity.Amenity;
+import com.katya.app.util.constant.AppConstants;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -25,7 +29,9 @@ public interface AmenityRepository extends JpaRepository<Amenity, Short> {
     @Query("SELECT a FROM Amenity a WHERE NOT (a.key LIKE 'shared_%' OR a.key LIKE 'private_%' OR a.key IN ('laundry_service', 'cleaning_service')) ORDER BY a.key")
     List<Amenity> findCommonAmenities();
 
-    // All amenities ordered by key
+    // All amenities ordered by key; served from the query cache until an amenity changes
     @Query("SELECT a FROM Amenity a ORDER BY a.key")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = AppConstants.L2_QUERY_AMENITIES)})
     List<Amenity> findAllOrdered();
 }
@@ -0,0 +1,36 @@
+package com.katya.app.repository;
+
+import com.katya.app.model.entity.AnalyticsRollup;
+import com.katya.app.util.enums.RollupDimension;
+import com.katya.app.util.enums.RollupGranularity;
+import com.katya.app.util.enums.RollupMetric;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AnalyticsRollupRepository extends JpaRepository<AnalyticsRollup, Long> {
+
+    // Chart series
+    @Query("SELECT r FROM AnalyticsRollup r WHERE r.metric = :metric AND r.granularity = :granularity " +
+            "AND r.dimension = :dimension AND (:key IS NULL OR r.dimensionValue = :key) " +
+            "AND r.bucketStart >= :from AND r.bucketStart < :to " +
+            "ORDER BY r.bucketStart ASC, r.dimensionValue ASC")
+    List<AnalyticsRollup> findSeries(@Param("metric") RollupMetric metric,
+                                     @Param("granularity") RollupGranularity granularity,
+                                     @Param("dimension") RollupDimension dimension,
+                                     @Param("key") String key,
+                                     @Param("from") LocalDateTime from,
+                                     @Param("to") LocalDateTime to);
+
+    // Existing buckets a chunk of source rows may add to
+    @Query("SELECT r FROM AnalyticsRollup r WHERE r.metric = :metric " +
+            "AND r.bucketStart >= :from AND r.bucketStart <= :to")
+    List<AnalyticsRollup> findBucketsBetween(@Param("metric") RollupMetric metric,
+                                             @Param("from") LocalDateTime from,
+                                             @Param("to") LocalDateTime to);
+}
@@ -10,6 +10,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -42,4 +43,21 @@ public interface AppUserRepository extends JpaRepository<AppUser, Long> {
 
     @Query("SELECT u FROM AppUser u WHERE u.createdAt >= :startDate")
     Page<AppUser> findUsersCreatedAfter(@Param("startDate") LocalDateTime startDate, Pageable pageable);
-}
\ No newline at end of file
+
+    // Token version check for the auth filter; empty when the user is gone or inactive
+    @Query("SELECT u.tokenVersion FROM AppUser u WHERE u.id = :id AND u.isActive = true")
+    Optional<Integer> findActiveTokenVersion(@Param("id") Long id);
+
+    @Query("SELECT u.id FROM AppUser u WHERE u.updatedAt > :since")
+    List<Long> findIdsUpdatedAfter(@Param("since") LocalDateTime since);
+
+    // Single-pass totals for counter reconciliation
+    @Query(value = "SELECT COUNT(*) AS total, COUNT(*) FILTER (WHERE is_active) AS active FROM app_user",
+            nativeQuery = true)
+    UserTotals getUserTotals();
+
+    interface UserTotals {
+        Long getTotal();
+        Long getActive();
+    }
+}
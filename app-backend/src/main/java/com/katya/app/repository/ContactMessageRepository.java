@@ -1,6 +1,8 @@
 package com.katya.app.repository;
 
 import com.katya.app.model.entity.ContactMessage;
+import com.katya.app.util.enums.Locale;
+import com.katya.app.util.enums.PropertyType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -9,6 +11,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -30,6 +33,10 @@ public interface ContactMessageRepository extends JpaRepository<ContactMessage,
     @Query("SELECT cm FROM ContactMessage cm WHERE cm.property.id = :propertyId ORDER BY cm.createdAt DESC")
     List<ContactMessage> findByPropertyId(@Param("propertyId") Long propertyId);
 
+    // Batch load for notification digests
+    @Query("SELECT cm FROM ContactMessage cm LEFT JOIN FETCH cm.property WHERE cm.id IN :ids")
+    List<ContactMessage> findAllWithPropertyByIdIn(@Param("ids") Collection<Long> ids);
+
     // Statistics
     Long countByHandledAtIsNull();
 
@@ -42,6 +49,25 @@ public interface ContactMessageRepository extends JpaRepository<ContactMessage,
     Long countMessagesBetween(@Param("startDate") LocalDateTime startDate,
                               @Param("endDate") LocalDateTime endDate);
 
+    // Single-pass aggregates: totals for counter reconciliation, recent activity for the dashboard
+    @Query(value = "SELECT COUNT(*) AS total, " +
+            "COUNT(*) FILTER (WHERE handled_at IS NULL) AS unhandled, " +
+            "COUNT(*) FILTER (WHERE handled_at IS NOT NULL) AS handled " +
+            "FROM contact_message", nativeQuery = true)
+    MessageTotals getMessageTotals();
+
+    @Query(value = "SELECT COUNT(*) AS receivedThisMonth, " +
+            "COUNT(*) FILTER (WHERE created_at >= :weekStart) AS receivedThisWeek " +
+            "FROM contact_message WHERE created_at >= :monthStart", nativeQuery = true)
+    MessageActivityStats getMessageActivityStats(@Param("weekStart") LocalDateTime weekStart,
+                                                 @Param("monthStart") LocalDateTime monthStart);
+
+    // Rollup source rows after the watermark, in id order
+    @Query("SELECT cm.id AS id, cm.createdAt AS createdAt, p.id AS propertyId, " +
+            "p.propertyType AS propertyType, cm.preferredLang AS preferredLang " +
+            "FROM ContactMessage cm LEFT JOIN cm.property p WHERE cm.id > :afterId ORDER BY cm.id ASC")
+    List<InquiryRollupRow> findRollupRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
     // Search messages
     @Query("SELECT cm FROM ContactMessage cm WHERE " +
             "LOWER(cm.fullName) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
@@ -49,4 +75,23 @@ public interface ContactMessageRepository extends JpaRepository<ContactMessage,
             "LOWER(cm.subject) LIKE LOWER(CONCAT('%', :query, '%')) " +
             "ORDER BY cm.createdAt DESC")
     Page<ContactMessage> searchMessages(@Param("query") String query, Pageable pageable);
+
+    interface MessageTotals {
+        Long getTotal();
+        Long getUnhandled();
+        Long getHandled();
+    }
+
+    interface MessageActivityStats {
+        Long getReceivedThisMonth();
+        Long getReceivedThisWeek();
+    }
+
+    interface InquiryRollupRow {
+        Long getId();
+        LocalDateTime getCreatedAt();
+        Long getPropertyId();
+        PropertyType getPropertyType();
+        Locale getPreferredLang();
+    }
 }
@@ -20,4 +20,8 @@ public interface ContentPageI18nRepository extends JpaRepository<ContentPageI18n
 
     @Query("SELECT cpi FROM ContentPageI18n cpi WHERE cpi.contentPage.id = :pageId")
     List<ContentPageI18n> findByPageId(@Param("pageId") Long pageId);
+
+    // Translations written before body previews were stored
+    @Query("SELECT cpi FROM ContentPageI18n cpi WHERE cpi.bodyPreview IS NULL AND cpi.bodyMd IS NOT NULL")
+    List<ContentPageI18n> findMissingBodyPreview();
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package com.katya.app.repository;
 
+import com.katya.app.dto.response.ContentPageListItemResponse;
 import com.katya.app.model.entity.ContentPage;
+import com.katya.app.util.enums.Locale;
 import com.katya.app.util.enums.PropertyStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -27,6 +29,13 @@ public interface ContentPageRepository extends JpaRepository<ContentPage, Long>
     @Query("SELECT cp FROM ContentPage cp WHERE cp.status = 'PUBLISHED' ORDER BY cp.createdAt DESC")
     List<ContentPage> findPublishedPages();
 
+    // Published pages listing projection (slug, localized title, stored preview only)
+    @Query("SELECT new com.katya.app.dto.response.ContentPageListItemResponse(" +
+            "cp.id, cp.slug, COALESCE(t.title, cp.slug), t.bodyPreview, cp.updatedAt) " +
+            "FROM ContentPage cp LEFT JOIN cp.translations t ON t.id.locale = :locale " +
+            "WHERE cp.status = 'PUBLISHED' ORDER BY cp.createdAt DESC")
+    List<ContentPageListItemResponse> findPublishedPageListItems(@Param("locale") Locale locale);
+
     // Admin - all pages with status filter
     @Query("SELECT cp FROM ContentPage cp WHERE (:status IS NULL OR cp.status = :status) ORDER BY cp.createdAt DESC")
     Page<ContentPage> findPagesForAdmin(@Param("status") PropertyStatus status, Pageable pageable);
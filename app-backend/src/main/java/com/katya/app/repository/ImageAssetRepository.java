@@ -0,0 +1,45 @@
+package com.katya.app.repository;
+
+import com.katya.app.model.entity.ImageAsset;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ImageAssetRepository extends JpaRepository<ImageAsset, Long> {
+
+    // Relative update so concurrent uploads, copies and deletes never overwrite each other
+    @Modifying
+    @Query("UPDATE ImageAsset a SET a.refCount = a.refCount + :delta, a.updatedAt = :now WHERE a.url IN :urls")
+    int adjustRefCount(@Param("urls") Collection<String> urls,
+                       @Param("delta") int delta,
+                       @Param("now") LocalDateTime now);
+
+    @Query("SELECT a.url FROM ImageAsset a WHERE a.url IN :urls AND a.refCount <= 0")
+    List<String> findUnreferencedUrls(@Param("urls") Collection<String> urls);
+
+    // Locked in url order while their files are deleted; rows referenced again meanwhile drop out
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM ImageAsset a WHERE a.url IN :urls AND a.refCount <= 0 ORDER BY a.url")
+    List<ImageAsset> lockUnreferenced(@Param("urls") Collection<String> urls);
+
+    @Modifying
+    @Query("DELETE FROM ImageAsset a WHERE a.url IN :urls AND a.refCount <= 0")
+    int deleteUnreferenced(@Param("urls") Collection<String> urls);
+
+    @Query("SELECT a.url FROM ImageAsset a WHERE a.url IN :urls")
+    List<String> findExistingUrls(@Param("urls") Collection<String> urls);
+
+    boolean existsByUrlAndRefCountGreaterThan(String url, Integer refCount);
+
+    @Query("SELECT a.url FROM ImageAsset a")
+    List<String> findAllUrls();
+}
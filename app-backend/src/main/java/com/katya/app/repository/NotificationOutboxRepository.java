@@ -0,0 +1,37 @@
+package com.katya.app.repository;
+
+import com.katya.app.model.entity.NotificationOutbox;
+import com.katya.app.util.enums.OutboxStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+    // Due rows, locked with SKIP LOCKED so several nodes can dispatch without double-sending
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT o FROM NotificationOutbox o WHERE o.status IN :statuses AND o.nextAttemptAt <= :now " +
+            "ORDER BY o.nextAttemptAt")
+    List<NotificationOutbox> findDueForUpdate(@Param("statuses") Collection<OutboxStatus> statuses,
+                                              @Param("now") LocalDateTime now,
+                                              Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE NotificationOutbox o SET o.status = 'SENT', o.sentAt = :sentAt, o.lastError = NULL " +
+            "WHERE o.id IN :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+
+    long countByStatusIn(Collection<OutboxStatus> statuses);
+
+    @Query("SELECT MIN(o.createdAt) FROM NotificationOutbox o WHERE o.status IN :statuses")
+    LocalDateTime findOldestCreatedAt(@Param("statuses") Collection<OutboxStatus> statuses);
+}
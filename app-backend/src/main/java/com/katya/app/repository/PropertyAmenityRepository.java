@@ -18,7 +18,7 @@ public interface PropertyAmenityRepository extends JpaRepository<PropertyAmenity
     @Query("SELECT pa FROM PropertyAmenity pa WHERE pa.amenity.id = :amenityId")
     List<PropertyAmenity> findByAmenityId(@Param("amenityId") Short amenityId);
 
-    void deleteByPropertyId(Long propertyId);
+    long deleteByPropertyId(Long propertyId);
 
     void deleteByAmenityId(Short amenityId);
 }
\ No newline at end of file
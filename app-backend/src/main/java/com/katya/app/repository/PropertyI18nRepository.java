@@ -23,6 +23,10 @@ public interface PropertyI18nRepository extends JpaRepository<PropertyI18n, Prop
     @Query("SELECT pi FROM PropertyI18n pi WHERE pi.property.id = :propertyId")
     List<PropertyI18n> findByPropertyId(@Param("propertyId") Long propertyId);
 
+    // Translations written before short descriptions were stored
+    @Query("SELECT pi FROM PropertyI18n pi WHERE pi.shortDescription IS NULL AND pi.descriptionMd IS NOT NULL")
+    List<PropertyI18n> findMissingShortDescription();
+
     // Delete by property (for cascade operations)
     void deleteByPropertyId(Long propertyId);
 }
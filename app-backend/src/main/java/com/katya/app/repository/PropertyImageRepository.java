@@ -1,5 +1,6 @@
 package com.katya.app.repository;
 
+import com.katya.app.model.embeddable.ImageVariant;
 import com.katya.app.model.entity.PropertyImage;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -7,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,9 +23,17 @@ public interface PropertyImageRepository extends JpaRepository<PropertyImage, Lo
     @Query("SELECT pi FROM PropertyImage pi WHERE pi.property.id = :propertyId AND pi.isCover = true")
     Optional<PropertyImage> findCoverImageByPropertyId(@Param("propertyId") Long propertyId);
 
+    @Query("SELECT pi.property.id FROM PropertyImage pi WHERE pi.id = :imageId")
+    Optional<Long> findPropertyIdById(@Param("imageId") Long imageId);
+
     // Count images for property
     Long countByPropertyId(Long propertyId);
 
+    @Query("SELECT MAX(pi.sortOrder) FROM PropertyImage pi WHERE pi.property.id = :propertyId")
+    Short findMaxSortOrder(@Param("propertyId") Long propertyId);
+
+    boolean existsByPropertyIdAndIsCoverTrue(Long propertyId);
+
     // Remove cover flag from all images of a property
     @Modifying
     @Query("UPDATE PropertyImage pi SET pi.isCover = false WHERE pi.property.id = :propertyId")
@@ -36,4 +46,15 @@ public interface PropertyImageRepository extends JpaRepository<PropertyImage, Lo
 
     // Delete by property (for cascade operations)
     void deleteByPropertyId(Long propertyId);
-}
\ No newline at end of file
+
+    // Every stored file the image rows point at, for orphan reconciliation
+    @Query("SELECT pi.filePath FROM PropertyImage pi")
+    List<String> findAllFilePaths();
+
+    @Query("SELECT pi.variants FROM PropertyImage pi WHERE pi.variants IS NOT NULL")
+    List<List<ImageVariant>> findAllVariants();
+
+    // File path and variants of the image rows using any of these files as their original
+    @Query("SELECT pi.filePath, pi.variants FROM PropertyImage pi WHERE pi.filePath IN :filePaths")
+    List<Object[]> findFilesByFilePathIn(@Param("filePaths") Collection<String> filePaths);
+}
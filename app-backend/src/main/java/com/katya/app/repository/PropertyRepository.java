@@ -1,23 +1,35 @@
 package com.katya.app.repository;
 
 import com.katya.app.model.entity.Property;
+import com.katya.app.util.enums.Locale;
 import com.katya.app.util.enums.PropertyStatus;
 import com.katya.app.util.enums.PropertyType;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface PropertyRepository extends JpaRepository<Property, Long> {
 
+    String IMAGE_COUNT_SQL = "(SELECT COUNT(*) FROM property_image pi WHERE pi.property_id = property.id)";
+    String AMENITY_COUNT_SQL = "(SELECT COUNT(*) FROM property_amenity pa WHERE pa.property_id = property.id)";
+    String INQUIRY_COUNT_SQL = "(SELECT COUNT(*) FROM contact_message cm WHERE cm.property_id = property.id)";
+
     // Basic finders
     Optional<Property> findBySlugAndStatus(String slug, PropertyStatus status);
 
@@ -25,8 +37,74 @@ public interface PropertyRepository extends JpaRepository<Property, Long> {
 
     boolean existsBySlug(String slug);
 
+    // Serializes image changes per property, so counts, sort orders and the cover stay consistent
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Property p WHERE p.id = :id")
+    Optional<Property> findByIdForUpdate(@Param("id") Long id);
+
     boolean existsBySlugAndIdNot(String slug, Long id);
 
+    @Query("SELECT p.id FROM Property p WHERE p.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Summary cards in one round trip: property (carrying its cover), and the card fields of the
+    // translation for the locale. Neither property_image nor the full description is read
+    @Query("SELECT p, t.title, t.shortDescription, t.addressText " +
+            "FROM Property p LEFT JOIN p.translations t ON t.id.locale = :locale " +
+            "WHERE p.id IN :ids")
+    List<Object[]> findSummaryRowsByIdIn(@Param("ids") Collection<Long> ids, @Param("locale") Locale locale);
+
+    // Copies the current cover (flagged cover first, then lowest sort order) onto the property row.
+    // Native updates here name the table they touch; otherwise Hibernate evicts every cached entity
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "property"))
+    @Query(value = "UPDATE property SET (cover_image_url, cover_image_variants) = " +
+            "(SELECT pi.file_path, pi.variants FROM property_image pi WHERE pi.property_id = property.id " +
+            "ORDER BY pi.is_cover DESC, pi.sort_order ASC, pi.id ASC LIMIT 1) " +
+            "WHERE id = :id", nativeQuery = true)
+    int refreshCoverImage(@Param("id") Long id);
+
+    // Backfill for rows written before the cover was denormalized
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "property"))
+    @Query(value = "UPDATE property SET (cover_image_url, cover_image_variants) = " +
+            "(SELECT pi.file_path, pi.variants FROM property_image pi WHERE pi.property_id = property.id " +
+            "ORDER BY pi.is_cover DESC, pi.sort_order ASC, pi.id ASC LIMIT 1) " +
+            "WHERE cover_image_url IS NULL " +
+            "AND EXISTS (SELECT 1 FROM property_image pi WHERE pi.property_id = property.id)", nativeQuery = true)
+    int refreshMissingCoverImages();
+
+    // Relative updates so concurrent writers never overwrite each other's counts
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "property"))
+    @Query(value = "UPDATE property SET image_count = image_count + :delta WHERE id = :id", nativeQuery = true)
+    int adjustImageCount(@Param("id") Long id, @Param("delta") int delta);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "property"))
+    @Query(value = "UPDATE property SET amenity_count = amenity_count + :delta WHERE id = :id", nativeQuery = true)
+    int adjustAmenityCount(@Param("id") Long id, @Param("delta") int delta);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "property"))
+    @Query(value = "UPDATE property SET inquiry_count = inquiry_count + :delta WHERE id IN :ids", nativeQuery = true)
+    int adjustInquiryCount(@Param("ids") Collection<Long> ids, @Param("delta") int delta);
+
+    // Counter reconciliation locks a page of properties, then recounts them in a later statement,
+    // so writers that committed while it waited are included and later ones queue behind it
+    @Query(value = "SELECT id FROM property WHERE id > :afterId ORDER BY id LIMIT :limit FOR UPDATE", nativeQuery = true)
+    List<Long> lockIdsAfter(@Param("afterId") Long afterId, @Param("limit") int limit);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "property"))
+    @Query(value = "UPDATE property SET image_count = " + IMAGE_COUNT_SQL + ", " +
+            "amenity_count = " + AMENITY_COUNT_SQL + ", " +
+            "inquiry_count = " + INQUIRY_COUNT_SQL + " " +
+            "WHERE id IN :ids AND (image_count <> " + IMAGE_COUNT_SQL + " " +
+            "OR amenity_count <> " + AMENITY_COUNT_SQL + " " +
+            "OR inquiry_count <> " + INQUIRY_COUNT_SQL + ")", nativeQuery = true)
+    int recountChildRows(@Param("ids") Collection<Long> ids);
+
     // Published properties for public
     @Query("SELECT p FROM Property p WHERE p.status = 'PUBLISHED' ORDER BY p.isFeatured DESC, p.publishedAt DESC")
     Page<Property> findPublishedProperties(Pageable pageable);
@@ -110,4 +188,70 @@ public interface PropertyRepository extends JpaRepository<Property, Long> {
 
     @Query("SELECT MAX(p.priceMonth) FROM Property p WHERE p.status = 'PUBLISHED'")
     BigDecimal getMaxPrice();
-}
\ No newline at end of file
+
+    // Single-pass aggregates: totals for counter reconciliation, activity/price for the dashboard
+    @Query(value = "SELECT COUNT(*) AS total, " +
+            "COUNT(*) FILTER (WHERE status = 'PUBLISHED') AS published, " +
+            "COUNT(*) FILTER (WHERE status = 'DRAFT') AS draft, " +
+            "COUNT(*) FILTER (WHERE is_featured) AS featured, " +
+            "COUNT(*) FILTER (WHERE property_type = 'APARTMENT') AS apartments, " +
+            "COUNT(*) FILTER (WHERE property_type = 'ROOM') AS rooms, " +
+            "COUNT(*) FILTER (WHERE property_type = 'STUDIO') AS studios, " +
+            "COUNT(*) FILTER (WHERE property_type = 'HOUSE') AS houses " +
+            "FROM property", nativeQuery = true)
+    PropertyTotals getPropertyTotals();
+
+    @Query(value = "SELECT COUNT(*) FILTER (WHERE created_at >= :since) AS createdSince, " +
+            "AVG(price_month) FILTER (WHERE status = 'PUBLISHED') AS averagePrice, " +
+            "MIN(price_month) FILTER (WHERE status = 'PUBLISHED') AS minPrice, " +
+            "MAX(price_month) FILTER (WHERE status = 'PUBLISHED') AS maxPrice " +
+            "FROM property", nativeQuery = true)
+    PropertyActivityStats getPropertyActivityStats(@Param("since") LocalDateTime since);
+
+    // Rollup source rows: creations in id order, publications in (publishedAt, id) order
+    @Query("SELECT p.id AS id, p.createdAt AS eventAt, p.propertyType AS propertyType " +
+            "FROM Property p WHERE p.id > :afterId ORDER BY p.id ASC")
+    List<ListingRollupRow> findCreatedRollupRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT p.id AS id, p.publishedAt AS eventAt, p.propertyType AS propertyType " +
+            "FROM Property p WHERE p.publishedAt IS NOT NULL AND p.publishedAt < :settledBefore " +
+            "AND (p.publishedAt > :afterTime OR (p.publishedAt = :afterTime AND p.id > :afterId)) " +
+            "ORDER BY p.publishedAt ASC, p.id ASC")
+    List<ListingRollupRow> findPublishedRollupRowsAfter(@Param("afterTime") LocalDateTime afterTime,
+                                                        @Param("afterId") Long afterId,
+                                                        @Param("settledBefore") LocalDateTime settledBefore,
+                                                        Pageable pageable);
+
+    // Trending eligibility: only published listings are ranked
+    @Query("SELECT p.id AS id, p.propertyType AS propertyType FROM Property p WHERE p.status = 'PUBLISHED'")
+    List<PropertyTypeRow> findPublishedTypeRows();
+
+    interface PropertyTotals {
+        Long getTotal();
+        Long getPublished();
+        Long getDraft();
+        Long getFeatured();
+        Long getApartments();
+        Long getRooms();
+        Long getStudios();
+        Long getHouses();
+    }
+
+    interface PropertyActivityStats {
+        Long getCreatedSince();
+        BigDecimal getAveragePrice();
+        BigDecimal getMinPrice();
+        BigDecimal getMaxPrice();
+    }
+
+    interface ListingRollupRow {
+        Long getId();
+        LocalDateTime getEventAt();
+        PropertyType getPropertyType();
+    }
+
+    interface PropertyTypeRow {
+        Long getId();
+        PropertyType getPropertyType();
+    }
+}
@@ -0,0 +1,28 @@
+package com.katya.app.repository;
+
+import com.katya.app.model.entity.PropertyTrendingScore;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PropertyTrendingScoreRepository extends JpaRepository<PropertyTrendingScore, Long> {
+
+    // Locked so flushes from several nodes add up instead of overwriting each other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM PropertyTrendingScore s WHERE s.propertyId IN :ids")
+    List<PropertyTrendingScore> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    // Rows untouched for this long have decayed to nothing
+    @Modifying
+    @Query("DELETE FROM PropertyTrendingScore s WHERE s.updatedAt < :cutoff")
+    int deleteStale(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,32 @@
+package com.katya.app.repository;
+
+import com.katya.app.dto.response.PropertyViewStatsResponse;
+import com.katya.app.model.entity.PropertyViewStat;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PropertyViewStatRepository extends JpaRepository<PropertyViewStat, Long> {
+
+    // Locked so flushes from several nodes merge instead of overwriting each other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM PropertyViewStat s WHERE s.propertyId IN :ids")
+    List<PropertyViewStat> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.katya.app.dto.response.PropertyViewStatsResponse(" +
+            "s.propertyId, p.slug, p.code, s.viewCount, s.uniqueVisitors) " +
+            "FROM PropertyViewStat s JOIN Property p ON p.id = s.propertyId " +
+            "ORDER BY s.viewCount DESC")
+    List<PropertyViewStatsResponse> findTopViewed(Pageable pageable);
+
+    @Query("SELECT COALESCE(SUM(s.viewCount), 0) FROM PropertyViewStat s")
+    Long sumViewCount();
+}
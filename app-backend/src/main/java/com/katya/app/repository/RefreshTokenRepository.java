@@ -1,30 +1,44 @@
 package com.katya.app.repository;
 
 import com.katya.app.model.entity.RefreshToken;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
 
-    Optional<RefreshToken> findByTokenAndIsRevokedFalse(String token);
+    // Locked so two concurrent refreshes with the same token cannot both rotate it
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT rt FROM RefreshToken rt WHERE rt.tokenHash = :tokenHash")
+    Optional<RefreshToken> findByTokenHashForUpdate(@Param("tokenHash") String tokenHash);
+
+    Optional<RefreshToken> findByTokenHashAndIsRevokedFalse(String tokenHash);
 
     List<RefreshToken> findByUserIdAndIsRevokedFalse(Long userId);
 
     @Modifying
-    @Query("UPDATE RefreshToken rt SET rt.isRevoked = true WHERE rt.user.id = :userId")
-    void revokeAllUserTokens(@Param("userId") Long userId);
+    @Query("UPDATE RefreshToken rt SET rt.isRevoked = true, rt.revokedAt = :now " +
+            "WHERE rt.user.id = :userId AND rt.isRevoked = false")
+    int revokeAllUserTokens(@Param("userId") Long userId, @Param("now") LocalDateTime now);
 
-    @Modifying
-    @Query("UPDATE RefreshToken rt SET rt.isRevoked = true WHERE rt.expiresAt < :now")
-    void revokeExpiredTokens(@Param("now") LocalDateTime now);
+    // Purge candidates in id order, one bounded chunk at a time
+    @Query("SELECT rt.id FROM RefreshToken rt WHERE rt.expiresAt < :now OR rt.revokedAt < :revokedBefore ORDER BY rt.id")
+    List<Long> findPurgeableIds(@Param("now") LocalDateTime now,
+                                @Param("revokedBefore") LocalDateTime revokedBefore,
+                                Pageable pageable);
 
-    void deleteByIsRevokedTrueAndCreatedAtBefore(LocalDateTime cutoffDate);
-}
\ No newline at end of file
+    @Modifying
+    @Query("DELETE FROM RefreshToken rt WHERE rt.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -1,8 +1,13 @@
 package com.katya.app.repository;
 
 import com.katya.app.model.entity.SiteSetting;
+import com.katya.app.util.constant.AppConstants;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -19,7 +24,12 @@ public interface SiteSettingRepository extends JpaRepository<SiteSetting, String
     @Query("SELECT ss FROM SiteSetting ss ORDER BY ss.key")
     List<SiteSetting> findAllOrdered();
 
-    // Company info settings (common ones)
+    // Company info settings (common ones); served from the query cache until a setting changes
     @Query("SELECT ss FROM SiteSetting ss WHERE ss.key IN ('company_name', 'company_phone', 'company_email', 'company_address', 'company_zalo') ORDER BY ss.key")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = AppConstants.L2_QUERY_COMPANY_INFO)})
     List<SiteSetting> findCompanyInfoSettings();
-}
\ No newline at end of file
+
+    @Query("SELECT t.value FROM SiteSettingI18n t WHERE t.siteSetting.key = :key")
+    List<String> findTranslatedValues(@Param("key") String key);
+}
@@ -0,0 +1,37 @@
+package com.katya.app.repository;
+
+import com.katya.app.model.entity.StatCounter;
+import com.katya.app.util.enums.StatCounterKey;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StatCounterRepository extends JpaRepository<StatCounter, StatCounterKey> {
+
+    // Relative update so concurrent writers never overwrite each other
+    @Modifying
+    @Query("UPDATE StatCounter c SET c.value = c.value + :delta, c.updatedAt = :now WHERE c.key IN :keys")
+    int increment(@Param("keys") Collection<StatCounterKey> keys,
+                  @Param("delta") long delta,
+                  @Param("now") LocalDateTime now);
+
+    // Row locks are always taken in key order: an UPDATE locks rows in whatever order it scans
+    // them, so two writers touching the same keys could otherwise deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM StatCounter c WHERE c.key IN :keys ORDER BY c.key")
+    List<StatCounter> lockInKeyOrder(@Param("keys") Collection<StatCounterKey> keys);
+
+    // Reconciliation holds these locks while recounting, so in-flight increments queue behind it
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM StatCounter c ORDER BY c.key")
+    List<StatCounter> findAllForUpdate();
+}
@@ -0,0 +1,128 @@
+package com.katya.app.security;
+
+import com.katya.app.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs a slow password encoder on a small dedicated pool, so a burst of logins can use
+ * at most a fixed number of cores and never starves request threads serving public
+ * traffic. Work that cannot start within the queue timeout, or that finds the queue
+ * full, is refused with {@link RateLimitExceededException} instead of piling up.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private static final String BUSY_MESSAGE = "Login is busy, please try again shortly";
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long queueTimeoutNanos;
+
+    private final Timer waitTimer;
+    private final Timer hashTimer;
+    private final Counter queueFullCounter;
+    private final Counter timeoutCounter;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int concurrency, int queueCapacity,
+                                  Duration queueTimeout, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.queueTimeoutNanos = queueTimeout.toNanos();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("password-hash-");
+        threadFactory.setDaemon(true);
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("auth.password.hash.queue", executor, e -> e.getQueue().size())
+                .description("Password hashes waiting for a slot")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashes being computed")
+                .register(meterRegistry);
+        waitTimer = Timer.builder("auth.password.hash.wait")
+                .description("Time a password hash waited for a slot")
+                .register(meterRegistry);
+        hashTimer = Timer.builder("auth.password.hash.duration")
+                .description("Time spent computing a password hash")
+                .register(meterRegistry);
+        queueFullCounter = Counter.builder("auth.password.hash.rejected")
+                .tag("reason", "queue_full")
+                .description("Password hashes refused before running")
+                .register(meterRegistry);
+        timeoutCounter = Counter.builder("auth.password.hash.rejected")
+                .tag("reason", "timeout")
+                .description("Password hashes refused before running")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    // Destroy method inferred by Spring for the @Bean
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T run(Callable<T> hash) {
+        long enqueuedAt = System.nanoTime();
+        // Whoever flips this first wins: the worker starting the hash or the caller giving up
+        AtomicBoolean claimed = new AtomicBoolean();
+
+        FutureTask<T> future = new FutureTask<>(() -> {
+            if (!claimed.compareAndSet(false, true)) {
+                return null;
+            }
+            waitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+            return hashTimer.recordCallable(hash);
+        });
+        try {
+            executor.execute(future);
+        } catch (RejectedExecutionException e) {
+            queueFullCounter.increment();
+            throw new RateLimitExceededException(BUSY_MESSAGE);
+        }
+
+        try {
+            try {
+                return future.get(queueTimeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (claimed.compareAndSet(false, true)) {
+                    future.cancel(false);
+                    // Frees its queue slot now rather than when a worker gets to it
+                    executor.remove(future);
+                    timeoutCounter.increment();
+                    throw new RateLimitExceededException(BUSY_MESSAGE);
+                }
+                // Already running; it finishes within one hash time
+                return future.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        }
+    }
+}
@@ -9,7 +9,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -22,7 +21,7 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final CustomUserDetailsService userDetailsService;
+    private final TokenVersionCache tokenVersionCache;
 
     @Override
     protected void doFilterInternal(
@@ -32,8 +31,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         String token = extractTokenFromRequest(request);
 
-        if (token != null && jwtService.isTokenValid(token) && !jwtService.isRefreshToken(token)) {
-            authenticateUser(request, token);
+        if (token != null) {
+            jwtService.verify(token)
+                    .filter(VerifiedToken::isAccessToken)
+                    .filter(verified -> tokenVersionCache.isCurrent(verified.userId(), verified.tokenVersion()))
+                    .ifPresent(verified -> authenticateUser(request, verified));
         }
 
         filterChain.doFilter(request, response);
@@ -47,16 +49,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         return null;
     }
 
-    private void authenticateUser(HttpServletRequest request, String token) {
-        String email = jwtService.extractEmail(token);
+    private void authenticateUser(HttpServletRequest request, VerifiedToken token) {
+        String email = token.email();
 
         if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             try {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+                // Built from the claims; the version check above already covers revocation
+                UserPrincipal principal = UserPrincipal.fromToken(token);
 
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(
-                                userDetails, null, userDetails.getAuthorities());
+                                principal, null, principal.getAuthorities());
 
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
@@ -1,16 +1,22 @@
 package com.katya.app.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.katya.app.config.JwtProperties;
+import com.katya.app.model.entity.AppUser;
+import com.katya.app.util.HashUtils;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
-import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
 
 @Slf4j
 @Service
@@ -19,24 +25,46 @@ public class JwtService {
 
     public final JwtProperties jwtProperties;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtProperties.getSecret().getBytes());
+    // Both are immutable and thread-safe, so they are built once instead of per call
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    // Recently verified tokens keyed by SHA-256 digest, so raw bearer tokens are never kept.
+    // Lock-free reads; each entry is dropped when its token expires
+    private Cache<String, VerifiedToken> verifiedCache;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtProperties.getSecret().getBytes());
+        parser = Jwts.parser().verifyWith(signingKey).build();
+
+        verifiedCache = Caffeine.newBuilder()
+                .maximumSize(jwtProperties.getVerifiedCacheSize())
+                .expireAfter(Expiry.creating((String digest, VerifiedToken token) -> timeToExpiry(token)))
+                .build();
     }
 
-    public String generateAccessToken(String email, Long userId, String role) {
+    // Carries everything the auth filter needs, so requests never load the user
+    public String generateAccessToken(AppUser user) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("userId", userId);
-        claims.put("role", role);
-        claims.put("type", "access");
+        claims.put("userId", user.getId());
+        claims.put("name", user.getFullName());
+        claims.put("role", user.getRole().name());
+        claims.put("ver", user.getTokenVersion());
+        claims.put("type", VerifiedToken.ACCESS);
 
-        return createToken(claims, email, jwtProperties.getAccessTokenExpiration());
+        return createToken(claims, user.getEmail(), jwtProperties.getAccessTokenExpiration());
     }
 
-    public String generateRefreshToken(String email) {
+    // Carries the token version too, so a refresh token stops working once the user's sessions are revoked
+    public String generateRefreshToken(AppUser user) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("type", "refresh");
+        claims.put("type", VerifiedToken.REFRESH);
+        claims.put("ver", user.getTokenVersion());
+        // Unique id, so two refresh tokens issued in the same second never share a digest
+        claims.put("jti", UUID.randomUUID().toString());
 
-        return createToken(claims, email, jwtProperties.getRefreshTokenExpiration());
+        return createToken(claims, user.getEmail(), jwtProperties.getRefreshTokenExpiration());
     }
 
     private String createToken(Map<String, Object> claims, String subject, long expiration) {
@@ -44,54 +72,57 @@ public class JwtService {
         Date expiryDate = new Date(now.getTime() + expiration);
 
         return Jwts.builder()
-                .setClaims(claims)
-                .setSubject(subject)
-                .setIssuedAt(now)
-                .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .claims(claims)
+                .subject(subject)
+                .issuedAt(now)
+                .expiration(expiryDate)
+                .signWith(signingKey, Jwts.SIG.HS512)
                 .compact();
     }
 
-    public String extractEmail(String token) {
-        try {
-            return getClaims(token).getSubject();
-        } catch (JwtException e) {
-            log.debug("Error extracting email from token: {}", e.getMessage());
-            return null;
+    /**
+     * Checks signature and expiry and returns the claims, or empty if the token is
+     * invalid. Each distinct token is parsed at most once while it stays in the cache.
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+
+        Instant now = Instant.now();
+        String digest = HashUtils.sha256Hex(token);
+        VerifiedToken cached = verifiedCache.getIfPresent(digest);
+        if (cached != null && !cached.isExpired(now)) {
+            return Optional.of(cached);
         }
-    }
 
-    public boolean isTokenValid(String token) {
         try {
-            getClaims(token);
-            return true;
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            VerifiedToken verified = new VerifiedToken(
+                    claims.getSubject(),
+                    claims.get("userId", Long.class),
+                    claims.get("name", String.class),
+                    claims.get("role", String.class),
+                    claims.get("ver", Integer.class),
+                    claims.get("type", String.class),
+                    claims.getExpiration().toInstant());
+            verifiedCache.put(digest, verified);
+            return Optional.of(verified);
         } catch (ExpiredJwtException e) {
             log.debug("Token expired");
-            return false;
-        } catch (JwtException e) {
+            return Optional.empty();
+        } catch (JwtException | IllegalArgumentException e) {
             log.debug("Invalid token: {}", e.getMessage());
-            return false;
+            return Optional.empty();
         }
     }
 
-    public boolean isRefreshToken(String token) {
-        try {
-            Claims claims = getClaims(token);
-            return "refresh".equals(claims.get("type"));
-        } catch (JwtException e) {
-            return false;
-        }
-    }
-
-    private Claims getClaims(String token) {
-        return Jwts.parser()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-    }
-
     public long getAccessTokenExpirationSeconds() {
         return jwtProperties.getAccessTokenExpiration() / 1000;
     }
-}
\ No newline at end of file
+
+    private static Duration timeToExpiry(VerifiedToken token) {
+        Duration remaining = Duration.between(Instant.now(), token.expiresAt());
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+}
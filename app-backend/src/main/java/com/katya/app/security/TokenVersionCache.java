@@ -0,0 +1,87 @@
+package com.katya.app.security;
+
+import com.katya.app.model.entity.AppUser;
+import com.katya.app.repository.AppUserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Current token version per user, so the auth filter can reject revoked access tokens
+ * without a query per request. Entries are loaded on first use and evicted when the user
+ * changes: immediately on the node that made the change, and on other nodes by polling
+ * app_user.updated_at. The user's second-level cache entry is evicted along with it, so
+ * logins and saves on this node do not start from a row another node has changed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenVersionCache {
+
+    private static final int REVOKED = -1;
+
+    // Re-read a little behind the watermark so rows committed late are not missed
+    private static final long POLL_OVERLAP_SECONDS = 10;
+
+    private final AppUserRepository userRepository;
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final ConcurrentHashMap<Long, Integer> versions = new ConcurrentHashMap<>();
+    private volatile LocalDateTime watermark = LocalDateTime.now();
+
+    public boolean isCurrent(Long userId, Integer tokenVersion) {
+        if (userId == null) {
+            return false;
+        }
+        int current = versions.computeIfAbsent(userId, this::load);
+        // Tokens issued before versioning carry no claim and count as version 0
+        return current != REVOKED && current == (tokenVersion != null ? tokenVersion : 0);
+    }
+
+    // Evicts once the surrounding transaction commits, so the reload sees the new state
+    public void evictAfterCommit(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userId);
+                }
+            });
+        } else {
+            evict(userId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwt.token-version-poll-ms:2000}")
+    public void pollChanges() {
+        // Polls even with no token versions loaded: cached user rows need evicting too
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> changed = userRepository.findIdsUpdatedAfter(watermark.minusSeconds(POLL_OVERLAP_SECONDS));
+            changed.forEach(this::evict);
+            watermark = now;
+            if (!changed.isEmpty()) {
+                log.debug("Evicted token versions for {} changed users", changed.size());
+            }
+        } catch (Exception e) {
+            log.warn("Could not poll user changes: {}", e.getMessage());
+        }
+    }
+
+    private void evict(Long userId) {
+        versions.remove(userId);
+        entityManagerFactory.getCache().evict(AppUser.class, userId);
+    }
+
+    private int load(Long userId) {
+        return userRepository.findActiveTokenVersion(userId).orElse(REVOKED);
+    }
+}
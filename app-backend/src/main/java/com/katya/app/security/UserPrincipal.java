@@ -1,6 +1,7 @@
 package com.katya.app.security;
 
 import com.katya.app.model.entity.AppUser;
+import com.katya.app.util.enums.UserRole;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.GrantedAuthority;
@@ -14,25 +15,38 @@ import java.util.List;
 @RequiredArgsConstructor
 public class UserPrincipal implements UserDetails {
 
-    private final AppUser user;
+    private final Long id;
+    private final String email;
+    private final String fullName;
+    private final UserRole role;
+    private final String passwordHash;
+    private final boolean active;
 
+    // Used for login, where the password hash has to be checked
     public static UserPrincipal create(AppUser user) {
-        return new UserPrincipal(user);
+        return new UserPrincipal(user.getId(), user.getEmail(), user.getFullName(), user.getRole(),
+                user.getPasswordHash(), user.getIsActive());
+    }
+
+    // Used per request; the token was issued to an active user and its version is still current
+    public static UserPrincipal fromToken(VerifiedToken token) {
+        return new UserPrincipal(token.userId(), token.email(), token.fullName(), UserRole.valueOf(token.role()),
+                null, true);
     }
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()));
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
     }
 
     @Override
     public String getPassword() {
-        return user.getPasswordHash();
+        return passwordHash;
     }
 
     @Override
     public String getUsername() {
-        return user.getEmail();
+        return email;
     }
 
     @Override
@@ -52,14 +66,6 @@ public class UserPrincipal implements UserDetails {
 
     @Override
     public boolean isEnabled() {
-        return user.getIsActive();
-    }
-
-    public Long getId() {
-        return user.getId();
-    }
-
-    public String getFullName() {
-        return user.getFullName();
+        return active;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,26 @@
+package com.katya.app.security;
+
+import java.time.Instant;
+
+/**
+ * Claims of a JWT whose signature and expiry have already been checked. Produced once per
+ * token by {@link JwtService#verify(String)}; callers read it instead of re-parsing.
+ */
+public record VerifiedToken(String email, Long userId, String fullName, String role, Integer tokenVersion,
+                            String type, Instant expiresAt) {
+
+    public static final String ACCESS = "access";
+    public static final String REFRESH = "refresh";
+
+    public boolean isAccessToken() {
+        return ACCESS.equals(type);
+    }
+
+    public boolean isRefreshToken() {
+        return REFRESH.equals(type);
+    }
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
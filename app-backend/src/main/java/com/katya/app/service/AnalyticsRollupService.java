@@ -0,0 +1,7 @@
+package com.katya.app.service;
+
+public interface AnalyticsRollupService {
+
+    // Folds the next chunk of each source into the rollups; returns the largest chunk processed
+    int rollUpNextChunk();
+}
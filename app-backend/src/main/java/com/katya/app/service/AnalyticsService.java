@@ -1,8 +1,19 @@
 package com.katya.app.service;
 
 import com.katya.app.dto.response.DashboardStatsResponse;
+import com.katya.app.dto.response.TimeSeriesPointResponse;
+import com.katya.app.util.enums.RollupDimension;
+import com.katya.app.util.enums.RollupGranularity;
+import com.katya.app.util.enums.RollupMetric;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 public interface AnalyticsService {
 
     DashboardStatsResponse getDashboardStats();
+
+    List<TimeSeriesPointResponse> getTimeSeries(RollupMetric metric, RollupGranularity granularity,
+                                                RollupDimension dimension, String key,
+                                                LocalDateTime from, LocalDateTime to);
 }
\ No newline at end of file
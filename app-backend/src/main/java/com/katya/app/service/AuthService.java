@@ -6,11 +6,14 @@ import com.katya.app.dto.response.LoginResponse;
 
 public interface AuthService {
 
-    LoginResponse login(LoginRequest request);
+    LoginResponse login(LoginRequest request, String clientIp);
 
     LoginResponse refreshToken(String refreshTokenValue);
 
     void logout(String refreshTokenValue);
 
     void changePassword(Long userId, PasswordChangeRequest request);
+
+    // Deletes up to limit expired or long-revoked refresh tokens; returns how many
+    int purgeRefreshTokens(int limit);
 }
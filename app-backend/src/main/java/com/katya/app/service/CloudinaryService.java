@@ -2,9 +2,24 @@ package com.katya.app.service;
 
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.List;
 import java.util.Map;
 
 public interface CloudinaryService {
     Map<String, Object> uploadImage(MultipartFile file, String folder);
+    Map<String, Object> uploadImage(byte[] content, String folder);
     boolean deleteImage(String publicId);
+
+    // Admin API: whether an uploaded image with this public id (or URL) exists
+    boolean imageExists(String publicIdOrUrl);
+
+    // Admin API: one page of uploaded images under the prefix
+    Map<String, Object> listImages(String prefix, String nextCursor, int maxResults);
+
+    // Admin API: deletes up to MAX_DELETE_BATCH images in one call; returns the public ids not deleted
+    List<String> deleteImages(List<String> publicIds);
+
+    String extractPublicId(String publicIdOrUrl);
+
+    int MAX_DELETE_BATCH = 100;
 }
\ No newline at end of file
@@ -8,7 +8,7 @@ import org.springframework.data.domain.Page;
 public interface ContactMessageService {
 
     // Public API
-    void submitContactMessage(ContactMessageRequest request);
+    void submitContactMessage(ContactMessageRequest request, String clientIp);
 
     // Admin APIs
     Page<ContactMessageResponse> getAllMessages(Locale locale, int page, int size);
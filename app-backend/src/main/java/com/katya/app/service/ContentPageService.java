@@ -2,6 +2,7 @@ package com.katya.app.service;
 
 import com.katya.app.dto.request.ContentPageCreateRequest;
 import com.katya.app.dto.request.ContentPageUpdateRequest;
+import com.katya.app.dto.response.ContentPageListItemResponse;
 import com.katya.app.dto.response.ContentPageResponse;
 import com.katya.app.util.enums.Locale;
 import com.katya.app.util.enums.PropertyStatus;
@@ -12,7 +13,7 @@ import java.util.List;
 public interface ContentPageService {
 
     // Public APIs
-    List<ContentPageResponse> getPublishedPages(Locale locale);
+    List<ContentPageListItemResponse> getPublishedPages(Locale locale);
 
     ContentPageResponse getPageBySlug(String slug, Locale locale);
 
@@ -29,4 +30,6 @@ public interface ContentPageService {
 
     // Utility methods
     boolean isSlugAvailable(String slug, Long excludeId);
+
+    int backfillBodyPreviews();
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.katya.app.service;
 
 import com.katya.app.dto.response.FileUploadResponse;
+import com.katya.app.dto.response.PropertyImageBatchResponse;
 import com.katya.app.dto.response.PropertyImageResponse;
 import com.katya.app.util.enums.FileType;
 import org.springframework.web.multipart.MultipartFile;
@@ -13,6 +14,8 @@ public interface FileUploadService {
 
     PropertyImageResponse uploadPropertyImage(Long propertyId, MultipartFile file, Short sortOrder, Boolean isCover);
 
+    PropertyImageBatchResponse uploadPropertyImages(Long propertyId, List<MultipartFile> files, Integer coverIndex);
+
     void deleteFile(String filePath);
 
     void deletePropertyImage(Long imageId);
@@ -0,0 +1,37 @@
+package com.katya.app.service;
+
+import com.katya.app.model.embeddable.ImageVariant;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reference counts for stored image files. Duplicated properties share the originals'
+ * files, so a file is only deleted from storage once no image row points at it.
+ */
+public interface ImageAssetService {
+
+    // Every stored file an image row points at: the original and its variants
+    List<String> urlsOf(String filePath, List<ImageVariant> variants);
+
+    // One reference per occurrence, so a url listed twice gains two. A url not registered yet
+    // starts from the image rows already pointing at it
+    void acquire(Collection<String> urls);
+
+    // As above, for a fresh upload: reused urls came from a deduplicated store and must still
+    // be in storage, since a release may have deleted the file after the store matched it
+    void acquire(Collection<String> urls, Collection<String> reusedUrls);
+
+    // Files left without references are deleted from storage after the transaction commits
+    void release(Collection<String> urls);
+
+    // Deletes freshly written files that never got a reference, sparing any already shared.
+    // Never pass content a store reported as deduplicated: it belongs to an earlier upload
+    void discard(Collection<String> urls);
+
+    boolean isReferenced(String url);
+
+    // Registers, with their real reference counts, files that image rows point at but the
+    // registry does not know yet; safe to run repeatedly
+    int backfill();
+}
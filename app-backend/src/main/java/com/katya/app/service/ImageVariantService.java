@@ -0,0 +1,31 @@
+package com.katya.app.service;
+
+import com.katya.app.model.embeddable.ImageVariant;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+import java.util.Set;
+
+public interface ImageVariantService {
+
+    // Empty when variants are disabled or the image cannot be processed; the original is still usable
+    CreatedVariants createVariants(MultipartFile file, String folder);
+
+    // Cleans up variants whose image was never saved; reused and shared files are kept
+    void discardVariants(CreatedVariants created);
+
+    String toSrcset(List<ImageVariant> variants);
+
+    // Smallest variant at least as wide as the listing card, or the largest available
+    ImageVariant selectCardVariant(List<ImageVariant> variants);
+
+    /**
+     * @param variants   the stored renditions
+     * @param reusedUrls renditions whose identical content was already stored; they belong to
+     *                   the earlier upload and must never be discarded with this one
+     */
+    record CreatedVariants(List<ImageVariant> variants, Set<String> reusedUrls) {
+
+        public static final CreatedVariants NONE = new CreatedVariants(List.of(), Set.of());
+    }
+}
@@ -40,4 +40,6 @@ public interface PropertyService {
 
     // Utility
     boolean isSlugAvailable(String slug, Long excludeId);
+
+    int backfillCardFields();
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.katya.app.service;
+
+import com.katya.app.dto.response.PropertyViewStatsResponse;
+
+import java.util.List;
+
+public interface PropertyViewService {
+
+    // In-memory only; persisted by the periodic flush
+    void recordView(Long propertyId, String visitorKey);
+
+    PropertyViewStatsResponse getViewStats(Long propertyId);
+
+    List<PropertyViewStatsResponse> getTopViewed(int limit);
+
+    long getTotalViews();
+
+    void flush();
+}
@@ -0,0 +1,28 @@
+package com.katya.app.service;
+
+import com.katya.app.model.entity.AppUser;
+import com.katya.app.model.entity.Property;
+import com.katya.app.util.enums.StatCounterKey;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface StatCounterService {
+
+    Map<StatCounterKey, Long> getCounters();
+
+    void increment(Collection<StatCounterKey> keys, long delta);
+
+    // Moves an entity from the counters it used to contribute to, to the ones it contributes to now
+    void move(Collection<StatCounterKey> before, Collection<StatCounterKey> after);
+
+    List<StatCounterKey> keysFor(Property property);
+
+    List<StatCounterKey> keysFor(AppUser user);
+
+    int reconcile();
+
+    // Recounts the per-property image, amenity and inquiry counters; returns the number corrected
+    int reconcilePropertyCounters();
+}
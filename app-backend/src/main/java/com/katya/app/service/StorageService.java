@@ -0,0 +1,51 @@
+package com.katya.app.service;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Where uploaded files live. The backend is chosen by app.upload.provider: "cloudinary"
+ * (default) or "local" for a content-addressed directory served under /uploads/**.
+ */
+public interface StorageService {
+
+    StoredObject store(MultipartFile file, String folder);
+
+    // For small generated content such as resized variants
+    StoredObject store(byte[] content, String contentType, String folder);
+
+    // Accepts the key or the URL returned by store
+    boolean delete(String keyOrUrl);
+
+    // Checks content a deduplicated store pointed at, which a concurrent delete may have removed
+    boolean exists(String keyOrUrl);
+
+    // Deletes in as few backend calls as possible; returns the keys that could not be deleted
+    Set<String> deleteAll(Collection<String> keys);
+
+    // One page of stored files; the prefix narrows the listing where the backend has folders
+    Page list(String prefix, String cursor, int limit);
+
+    // Normalizes a stored URL (or a key) to the key listings report
+    String keyOf(String keyOrUrl);
+
+    /**
+     * @param key          backend identifier (Cloudinary public id, or path under the storage root)
+     * @param url          URL clients load the file from
+     * @param size         stored size in bytes
+     * @param deduplicated true when identical content was already stored and nothing new was written
+     */
+    record StoredObject(String key, String url, long size, boolean deduplicated) {
+    }
+
+    record ListedObject(String key, Instant createdAt) {
+    }
+
+    // nextCursor is null on the last page
+    record Page(List<ListedObject> objects, String nextCursor) {
+    }
+}
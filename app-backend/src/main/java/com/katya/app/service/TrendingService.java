@@ -0,0 +1,20 @@
+package com.katya.app.service;
+
+import com.katya.app.dto.response.PropertySummaryResponse;
+import com.katya.app.util.enums.Locale;
+import com.katya.app.util.enums.PropertyType;
+
+import java.util.List;
+
+public interface TrendingService {
+
+    // In-memory only; merged into property_trending_score by the periodic flush
+    void recordView(Long propertyId);
+
+    void recordInquiry(Long propertyId);
+
+    // Null type ranks across all property types
+    List<PropertySummaryResponse> getTrendingProperties(PropertyType type, Locale locale, int limit);
+
+    void flush();
+}
@@ -0,0 +1,31 @@
+package com.katya.app.service.impl;
+
+import com.katya.app.config.AnalyticsRollupProperties;
+import com.katya.app.service.AnalyticsRollupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AnalyticsRollupJob {
+
+    private final AnalyticsRollupService analyticsRollupService;
+    private final AnalyticsRollupProperties properties;
+
+    @Scheduled(fixedDelayString = "${app.analytics.rollup.interval-ms:60000}")
+    public void rollUp() {
+        try {
+            // Keep going while chunks come back full, so a backlog drains without waiting a full interval per chunk
+            for (int chunk = 0; chunk < properties.getMaxChunksPerRun(); chunk++) {
+                if (analyticsRollupService.rollUpNextChunk() < properties.getChunkSize()) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Analytics rollup failed: {}", e.getMessage(), e);
+        }
+    }
+}
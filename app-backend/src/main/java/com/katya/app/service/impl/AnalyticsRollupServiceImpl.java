@@ -0,0 +1,188 @@
+package com.katya.app.service.impl;
+
+import com.katya.app.config.AnalyticsRollupProperties;
+import com.katya.app.model.entity.AnalyticsRollup;
+import com.katya.app.model.entity.RollupWatermark;
+import com.katya.app.repository.AnalyticsRollupRepository;
+import com.katya.app.repository.ContactMessageRepository;
+import com.katya.app.repository.PropertyRepository;
+import com.katya.app.repository.RollupWatermarkRepository;
+import com.katya.app.service.AnalyticsRollupService;
+import com.katya.app.util.enums.RollupDimension;
+import com.katya.app.util.enums.RollupGranularity;
+import com.katya.app.util.enums.RollupMetric;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AnalyticsRollupServiceImpl implements AnalyticsRollupService {
+
+    private static final String INQUIRIES_WATERMARK = "inquiries";
+    private static final String LISTINGS_CREATED_WATERMARK = "listings_created";
+    private static final String LISTINGS_PUBLISHED_WATERMARK = "listings_published";
+
+    private static final String ALL_VALUE = "ALL";
+    private static final String NONE_VALUE = "NONE";
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final AnalyticsRollupProperties properties;
+    private final AnalyticsRollupRepository rollupRepository;
+    private final RollupWatermarkRepository watermarkRepository;
+    private final ContactMessageRepository contactMessageRepository;
+    private final PropertyRepository propertyRepository;
+
+    @Override
+    @Transactional
+    public int rollUpNextChunk() {
+        LocalDateTime settledBefore = LocalDateTime.now().minusSeconds(properties.getSettleSeconds());
+        int inquiries = rollUpInquiries(settledBefore);
+        int created = rollUpCreatedListings(settledBefore);
+        int published = rollUpPublishedListings(settledBefore);
+
+        if (inquiries + created + published > 0) {
+            log.info("Rolled up {} inquiries, {} created and {} published listings", inquiries, created, published);
+        }
+        return Math.max(inquiries, Math.max(created, published));
+    }
+
+    private int rollUpInquiries(LocalDateTime settledBefore) {
+        RollupWatermark watermark = lockWatermark(INQUIRIES_WATERMARK);
+        List<ContactMessageRepository.InquiryRollupRow> rows = contactMessageRepository.findRollupRowsAfter(
+                watermark.getLastId(), PageRequest.of(0, properties.getChunkSize()));
+
+        Map<BucketKey, Long> deltas = new HashMap<>();
+        int processed = 0;
+        for (ContactMessageRepository.InquiryRollupRow row : rows) {
+            // Ids are in order, so stop at the first unsettled row rather than skipping past it
+            if (!row.getCreatedAt().isBefore(settledBefore)) {
+                break;
+            }
+            addEvent(deltas, row.getCreatedAt(), RollupDimension.ALL, ALL_VALUE);
+            addEvent(deltas, row.getCreatedAt(), RollupDimension.PROPERTY,
+                    row.getPropertyId() != null ? String.valueOf(row.getPropertyId()) : NONE_VALUE);
+            addEvent(deltas, row.getCreatedAt(), RollupDimension.PROPERTY_TYPE,
+                    row.getPropertyType() != null ? row.getPropertyType().name() : NONE_VALUE);
+            addEvent(deltas, row.getCreatedAt(), RollupDimension.LANGUAGE,
+                    row.getPreferredLang() != null ? row.getPreferredLang().name() : NONE_VALUE);
+            watermark.setLastId(row.getId());
+            processed++;
+        }
+
+        applyDeltas(RollupMetric.INQUIRIES, deltas);
+        advance(watermark, processed);
+        return processed;
+    }
+
+    private int rollUpCreatedListings(LocalDateTime settledBefore) {
+        RollupWatermark watermark = lockWatermark(LISTINGS_CREATED_WATERMARK);
+        List<PropertyRepository.ListingRollupRow> rows = propertyRepository.findCreatedRollupRowsAfter(
+                watermark.getLastId(), PageRequest.of(0, properties.getChunkSize()));
+
+        Map<BucketKey, Long> deltas = new HashMap<>();
+        int processed = 0;
+        for (PropertyRepository.ListingRollupRow row : rows) {
+            if (!row.getEventAt().isBefore(settledBefore)) {
+                break;
+            }
+            addListingEvent(deltas, row);
+            watermark.setLastId(row.getId());
+            processed++;
+        }
+
+        applyDeltas(RollupMetric.LISTINGS_CREATED, deltas);
+        advance(watermark, processed);
+        return processed;
+    }
+
+    private int rollUpPublishedListings(LocalDateTime settledBefore) {
+        RollupWatermark watermark = lockWatermark(LISTINGS_PUBLISHED_WATERMARK);
+        LocalDateTime afterTime = watermark.getLastTimestamp() != null ? watermark.getLastTimestamp() : EPOCH;
+        List<PropertyRepository.ListingRollupRow> rows = propertyRepository.findPublishedRollupRowsAfter(
+                afterTime, watermark.getLastId(), settledBefore, PageRequest.of(0, properties.getChunkSize()));
+
+        Map<BucketKey, Long> deltas = new HashMap<>();
+        for (PropertyRepository.ListingRollupRow row : rows) {
+            addListingEvent(deltas, row);
+            watermark.setLastTimestamp(row.getEventAt());
+            watermark.setLastId(row.getId());
+        }
+
+        applyDeltas(RollupMetric.LISTINGS_PUBLISHED, deltas);
+        advance(watermark, rows.size());
+        return rows.size();
+    }
+
+    // Helper methods
+    private RollupWatermark lockWatermark(String name) {
+        return watermarkRepository.findByNameForUpdate(name)
+                .orElseGet(() -> watermarkRepository.saveAndFlush(RollupWatermark.builder().name(name).build()));
+    }
+
+    private void advance(RollupWatermark watermark, int processed) {
+        if (processed > 0) {
+            watermark.setUpdatedAt(LocalDateTime.now());
+            watermarkRepository.save(watermark);
+        }
+    }
+
+    private void addListingEvent(Map<BucketKey, Long> deltas, PropertyRepository.ListingRollupRow row) {
+        addEvent(deltas, row.getEventAt(), RollupDimension.ALL, ALL_VALUE);
+        addEvent(deltas, row.getEventAt(), RollupDimension.PROPERTY_TYPE,
+                row.getPropertyType() != null ? row.getPropertyType().name() : NONE_VALUE);
+    }
+
+    private void addEvent(Map<BucketKey, Long> deltas, LocalDateTime eventAt, RollupDimension dimension, String value) {
+        deltas.merge(new BucketKey(RollupGranularity.HOUR, dimension, eventAt.truncatedTo(ChronoUnit.HOURS), value),
+                1L, Long::sum);
+        deltas.merge(new BucketKey(RollupGranularity.DAY, dimension, eventAt.truncatedTo(ChronoUnit.DAYS), value),
+                1L, Long::sum);
+    }
+
+    private void applyDeltas(RollupMetric metric, Map<BucketKey, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime from = deltas.keySet().stream().map(BucketKey::bucketStart).min(Comparator.naturalOrder()).get();
+        LocalDateTime to = deltas.keySet().stream().map(BucketKey::bucketStart).max(Comparator.naturalOrder()).get();
+
+        Map<BucketKey, AnalyticsRollup> existing = new HashMap<>();
+        for (AnalyticsRollup rollup : rollupRepository.findBucketsBetween(metric, from, to)) {
+            existing.put(new BucketKey(rollup.getGranularity(), rollup.getDimension(),
+                    rollup.getBucketStart(), rollup.getDimensionValue()), rollup);
+        }
+
+        List<AnalyticsRollup> created = new ArrayList<>();
+        for (Map.Entry<BucketKey, Long> delta : deltas.entrySet()) {
+            AnalyticsRollup rollup = existing.get(delta.getKey());
+            if (rollup != null) {
+                rollup.setEventCount(rollup.getEventCount() + delta.getValue());
+            } else {
+                BucketKey key = delta.getKey();
+                created.add(AnalyticsRollup.builder()
+                        .metric(metric)
+                        .granularity(key.granularity())
+                        .dimension(key.dimension())
+                        .bucketStart(key.bucketStart())
+                        .dimensionValue(key.value())
+                        .eventCount(delta.getValue())
+                        .build());
+            }
+        }
+        rollupRepository.saveAll(created);
+    }
+
+    private record BucketKey(RollupGranularity granularity, RollupDimension dimension,
+                             LocalDateTime bucketStart, String value) {
+    }
+}
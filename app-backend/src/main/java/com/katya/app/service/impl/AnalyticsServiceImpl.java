@@ -1,17 +1,28 @@
 package com.katya.app.service.impl;
 
+import com.katya.app.config.AnalyticsRollupProperties;
+import com.katya.app.config.ViewTrackingProperties;
 import com.katya.app.dto.response.DashboardStatsResponse;
-import com.katya.app.repository.AppUserRepository;
+import com.katya.app.dto.response.TimeSeriesPointResponse;
+import com.katya.app.exception.ValidationException;
+import com.katya.app.repository.AnalyticsRollupRepository;
 import com.katya.app.repository.ContactMessageRepository;
 import com.katya.app.repository.PropertyRepository;
 import com.katya.app.service.AnalyticsService;
-import com.katya.app.util.enums.PropertyStatus;
-import com.katya.app.util.enums.PropertyType;
+import com.katya.app.service.PropertyViewService;
+import com.katya.app.service.StatCounterService;
+import com.katya.app.util.enums.RollupDimension;
+import com.katya.app.util.enums.RollupGranularity;
+import com.katya.app.util.enums.RollupMetric;
+import com.katya.app.util.enums.StatCounterKey;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -19,7 +30,11 @@ public class AnalyticsServiceImpl implements AnalyticsService {
 
     private final PropertyRepository propertyRepository;
     private final ContactMessageRepository contactMessageRepository;
-    private final AppUserRepository userRepository;
+    private final StatCounterService statCounterService;
+    private final AnalyticsRollupRepository analyticsRollupRepository;
+    private final AnalyticsRollupProperties rollupProperties;
+    private final PropertyViewService propertyViewService;
+    private final ViewTrackingProperties viewTrackingProperties;
 
     @Override
     @Transactional(readOnly = true)
@@ -27,38 +42,86 @@ public class AnalyticsServiceImpl implements AnalyticsService {
         LocalDateTime oneWeekAgo = LocalDateTime.now().minusWeeks(1);
         LocalDateTime oneMonthAgo = LocalDateTime.now().minusMonths(1);
 
+        // Totals come from the maintained counters; only windowed and price stats hit the source tables
+        Map<StatCounterKey, Long> counters = statCounterService.getCounters();
+        PropertyRepository.PropertyActivityStats propertyStats = propertyRepository.getPropertyActivityStats(oneWeekAgo);
+        ContactMessageRepository.MessageActivityStats messageStats =
+                contactMessageRepository.getMessageActivityStats(oneWeekAgo, oneMonthAgo);
+
         return DashboardStatsResponse.builder()
                 // Property statistics
-                .totalProperties(propertyRepository.count())
-                .publishedProperties(propertyRepository.countByStatus(PropertyStatus.PUBLISHED))
-                .draftProperties(propertyRepository.countByStatus(PropertyStatus.DRAFT))
-                .featuredProperties(propertyRepository.countByIsFeaturedTrue())
+                .totalProperties(counters.getOrDefault(StatCounterKey.PROPERTIES_TOTAL, 0L))
+                .publishedProperties(counters.getOrDefault(StatCounterKey.PROPERTIES_PUBLISHED, 0L))
+                .draftProperties(counters.getOrDefault(StatCounterKey.PROPERTIES_DRAFT, 0L))
+                .featuredProperties(counters.getOrDefault(StatCounterKey.PROPERTIES_FEATURED, 0L))
 
                 // Property type breakdown
-                .totalApartments(propertyRepository.countByPropertyType(PropertyType.APARTMENT))
-                .totalRooms(propertyRepository.countByPropertyType(PropertyType.ROOM))
-                .totalStudios(propertyRepository.countByPropertyType(PropertyType.STUDIO))
-                .totalHouses(propertyRepository.countByPropertyType(PropertyType.HOUSE))
+                .totalApartments(counters.getOrDefault(StatCounterKey.PROPERTIES_APARTMENT, 0L))
+                .totalRooms(counters.getOrDefault(StatCounterKey.PROPERTIES_ROOM, 0L))
+                .totalStudios(counters.getOrDefault(StatCounterKey.PROPERTIES_STUDIO, 0L))
+                .totalHouses(counters.getOrDefault(StatCounterKey.PROPERTIES_HOUSE, 0L))
 
                 // Contact statistics
-                .totalContactMessages(contactMessageRepository.count())
-                .unhandledMessages(contactMessageRepository.countByHandledAtIsNull())
-                .handledMessages(contactMessageRepository.countByHandledAtIsNotNull())
-                .messagesThisMonth(contactMessageRepository.countMessagesCreatedAfter(oneMonthAgo))
+                .totalContactMessages(counters.getOrDefault(StatCounterKey.MESSAGES_TOTAL, 0L))
+                .unhandledMessages(counters.getOrDefault(StatCounterKey.MESSAGES_UNHANDLED, 0L))
+                .handledMessages(counters.getOrDefault(StatCounterKey.MESSAGES_HANDLED, 0L))
+                .messagesThisMonth(messageStats.getReceivedThisMonth())
 
                 // Price statistics
-                .averagePrice(propertyRepository.getAveragePrice())
-                .minPrice(propertyRepository.getMinPrice())
-                .maxPrice(propertyRepository.getMaxPrice())
+                .averagePrice(propertyStats.getAveragePrice())
+                .minPrice(propertyStats.getMinPrice())
+                .maxPrice(propertyStats.getMaxPrice())
 
                 // User statistics
-                .totalUsers(userRepository.count())
-                .activeUsers(userRepository.countActiveUsers())
+                .totalUsers(counters.getOrDefault(StatCounterKey.USERS_TOTAL, 0L))
+                .activeUsers(counters.getOrDefault(StatCounterKey.USERS_ACTIVE, 0L))
 
                 // Recent activity
-                .propertiesCreatedThisWeek(propertyRepository.countPropertiesCreatedAfter(oneWeekAgo))
-                .messagesReceivedThisWeek(contactMessageRepository.countMessagesCreatedAfter(oneWeekAgo))
+                .propertiesCreatedThisWeek(propertyStats.getCreatedSince())
+                .messagesReceivedThisWeek(messageStats.getReceivedThisWeek())
+
+                // View statistics
+                .totalViews(propertyViewService.getTotalViews())
+                .topViewedProperties(propertyViewService.getTopViewed(viewTrackingProperties.getDashboardTopSize()))
 
                 .build();
     }
-}
\ No newline at end of file
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TimeSeriesPointResponse> getTimeSeries(RollupMetric metric, RollupGranularity granularity,
+                                                       RollupDimension dimension, String key,
+                                                       LocalDateTime from, LocalDateTime to) {
+        if (metric != RollupMetric.INQUIRIES
+                && (dimension == RollupDimension.PROPERTY || dimension == RollupDimension.LANGUAGE)) {
+            throw new ValidationException("Listing metrics can only be broken down by ALL or PROPERTY_TYPE");
+        }
+
+        boolean hourly = granularity == RollupGranularity.HOUR;
+        if (to == null) {
+            to = LocalDateTime.now();
+        }
+        if (from == null) {
+            from = hourly ? to.minusHours(48) : to.minusDays(30);
+        }
+        if (!from.isBefore(to)) {
+            throw new ValidationException("'from' must be before 'to'");
+        }
+
+        int maxDays = hourly ? rollupProperties.getMaxHourlyRangeDays() : rollupProperties.getMaxDailyRangeDays();
+        if (ChronoUnit.DAYS.between(from, to) > maxDays) {
+            throw new ValidationException("Range too large for " + granularity + " granularity, max " + maxDays + " days");
+        }
+
+        // Align to bucket boundaries so the first partial bucket is included
+        from = from.truncatedTo(hourly ? ChronoUnit.HOURS : ChronoUnit.DAYS);
+
+        return analyticsRollupRepository.findSeries(metric, granularity, dimension, key, from, to).stream()
+                .map(rollup -> TimeSeriesPointResponse.builder()
+                        .bucketStart(rollup.getBucketStart())
+                        .key(rollup.getDimensionValue())
+                        .count(rollup.getEventCount())
+                        .build())
+                .toList();
+    }
+}
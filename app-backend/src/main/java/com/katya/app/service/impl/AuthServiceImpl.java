@@ -1,9 +1,11 @@
 package com.katya.app.service.impl;
 
+import com.katya.app.config.LoginProtectionProperties;
 import com.katya.app.dto.request.LoginRequest;
 import com.katya.app.dto.request.PasswordChangeRequest;
 import com.katya.app.dto.response.LoginResponse;
 import com.katya.app.dto.response.UserSummaryResponse;
+import com.katya.app.exception.RateLimitExceededException;
 import com.katya.app.exception.ResourceNotFoundException;
 import com.katya.app.exception.UnauthorizedException;
 import com.katya.app.exception.ValidationException;
@@ -12,19 +14,30 @@ import com.katya.app.model.entity.RefreshToken;
 import com.katya.app.repository.AppUserRepository;
 import com.katya.app.repository.RefreshTokenRepository;
 import com.katya.app.security.JwtService;
+import com.katya.app.security.TokenVersionCache;
 import com.katya.app.security.UserPrincipal;
+import com.katya.app.security.VerifiedToken;
 import com.katya.app.service.AuthService;
+import com.katya.app.util.HashUtils;
+import com.katya.app.util.ratelimit.TokenBucketRateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Slf4j
 @Service
@@ -33,62 +46,104 @@ public class AuthServiceImpl implements AuthService {
 
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
+    private final TokenVersionCache tokenVersionCache;
     private final AppUserRepository userRepository;
     private final RefreshTokenRepository refreshTokenRepository;
     private final PasswordEncoder passwordEncoder;
+    private final LoginProtectionProperties loginProperties;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+
+    private TokenBucketRateLimiter accountRateLimiter;
+    private TokenBucketRateLimiter ipRateLimiter;
+    private Counter accountThrottled;
+    private Counter ipThrottled;
+
+    @PostConstruct
+    void initLoginThrottles() {
+        accountRateLimiter = new TokenBucketRateLimiter(
+                loginProperties.getAccountBurst(),
+                Duration.ofSeconds(loginProperties.getAccountRefillPeriodSeconds()),
+                loginProperties.getMaxTrackedKeys());
+        ipRateLimiter = new TokenBucketRateLimiter(
+                loginProperties.getIpBurst(),
+                Duration.ofSeconds(loginProperties.getIpRefillPeriodSeconds()),
+                loginProperties.getMaxTrackedKeys());
+        accountThrottled = Counter.builder("auth.login.throttled")
+                .tag("scope", "account")
+                .description("Login attempts rejected before password verification")
+                .register(meterRegistry);
+        ipThrottled = Counter.builder("auth.login.throttled")
+                .tag("scope", "ip")
+                .description("Login attempts rejected before password verification")
+                .register(meterRegistry);
+    }
 
+    // Not transactional: throttled attempts never borrow a connection, and BCrypt runs without holding one
     @Override
-    @Transactional
-    public LoginResponse login(LoginRequest request) {
+    public LoginResponse login(LoginRequest request, String clientIp) {
+        // Rejected here, before the user lookup and the BCrypt check
+        if (!ipRateLimiter.tryAcquire(clientIp)) {
+            ipThrottled.increment();
+            log.warn("Login rate limit exceeded for IP: {}", clientIp);
+            throw new RateLimitExceededException("Too many login attempts, please try again later");
+        }
+        if (!accountRateLimiter.tryAcquire(request.getEmail().trim().toLowerCase())) {
+            accountThrottled.increment();
+            log.warn("Login rate limit exceeded for account: {}", request.getEmail());
+            throw new RateLimitExceededException("Too many login attempts, please try again later");
+        }
+
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
         );
 
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
-        AppUser user = userPrincipal.getUser();
-
-        String accessToken = jwtService.generateAccessToken(
-                user.getEmail(), user.getId(), user.getRole().name()
-        );
-        String refreshToken = jwtService.generateRefreshToken(user.getEmail());
-
-        saveRefreshToken(user, refreshToken);
-
-        return LoginResponse.builder()
-                .accessToken(accessToken)
-                .refreshToken(refreshToken)
-                .tokenType("Bearer")
-                .expiresIn(jwtService.getAccessTokenExpirationSeconds())
-                .user(buildUserSummaryResponse(user))
-                .build();
+        return transactionTemplate.execute(tx -> issueTokens(userPrincipal.getId()));
     }
 
     @Override
-    @Transactional
+    // Reuse detection revokes sessions and then rejects, so that rejection must not roll it back
+    @Transactional(noRollbackFor = UnauthorizedException.class)
     public LoginResponse refreshToken(String refreshTokenValue) {
-        if (!jwtService.isTokenValid(refreshTokenValue) || !jwtService.isRefreshToken(refreshTokenValue)) {
-            throw new UnauthorizedException("Invalid refresh token");
-        }
+        VerifiedToken verified = jwtService.verify(refreshTokenValue)
+                .filter(VerifiedToken::isRefreshToken)
+                .orElseThrow(() -> new UnauthorizedException("Invalid refresh token"));
 
         RefreshToken refreshToken = refreshTokenRepository
-                .findByTokenAndIsRevokedFalse(refreshTokenValue)
+                .findByTokenHashForUpdate(HashUtils.sha256Hex(refreshTokenValue))
                 .orElseThrow(() -> new UnauthorizedException("Refresh token not found"));
 
+        if (refreshToken.getIsRevoked()) {
+            // A rotated token came back: assume it leaked and end every session of this user
+            int revoked = refreshTokenRepository.revokeAllUserTokens(refreshToken.getUser().getId(), LocalDateTime.now());
+            log.warn("Reuse of revoked refresh token {} detected, revoked {} sessions", refreshToken.getId(), revoked);
+            throw new UnauthorizedException("Refresh token revoked");
+        }
         if (refreshToken.isExpired()) {
             throw new UnauthorizedException("Refresh token expired");
         }
 
-        String email = jwtService.extractEmail(refreshTokenValue);
-        AppUser user = userRepository.findByEmailAndIsActiveTrue(email)
+        AppUser user = userRepository.findByEmailAndIsActiveTrue(verified.email())
                 .orElseThrow(() -> new UnauthorizedException("User not found"));
 
-        String newAccessToken = jwtService.generateAccessToken(
-                user.getEmail(), user.getId(), user.getRole().name()
-        );
+        // Issued before a password, role or status change; tokens without the claim count as version 0
+        int tokenVersion = verified.tokenVersion() != null ? verified.tokenVersion() : 0;
+        if (tokenVersion != user.getTokenVersion()) {
+            refreshToken.revoke();
+            throw new UnauthorizedException("Refresh token revoked");
+        }
+
+        // Rotate: the presented token is spent and a new one replaces it
+        refreshToken.revoke();
+        String newRefreshToken = jwtService.generateRefreshToken(user);
+        saveRefreshToken(user, newRefreshToken);
+
+        String newAccessToken = jwtService.generateAccessToken(user);
 
         return LoginResponse.builder()
                 .accessToken(newAccessToken)
-                .refreshToken(refreshTokenValue)
+                .refreshToken(newRefreshToken)
                 .tokenType("Bearer")
                 .expiresIn(jwtService.getAccessTokenExpirationSeconds())
                 .user(buildUserSummaryResponse(user))
@@ -99,11 +154,8 @@ public class AuthServiceImpl implements AuthService {
     @Transactional
     public void logout(String refreshTokenValue) {
         if (refreshTokenValue != null) {
-            refreshTokenRepository.findByTokenAndIsRevokedFalse(refreshTokenValue)
-                    .ifPresent(token -> {
-                        token.setIsRevoked(true);
-                        refreshTokenRepository.save(token);
-                    });
+            refreshTokenRepository.findByTokenHashAndIsRevokedFalse(HashUtils.sha256Hex(refreshTokenValue))
+                    .ifPresent(RefreshToken::revoke);
         }
     }
 
@@ -133,14 +185,44 @@ public class AuthServiceImpl implements AuthService {
 
         // Update password
         user.setPasswordHash(passwordEncoder.encode(request.getNewPassword()));
+        user.incrementTokenVersion();
         userRepository.save(user);
+        tokenVersionCache.evictAfterCommit(userId);
+        refreshTokenRepository.revokeAllUserTokens(userId, LocalDateTime.now());
 
         log.info("Password changed successfully for user: {}", user.getEmail());
     }
 
+    @Override
+    @Transactional
+    public int purgeRefreshTokens(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = refreshTokenRepository.findPurgeableIds(now,
+                now.minusHours(jwtService.jwtProperties.getRevokedRetentionHours()), PageRequest.of(0, limit));
+        return ids.isEmpty() ? 0 : refreshTokenRepository.deleteByIdIn(ids);
+    }
+
+    private LoginResponse issueTokens(Long userId) {
+        AppUser user = userRepository.findById(userId)
+                .orElseThrow(() -> new UnauthorizedException("User not found"));
+
+        String accessToken = jwtService.generateAccessToken(user);
+        String refreshToken = jwtService.generateRefreshToken(user);
+
+        saveRefreshToken(user, refreshToken);
+
+        return LoginResponse.builder()
+                .accessToken(accessToken)
+                .refreshToken(refreshToken)
+                .tokenType("Bearer")
+                .expiresIn(jwtService.getAccessTokenExpirationSeconds())
+                .user(buildUserSummaryResponse(user))
+                .build();
+    }
+
     private void saveRefreshToken(AppUser user, String token) {
         RefreshToken refreshToken = RefreshToken.builder()
-                .token(token)
+                .tokenHash(HashUtils.sha256Hex(token))
                 .user(user)
                 .expiresAt(LocalDateTime.now().plusSeconds(
                         jwtService.jwtProperties.getRefreshTokenExpiration() / 1000))
@@ -1,15 +1,28 @@
 package com.katya.app.service.impl;
 
 import com.cloudinary.Cloudinary;
+import com.cloudinary.api.exceptions.NotFound;
+import com.katya.app.config.CloudinaryConfig;
+import com.katya.app.config.ExecutionProperties;
 import com.katya.app.exception.FileUploadException;
 import com.katya.app.service.CloudinaryService;
+import com.katya.app.util.ratelimit.ConcurrencyLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Slf4j
@@ -18,20 +31,45 @@ import java.util.Map;
 public class CloudinaryServiceImpl implements CloudinaryService {
 
     private final Cloudinary cloudinary;
+    private final CloudinaryConfig cloudinaryConfig;
+    private final ExecutionProperties executionProperties;
+    private final MeterRegistry meterRegistry;
 
-    @Override
-    public Map<String, Object> uploadImage(MultipartFile file, String folder) {
-        try {
-            Map<String, Object> uploadParams = new HashMap<>();
-            uploadParams.put("folder", folder);
-            uploadParams.put("resource_type", "image");
+    // Bounds calls in flight to Cloudinary, however many request threads are uploading
+    private ConcurrencyLimiter limiter;
 
-            Map<String, Object> result = cloudinary.uploader().upload(file.getBytes(), uploadParams);
+    // Null for the system temp directory
+    private Path stagingDir;
 
-            log.info("Image uploaded to Cloudinary successfully. Public ID: {}", result.get("public_id"));
+    @PostConstruct
+    void init() throws IOException {
+        if (StringUtils.hasText(cloudinaryConfig.getStagingDir())) {
+            stagingDir = Files.createDirectories(Path.of(cloudinaryConfig.getStagingDir()));
+        }
+        limiter = new ConcurrencyLimiter("cloudinary", executionProperties.getCloudinaryMaxConcurrency(),
+                Duration.ofMillis(executionProperties.getCloudinaryAcquireTimeoutMs()));
+        limiter.bindTo(meterRegistry);
+    }
 
-            return result;
+    @Override
+    public Map<String, Object> uploadImage(MultipartFile file, String folder) {
+        File staged = null;
+        try {
+            // The client streams a File through a small fixed buffer; a byte[] would put the whole image on the heap
+            staged = stageToDisk(file);
+            return upload(staged, folder);
+        } catch (IOException e) {
+            log.error("Failed to upload image to Cloudinary: {}", e.getMessage(), e);
+            throw new FileUploadException("Failed to upload image: " + e.getMessage());
+        } finally {
+            deleteStaged(staged);
+        }
+    }
 
+    @Override
+    public Map<String, Object> uploadImage(byte[] content, String folder) {
+        try {
+            return upload(content, folder);
         } catch (IOException e) {
             log.error("Failed to upload image to Cloudinary: {}", e.getMessage(), e);
             throw new FileUploadException("Failed to upload image: " + e.getMessage());
@@ -40,10 +78,14 @@ public class CloudinaryServiceImpl implements CloudinaryService {
 
     @Override
     public boolean deleteImage(String publicIdOrUrl) {
+        if (!limiter.acquire()) {
+            log.warn("Timed out waiting to delete image from Cloudinary: {}", publicIdOrUrl);
+            return false;
+        }
         try {
             String publicId = extractPublicId(publicIdOrUrl);
 
-            Map<String, Object> result = cloudinary.uploader().destroy(publicId, new HashMap<>());
+            Map<String, Object> result = cloudinary.uploader().destroy(publicId, cloudinaryConfig.uploadTimeouts());
 
             String resultStatus = (String) result.get("result");
             boolean success = "ok".equals(resultStatus);
@@ -59,18 +101,142 @@ public class CloudinaryServiceImpl implements CloudinaryService {
         } catch (IOException e) {
             log.error("Failed to delete image from Cloudinary: {}", e.getMessage(), e);
             return false;
+        } finally {
+            limiter.release();
+        }
+    }
+
+    @Override
+    public boolean imageExists(String publicIdOrUrl) {
+        String publicId = extractPublicId(publicIdOrUrl);
+        return callAdminApi(() -> {
+            try {
+                return cloudinary.api().resource(publicId, new HashMap<>());
+            } catch (NotFound e) {
+                return null;
+            }
+        }) != null;
+    }
+
+    @Override
+    public Map<String, Object> listImages(String prefix, String nextCursor, int maxResults) {
+        Map<String, Object> options = new HashMap<>();
+        options.put("type", "upload");
+        options.put("resource_type", "image");
+        options.put("prefix", prefix);
+        options.put("max_results", Math.min(maxResults, 500));
+        if (nextCursor != null) {
+            options.put("next_cursor", nextCursor);
+        }
+        return callAdminApi(() -> cloudinary.api().resources(options));
+    }
+
+    @Override
+    public List<String> deleteImages(List<String> publicIds) {
+        if (publicIds.size() > MAX_DELETE_BATCH) {
+            throw new IllegalArgumentException("At most " + MAX_DELETE_BATCH + " images can be deleted per call");
+        }
+        Map<String, Object> result = callAdminApi(() -> cloudinary.api().deleteResources(publicIds, new HashMap<>()));
+
+        // "not_found" counts as deleted: the image is gone either way
+        Object statuses = result.get("deleted");
+        List<String> failed = new ArrayList<>();
+        for (String publicId : publicIds) {
+            Object status = statuses instanceof Map<?, ?> map ? map.get(publicId) : null;
+            if (!"deleted".equals(status) && !"not_found".equals(status)) {
+                failed.add(publicId);
+            }
         }
+        log.info("Deleted {} of {} images from Cloudinary", publicIds.size() - failed.size(), publicIds.size());
+        return failed;
     }
 
-    private String extractPublicId(String publicIdOrUrl) {
+    @Override
+    public String extractPublicId(String publicIdOrUrl) {
         if (publicIdOrUrl.startsWith("http")) {
             String[] parts = publicIdOrUrl.split("/upload/");
             if (parts.length > 1) {
                 String afterUpload = parts[1];
+                // Drop the version segment (v1234567890/) that secure URLs carry
+                if (afterUpload.matches("v\\d+/.*")) {
+                    afterUpload = afterUpload.substring(afterUpload.indexOf('/') + 1);
+                }
                 int lastDot = afterUpload.lastIndexOf('.');
                 return lastDot > 0 ? afterUpload.substring(0, lastDot) : afterUpload;
             }
         }
         return publicIdOrUrl;
     }
+
+    private Map<String, Object> callAdminApi(AdminCall call) {
+        if (!limiter.acquire()) {
+            throw new FileUploadException("Image service is busy, please try again");
+        }
+        try {
+            return call.execute();
+        } catch (Exception e) {
+            throw new FileUploadException("Cloudinary Admin API call failed: " + e.getMessage());
+        } finally {
+            limiter.release();
+        }
+    }
+
+    @FunctionalInterface
+    private interface AdminCall {
+        Map<String, Object> execute() throws Exception;
+    }
+
+    private Map<String, Object> upload(Object source, String folder) throws IOException {
+        if (!limiter.acquire()) {
+            throw new FileUploadException("Image service is busy, please try again");
+        }
+        try {
+            Map<String, Object> uploadParams = new HashMap<>(cloudinaryConfig.uploadTimeouts());
+            uploadParams.put("folder", folder);
+            uploadParams.put("resource_type", "image");
+
+            Map<String, Object> result = cloudinary.uploader().upload(source, uploadParams);
+
+            log.info("Image uploaded to Cloudinary successfully. Public ID: {}", result.get("public_id"));
+
+            return result;
+        } finally {
+            limiter.release();
+        }
+    }
+
+    // Moves the multipart temp file when it is already on disk, otherwise copies it out in a stream
+    private File stageToDisk(MultipartFile file) throws IOException {
+        String extension = extensionOf(file.getOriginalFilename());
+        File staged = (stagingDir != null
+                ? Files.createTempFile(stagingDir, "upload-", extension)
+                : Files.createTempFile("upload-", extension)).toFile();
+        try {
+            file.transferTo(staged);
+            return staged;
+        } catch (IOException | RuntimeException e) {
+            deleteStaged(staged);
+            throw e;
+        }
+    }
+
+    private void deleteStaged(File staged) {
+        if (staged == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(staged.toPath());
+        } catch (IOException e) {
+            log.warn("Failed to delete staged upload {}: {}", staged, e.getMessage());
+        }
+    }
+
+    private String extensionOf(String filename) {
+        if (filename == null) {
+            return ".tmp";
+        }
+        int lastDot = filename.lastIndexOf('.');
+        String extension = lastDot >= 0 ? filename.substring(lastDot) : "";
+        return extension.matches("\\.[A-Za-z0-9]{1,10}") ? extension : ".tmp";
+    }
 }
@@ -0,0 +1,86 @@
+package com.katya.app.service.impl;
+
+import com.katya.app.service.CloudinaryService;
+import com.katya.app.service.StorageService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.time.Instant;
+import java.util.*;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.upload", name = "provider", havingValue = "cloudinary", matchIfMissing = true)
+public class CloudinaryStorageService implements StorageService {
+
+    private final CloudinaryService cloudinaryService;
+
+    @Override
+    public StoredObject store(MultipartFile file, String folder) {
+        return toStoredObject(cloudinaryService.uploadImage(file, folder), file.getSize());
+    }
+
+    @Override
+    public StoredObject store(byte[] content, String contentType, String folder) {
+        return toStoredObject(cloudinaryService.uploadImage(content, folder), content.length);
+    }
+
+    @Override
+    public boolean delete(String keyOrUrl) {
+        return cloudinaryService.deleteImage(keyOrUrl);
+    }
+
+    @Override
+    public boolean exists(String keyOrUrl) {
+        return cloudinaryService.imageExists(keyOrUrl);
+    }
+
+    @Override
+    public Set<String> deleteAll(Collection<String> keys) {
+        List<String> publicIds = keys.stream().map(this::keyOf).distinct().toList();
+        Set<String> failed = new LinkedHashSet<>();
+        for (int from = 0; from < publicIds.size(); from += CloudinaryService.MAX_DELETE_BATCH) {
+            List<String> batch = publicIds.subList(from, Math.min(from + CloudinaryService.MAX_DELETE_BATCH, publicIds.size()));
+            try {
+                failed.addAll(cloudinaryService.deleteImages(batch));
+            } catch (RuntimeException e) {
+                log.warn("Failed to delete {} images from Cloudinary: {}", batch.size(), e.getMessage());
+                failed.addAll(batch);
+            }
+        }
+        return failed;
+    }
+
+    @Override
+    public Page list(String prefix, String cursor, int limit) {
+        Map<String, Object> result = cloudinaryService.listImages(prefix, cursor, limit);
+        List<ListedObject> objects = new ArrayList<>();
+        if (result.get("resources") instanceof List<?> resources) {
+            for (Object resource : resources) {
+                if (resource instanceof Map<?, ?> image) {
+                    objects.add(new ListedObject((String) image.get("public_id"),
+                            Instant.parse((String) image.get("created_at"))));
+                }
+            }
+        }
+        return new Page(objects, (String) result.get("next_cursor"));
+    }
+
+    @Override
+    public String keyOf(String keyOrUrl) {
+        return cloudinaryService.extractPublicId(keyOrUrl);
+    }
+
+    private StoredObject toStoredObject(Map<String, Object> result, long fallbackSize) {
+        Object bytes = result.get("bytes");
+        return new StoredObject(
+                (String) result.get("public_id"),
+                (String) result.get("secure_url"),
+                bytes instanceof Number number ? number.longValue() : fallbackSize,
+                false);
+    }
+}
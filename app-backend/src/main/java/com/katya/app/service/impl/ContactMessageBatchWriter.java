@@ -0,0 +1,252 @@
+package com.katya.app.service.impl;
+
+import com.katya.app.config.ContactIngestionProperties;
+import com.katya.app.config.NotificationProperties;
+import com.katya.app.dto.request.ContactMessageRequest;
+import com.katya.app.repository.PropertyRepository;
+import com.katya.app.service.StatCounterService;
+import com.katya.app.service.TrendingService;
+import com.katya.app.util.enums.StatCounterKey;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accepts contact messages into a bounded in-memory queue and writes them on a single
+ * background thread in JDBC batches, so public submissions never hold a pool
+ * connection. Property references are resolved for the whole batch in one query, and
+ * admin notification rows are written to the outbox in the same transaction.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ContactMessageBatchWriter {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO contact_message (full_name, email, phone, subject, message, property_id, preferred_lang, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // One outbox row per active admin, fanned out in SQL so the admin list is never stale
+    private static final String OUTBOX_SQL =
+            "INSERT INTO notification_outbox (contact_message_id, recipient_email, status, attempts, next_attempt_at, created_at) " +
+            "SELECT ?, u.email, 'PENDING', 0, ?, ? FROM app_user u " +
+            "WHERE u.is_active = true AND u.role IN ('ADMIN', 'SUPER_ADMIN')";
+
+    private final ContactIngestionProperties properties;
+    private final NotificationProperties notificationProperties;
+    private final PropertyRepository propertyRepository;
+    private final StatCounterService statCounterService;
+    private final TrendingService trendingService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private BlockingQueue<PendingMessage> queue;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        running = true;
+        writerThread = new Thread(this::drainLoop, "contact-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+
+        Gauge.builder("contact.ingestion.queue.depth", queue, BlockingQueue::size)
+                .description("Contact messages buffered and not yet written")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writerThread.interrupt();
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+
+        // Flush whatever is still buffered before the datasource goes away
+        List<PendingMessage> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            log.info("Flushing {} buffered contact messages on shutdown", remaining.size());
+            writeBatch(remaining);
+        }
+    }
+
+    public boolean offer(ContactMessageRequest request) {
+        return queue.offer(new PendingMessage(request, LocalDateTime.now()));
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    private void drainLoop() {
+        List<PendingMessage> batch = new ArrayList<>(properties.getBatchSize());
+        while (running) {
+            try {
+                PendingMessage first = queue.poll(properties.getFlushIntervalMs(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, properties.getBatchSize() - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("Unexpected error in contact message writer: {}", e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<PendingMessage> batch) {
+        try {
+            recordInquiries(transactionTemplate.execute(status -> persist(batch)));
+            log.info("Persisted {} contact messages", batch.size());
+        } catch (Exception e) {
+            log.error("Batch insert of {} contact messages failed, retrying individually: {}", batch.size(), e.getMessage());
+            for (PendingMessage message : batch) {
+                try {
+                    recordInquiries(transactionTemplate.execute(status -> persist(List.of(message))));
+                } catch (Exception ex) {
+                    log.error("Dropping contact message from {}: {}", message.getRequest().getEmail(), ex.getMessage());
+                }
+            }
+        }
+    }
+
+    // Returns the property of every inquiry that was linked to one
+    private List<Long> persist(List<PendingMessage> batch) {
+        Set<Long> existingPropertyIds = resolvePropertyIds(batch);
+        List<Long> messageIds = insertBatch(batch, existingPropertyIds);
+        statCounterService.increment(List.of(StatCounterKey.MESSAGES_TOTAL, StatCounterKey.MESSAGES_UNHANDLED), messageIds.size());
+        if (notificationProperties.isEnabled()) {
+            insertOutbox(batch, messageIds);
+        }
+
+        List<Long> inquiredPropertyIds = new ArrayList<>();
+        for (PendingMessage message : batch) {
+            Long propertyId = message.getRequest().getPropertyId();
+            if (propertyId != null && existingPropertyIds.contains(propertyId)) {
+                inquiredPropertyIds.add(propertyId);
+            }
+        }
+        incrementInquiryCounts(inquiredPropertyIds);
+        return inquiredPropertyIds;
+    }
+
+    // One relative update per distinct count, usually a single statement for the whole batch
+    private void incrementInquiryCounts(List<Long> propertyIds) {
+        Map<Long, Integer> inquiries = new TreeMap<>();
+        propertyIds.forEach(propertyId -> inquiries.merge(propertyId, 1, Integer::sum));
+
+        Map<Integer, List<Long>> byCount = new TreeMap<>();
+        inquiries.forEach((propertyId, count) -> byCount.computeIfAbsent(count, c -> new ArrayList<>()).add(propertyId));
+        byCount.forEach((count, ids) -> propertyRepository.adjustInquiryCount(ids, count));
+    }
+
+    // Only after commit, so a rolled-back batch never inflates trending scores
+    private void recordInquiries(List<Long> propertyIds) {
+        if (propertyIds != null) {
+            propertyIds.forEach(trendingService::recordInquiry);
+        }
+    }
+
+    private Set<Long> resolvePropertyIds(List<PendingMessage> batch) {
+        Set<Long> requestedIds = new HashSet<>();
+        for (PendingMessage message : batch) {
+            if (message.getRequest().getPropertyId() != null) {
+                requestedIds.add(message.getRequest().getPropertyId());
+            }
+        }
+        // Unknown properties are dropped to a general inquiry rather than failing the message
+        return requestedIds.isEmpty() ? Set.of() : new HashSet<>(propertyRepository.findExistingIds(requestedIds));
+    }
+
+    private List<Long> insertBatch(List<PendingMessage> batch, Set<Long> existingPropertyIds) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        PendingMessage message = batch.get(i);
+                        ContactMessageRequest request = message.getRequest();
+                        Long propertyId = request.getPropertyId();
+
+                        ps.setString(1, request.getFullName());
+                        ps.setString(2, request.getEmail());
+                        ps.setString(3, request.getPhone());
+                        ps.setString(4, request.getSubject());
+                        ps.setString(5, request.getMessage());
+                        if (propertyId != null && existingPropertyIds.contains(propertyId)) {
+                            ps.setLong(6, propertyId);
+                        } else {
+                            ps.setNull(6, Types.BIGINT);
+                        }
+                        ps.setString(7, request.getPreferredLang() != null ? request.getPreferredLang().name() : null);
+                        ps.setTimestamp(8, Timestamp.valueOf(message.getReceivedAt()));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return batch.size();
+                    }
+                }, keyHolder);
+
+        List<Long> ids = new ArrayList<>(batch.size());
+        for (Map<String, Object> keys : keyHolder.getKeyList()) {
+            ids.add(((Number) keys.get("id")).longValue());
+        }
+        return ids;
+    }
+
+    private void insertOutbox(List<PendingMessage> batch, List<Long> messageIds) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(OUTBOX_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ps.setLong(1, messageIds.get(i));
+                ps.setTimestamp(2, now);
+                // Lag is measured from when the visitor submitted, not from when the batch was written
+                ps.setTimestamp(3, Timestamp.valueOf(batch.get(i).getReceivedAt()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return messageIds.size();
+            }
+        });
+    }
+
+    @Getter
+    @AllArgsConstructor
+    static class PendingMessage {
+        private final ContactMessageRequest request;
+        private final LocalDateTime receivedAt;
+    }
+}
@@ -1,18 +1,26 @@
 package com.katya.app.service.impl;
 
+import com.katya.app.config.ContactIngestionProperties;
 import com.katya.app.dto.mapper.ContactMessageMapper;
+import com.katya.app.dto.mapper.PropertyMapper;
 import com.katya.app.dto.request.ContactMessageRequest;
 import com.katya.app.dto.response.ContactMessageResponse;
+import com.katya.app.dto.response.PropertySummaryResponse;
+import com.katya.app.exception.RateLimitExceededException;
 import com.katya.app.exception.ResourceNotFoundException;
 import com.katya.app.model.entity.AppUser;
 import com.katya.app.model.entity.ContactMessage;
-import com.katya.app.model.entity.Property;
 import com.katya.app.repository.AppUserRepository;
 import com.katya.app.repository.ContactMessageRepository;
 import com.katya.app.repository.PropertyRepository;
 import com.katya.app.service.ContactMessageService;
+import com.katya.app.service.StatCounterService;
 import com.katya.app.util.DtoUtils;
 import com.katya.app.util.enums.Locale;
+import com.katya.app.util.enums.StatCounterKey;
+import com.katya.app.util.ratelimit.SlidingWindowDeduplicator;
+import com.katya.app.util.ratelimit.TokenBucketRateLimiter;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -20,7 +28,15 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -28,28 +44,52 @@ import java.time.LocalDateTime;
 public class ContactMessageServiceImpl implements ContactMessageService {
 
     private final ContactMessageRepository contactMessageRepository;
-    private final PropertyRepository propertyRepository;
     private final AppUserRepository userRepository;
+    private final PropertyRepository propertyRepository;
     private final ContactMessageMapper contactMessageMapper;
+    private final PropertyMapper propertyMapper;
+    private final StatCounterService statCounterService;
+    private final ContactMessageBatchWriter contactMessageBatchWriter;
+    private final ContactIngestionProperties ingestionProperties;
+
+    private TokenBucketRateLimiter ipRateLimiter;
+    private SlidingWindowDeduplicator duplicateFilter;
+
+    @PostConstruct
+    void initSpamFilters() {
+        ipRateLimiter = new TokenBucketRateLimiter(
+                ingestionProperties.getIpBurst(),
+                Duration.ofSeconds(ingestionProperties.getIpRefillPeriodSeconds()),
+                ingestionProperties.getMaxTrackedKeys());
+        duplicateFilter = new SlidingWindowDeduplicator(
+                Duration.ofSeconds(ingestionProperties.getDuplicateWindowSeconds()),
+                ingestionProperties.getMaxTrackedKeys());
+    }
 
     @Override
-    @Transactional
-    public void submitContactMessage(ContactMessageRequest request) {
+    public void submitContactMessage(ContactMessageRequest request, String clientIp) {
         log.info("Submitting contact message from: {}", request.getEmail());
 
-        ContactMessage message = contactMessageMapper.toEntity(request);
+        // Cheap in-memory checks first so junk never reaches the write path
+        if (!ipRateLimiter.tryAcquire(clientIp)) {
+            log.warn("Contact message rate limit exceeded for IP: {}", clientIp);
+            throw new RateLimitExceededException("Too many messages, please try again later");
+        }
 
-        // Link to property if provided
-        if (request.getPropertyId() != null) {
-            Property property = propertyRepository.findById(request.getPropertyId())
-                    .orElse(null); // Don't fail if property not found
-            message.setProperty(property);
+        if (duplicateFilter.isDuplicate(request.getEmail(), request.getMessage())) {
+            // Acknowledge silently so bots get no signal
+            log.info("Discarding duplicate contact message from: {}", request.getEmail());
+            return;
         }
 
-        contactMessageRepository.save(message);
-        log.info("Contact message submitted successfully");
+        if (!contactMessageBatchWriter.offer(request)) {
+            log.warn("Contact message queue full, rejecting message from: {}", request.getEmail());
+            duplicateFilter.forget(request.getEmail(), request.getMessage());
+            throw new RateLimitExceededException("Too many messages, please try again later");
+        }
 
-        // TODO: Send email notification to admin (implement in EmailService)
+        // Admin notification is written to the outbox alongside the message and mailed by InquiryNotificationDispatcher
+        log.info("Contact message accepted for processing");
     }
 
     @Override
@@ -59,8 +99,7 @@ public class ContactMessageServiceImpl implements ContactMessageService {
         Pageable pageable = DtoUtils.createPageable(page, size, "createdAt", "desc");
 
         Page<ContactMessage> messages = contactMessageRepository.findAllOrderByCreatedAtDesc(pageable);
-        Locale finalLocale = locale;
-        return messages.map(message -> contactMessageMapper.toResponse(message, finalLocale));
+        return toResponses(messages, locale);
     }
 
     @Override
@@ -70,8 +109,7 @@ public class ContactMessageServiceImpl implements ContactMessageService {
         Pageable pageable = DtoUtils.createPageable(page, size, "createdAt", "desc");
 
         Page<ContactMessage> messages = contactMessageRepository.findUnhandledMessages(pageable);
-        Locale finalLocale = locale;
-        return messages.map(message -> contactMessageMapper.toResponse(message, finalLocale));
+        return toResponses(messages, locale);
     }
 
     @Override
@@ -81,8 +119,7 @@ public class ContactMessageServiceImpl implements ContactMessageService {
         Pageable pageable = DtoUtils.createPageable(page, size, "handledAt", "desc");
 
         Page<ContactMessage> messages = contactMessageRepository.findHandledMessages(pageable);
-        Locale finalLocale = locale;
-        return messages.map(message -> contactMessageMapper.toResponse(message, finalLocale));
+        return toResponses(messages, locale);
     }
 
     @Override
@@ -92,8 +129,7 @@ public class ContactMessageServiceImpl implements ContactMessageService {
         Pageable pageable = DtoUtils.createPageable(page, size, "createdAt", "desc");
 
         Page<ContactMessage> messages = contactMessageRepository.searchMessages(query, pageable);
-        Locale finalLocale = locale;
-        return messages.map(message -> contactMessageMapper.toResponse(message, finalLocale));
+        return toResponses(messages, locale);
     }
 
     @Override
@@ -107,10 +143,14 @@ public class ContactMessageServiceImpl implements ContactMessageService {
         AppUser handledBy = userRepository.findById(handledByUserId)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", handledByUserId));
 
+        boolean wasHandled = message.isHandled();
         message.setHandledBy(handledBy);
         message.setHandledAt(LocalDateTime.now());
 
         contactMessageRepository.save(message);
+        if (!wasHandled) {
+            statCounterService.move(List.of(StatCounterKey.MESSAGES_UNHANDLED), List.of(StatCounterKey.MESSAGES_HANDLED));
+        }
         log.info("Message marked as handled successfully");
     }
 
@@ -124,4 +164,35 @@ public class ContactMessageServiceImpl implements ContactMessageService {
 
         return contactMessageMapper.toResponse(message, locale);
     }
-}
\ No newline at end of file
+
+    // Loads the property cards and handlers referenced by a page in one query each
+    private Page<ContactMessageResponse> toResponses(Page<ContactMessage> messages, Locale locale) {
+        Set<Long> propertyIds = new HashSet<>();
+        Set<Long> handlerIds = new HashSet<>();
+        for (ContactMessage message : messages) {
+            if (message.getProperty() != null) {
+                propertyIds.add(message.getProperty().getId());
+            }
+            if (message.getHandledBy() != null) {
+                handlerIds.add(message.getHandledBy().getId());
+            }
+        }
+
+        // One card per property, shared by every inquiry that points at it
+        Map<Long, PropertySummaryResponse> propertyCards = new HashMap<>();
+        if (!propertyIds.isEmpty()) {
+            for (Object[] row : propertyRepository.findSummaryRowsByIdIn(propertyIds, locale)) {
+                PropertySummaryResponse card = propertyMapper.toSummaryResponse(row);
+                propertyCards.put(card.getId(), card);
+            }
+        }
+
+        Map<Long, AppUser> handlers = handlerIds.isEmpty() ? Map.of() :
+                userRepository.findAllById(handlerIds).stream()
+                        .collect(Collectors.toMap(AppUser::getId, Function.identity()));
+
+        return messages.map(message -> contactMessageMapper.toResponse(message,
+                message.getProperty() != null ? propertyCards.get(message.getProperty().getId()) : null,
+                message.getHandledBy() != null ? handlers.get(message.getHandledBy().getId()) : null));
+    }
+}
@@ -4,6 +4,7 @@ import com.katya.app.dto.mapper.ContentPageMapper;
 import com.katya.app.dto.request.ContentPageCreateRequest;
 import com.katya.app.dto.request.ContentPageTranslationRequest;
 import com.katya.app.dto.request.ContentPageUpdateRequest;
+import com.katya.app.dto.response.ContentPageListItemResponse;
 import com.katya.app.dto.response.ContentPageResponse;
 import com.katya.app.exception.DuplicateResourceException;
 import com.katya.app.exception.ResourceNotFoundException;
@@ -27,7 +28,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -41,14 +41,11 @@ public class ContentPageServiceImpl implements ContentPageService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<ContentPageResponse> getPublishedPages(Locale locale) {
+    public List<ContentPageListItemResponse> getPublishedPages(Locale locale) {
         locale = DtoUtils.parseLocale(locale.getCode(), Locale.VI);
 
-        List<ContentPage> pages = contentPageRepository.findPublishedPages();
-        Locale finalLocale = locale;
-        return pages.stream()
-                .map(page -> contentPageMapper.toResponse(page, finalLocale))
-                .collect(Collectors.toList());
+        // Single projection query: no translations map, no body, no user lookups
+        return contentPageRepository.findPublishedPageListItems(locale);
     }
 
     @Override
@@ -177,6 +174,19 @@ public class ContentPageServiceImpl implements ContentPageService {
                 : !contentPageRepository.existsBySlug(slug);
     }
 
+    @Override
+    @Transactional
+    public int backfillBodyPreviews() {
+        List<ContentPageI18n> translations = contentPageI18nRepository.findMissingBodyPreview();
+        translations.forEach(ContentPageI18n::refreshBodyPreview);
+        contentPageI18nRepository.saveAll(translations);
+
+        if (!translations.isEmpty()) {
+            log.info("Backfilled body preview for {} content page translations", translations.size());
+        }
+        return translations.size();
+    }
+
     // Helper methods
     private void savePageTranslations(ContentPage page, Map<String, ContentPageTranslationRequest> translations) {
         for (Map.Entry<String, ContentPageTranslationRequest> entry : translations.entrySet()) {
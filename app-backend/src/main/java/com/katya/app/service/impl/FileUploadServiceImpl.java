@@ -1,28 +1,50 @@
 package com.katya.app.service.impl;
 
 import com.katya.app.config.CloudinaryConfig;
+import com.katya.app.config.FileUploadConfig;
 import com.katya.app.dto.mapper.PropertyMapper;
 import com.katya.app.dto.response.FileUploadResponse;
+import com.katya.app.dto.response.PropertyImageBatchResponse;
 import com.katya.app.dto.response.PropertyImageResponse;
+import com.katya.app.dto.response.PropertyImageUploadResult;
 import com.katya.app.exception.FileUploadException;
 import com.katya.app.exception.ResourceNotFoundException;
 import com.katya.app.exception.ValidationException;
+import com.katya.app.model.converter.ImageVariantListConverter;
+import com.katya.app.model.embeddable.ImageVariant;
 import com.katya.app.model.entity.Property;
 import com.katya.app.model.entity.PropertyImage;
 import com.katya.app.repository.PropertyImageRepository;
 import com.katya.app.repository.PropertyRepository;
-import com.katya.app.service.CloudinaryService;
 import com.katya.app.service.FileUploadService;
+import com.katya.app.service.ImageAssetService;
+import com.katya.app.service.ImageVariantService;
+import com.katya.app.service.StorageService;
 import com.katya.app.util.constant.BusinessConstants;
 import com.katya.app.util.enums.FileType;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.util.List;
-import java.util.Map;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -30,95 +52,158 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class FileUploadServiceImpl implements FileUploadService {
 
-    private final CloudinaryService cloudinaryService;
+    private static final String INSERT_IMAGE_SQL =
+            "INSERT INTO property_image (property_id, file_path, mime_type, file_size, sort_order, is_cover, variants, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final ImageVariantListConverter VARIANTS_CONVERTER = new ImageVariantListConverter();
+
+    private final StorageService storageService;
+    private final ImageVariantService imageVariantService;
+    private final ImageAssetService imageAssetService;
     private final CloudinaryConfig cloudinaryConfig;
+    private final FileUploadConfig fileUploadConfig;
     private final PropertyRepository propertyRepository;
     private final PropertyImageRepository propertyImageRepository;
     private final PropertyMapper propertyMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Environment environment;
+
+    // Thread per upload; batches bound their own parallelism and the storage backend caps the total
+    private SimpleAsyncTaskExecutor uploadExecutor;
+
+    @PostConstruct
+    void init() {
+        uploadExecutor = new SimpleAsyncTaskExecutor("image-upload-");
+        uploadExecutor.setVirtualThreads(Threading.VIRTUAL.isActive(environment));
+    }
 
     @Override
-    @Transactional
     public FileUploadResponse uploadFile(MultipartFile file, FileType expectedType) {
         validateFile(file, expectedType);
 
         try {
-            String folder = cloudinaryConfig.getFolder() + "/" + expectedType.name().toLowerCase();
-            Map<String, Object> result = cloudinaryService.uploadImage(file, folder);
-
-            String publicId = (String) result.get("public_id");
-            String secureUrl = (String) result.get("secure_url");
-            Integer bytes = (Integer) result.get("bytes");
-
-            log.info("File uploaded successfully to Cloudinary: {}", publicId);
-
-            return FileUploadResponse.builder()
-                    .fileName(publicId)
-                    .filePath(secureUrl)
-                    .fileUrl(secureUrl)
-                    .mimeType(file.getContentType())
-                    .fileSize(bytes != null ? bytes.longValue() : file.getSize())
-                    .fileSizeFormatted(formatFileSize(file.getSize()))
-                    .build();
-
+            return storeFile(file, expectedType);
         } catch (Exception e) {
             log.error("Failed to upload file: {}", e.getMessage(), e);
             throw new FileUploadException("Failed to upload file: " + e.getMessage());
         }
     }
 
+    /**
+     * Stores the file first with no connection held, then records it in a short transaction
+     * that locks the property and re-checks the image limit. If recording fails, the stored
+     * file is deleted again, since nothing references it.
+     */
     @Override
-    @Transactional
     public PropertyImageResponse uploadPropertyImage(Long propertyId, MultipartFile file, Short sortOrder, Boolean isCover) {
-        Property property = propertyRepository.findById(propertyId)
-                .orElseThrow(() -> new ResourceNotFoundException("Property", "id", propertyId));
+        if (!propertyRepository.existsById(propertyId)) {
+            throw new ResourceNotFoundException("Property", "id", propertyId);
+        }
+        checkImageLimit(propertyId);
 
-        long currentImageCount = propertyImageRepository.countByPropertyId(propertyId);
-        if (currentImageCount >= BusinessConstants.MAX_IMAGES_PER_PROPERTY) {
-            throw new ValidationException("Cannot add more than " + BusinessConstants.MAX_IMAGES_PER_PROPERTY + " images per property");
+        validateFile(file, FileType.IMAGE);
+        StoredImage stored = storePropertyImage(file);
+
+        PropertyImage propertyImage;
+        try {
+            propertyImage = transactionTemplate.execute(status -> saveImage(propertyId, stored, sortOrder, isCover));
+        } catch (RuntimeException e) {
+            discardWritten(stored.upload(), stored.variants(), stored.reusedUrls());
+            throw e;
         }
 
-        FileUploadResponse uploadResponse = uploadFile(file, FileType.IMAGE);
+        log.info("Property image uploaded successfully for property {}: {}", propertyId, stored.upload().getFileName());
 
-        if (Boolean.TRUE.equals(isCover)) {
-            propertyImageRepository.removeCoverFlagFromProperty(propertyId);
+        return propertyMapper.toImageResponse(propertyImage);
+    }
+
+    /**
+     * Uploads the files to storage concurrently, then inserts every uploaded image in one
+     * batched statement while holding the property row lock, so sort orders continue after
+     * the existing images and the cover is assigned without racing other uploads. Runs
+     * outside a transaction: no connection is held while the uploads are in flight.
+     */
+    @Override
+    public PropertyImageBatchResponse uploadPropertyImages(Long propertyId, List<MultipartFile> files, Integer coverIndex) {
+        if (files == null || files.isEmpty()) {
+            throw new ValidationException("At least one file is required");
+        }
+        if (!propertyRepository.existsById(propertyId)) {
+            throw new ResourceNotFoundException("Property", "id", propertyId);
+        }
+        long currentImageCount = propertyImageRepository.countByPropertyId(propertyId);
+        if (currentImageCount + files.size() > BusinessConstants.MAX_IMAGES_PER_PROPERTY) {
+            throw new ValidationException("Cannot add more than " + BusinessConstants.MAX_IMAGES_PER_PROPERTY + " images per property");
         }
 
-        PropertyImage propertyImage = PropertyImage.builder()
-                .property(property)
-                .filePath(uploadResponse.getFilePath())
-                .mimeType(uploadResponse.getMimeType())
-                .fileSize(uploadResponse.getFileSize().intValue())
-                .sortOrder(sortOrder != null ? sortOrder : 0)
-                .isCover(Boolean.TRUE.equals(isCover))
-                .build();
+        PropertyImageUploadResult[] results = new PropertyImageUploadResult[files.size()];
+        List<UploadedImage> uploaded = uploadConcurrently(files, results);
 
-        propertyImage = propertyImageRepository.save(propertyImage);
+        if (!uploaded.isEmpty()) {
+            List<PropertyImage> saved;
+            try {
+                saved = transactionTemplate.execute(status -> insertImages(propertyId, uploaded, coverIndex));
+            } catch (Exception e) {
+                log.error("Failed to save {} uploaded images for property {}: {}", uploaded.size(), propertyId, e.getMessage());
+                saved = List.of();
+            }
 
-        log.info("Property image uploaded successfully for property {}: {}", propertyId, uploadResponse.getFileName());
+            for (int i = 0; i < uploaded.size(); i++) {
+                UploadedImage image = uploaded.get(i);
+                if (i < saved.size()) {
+                    results[image.index()] = PropertyImageUploadResult.builder()
+                            .index(image.index())
+                            .fileName(image.fileName())
+                            .success(true)
+                            .image(propertyMapper.toImageResponse(saved.get(i)))
+                            .build();
+                } else {
+                    // Not saved (limit reached meanwhile, or the insert failed), so don't leave it in storage
+                    discardWritten(image.upload(), image.variants(), image.reusedUrls());
+                    results[image.index()] = failure(image.index(), image.fileName(), "Image could not be saved");
+                }
+            }
+        }
 
-        return propertyMapper.toImageResponse(propertyImage);
+        int succeeded = (int) Arrays.stream(results).filter(PropertyImageUploadResult::getSuccess).count();
+        log.info("Batch upload for property {}: {} of {} images saved", propertyId, succeeded, files.size());
+
+        return PropertyImageBatchResponse.builder()
+                .propertyId(propertyId)
+                .uploaded(succeeded)
+                .failed(files.size() - succeeded)
+                .results(Arrays.asList(results))
+                .build();
     }
 
     @Override
-    @Transactional
     public void deleteFile(String filePathOrUrl) {
-        boolean deleted = cloudinaryService.deleteImage(filePathOrUrl);
+        // Files behind property images are removed by deleting the images, once no copy uses them
+        if (imageAssetService.isReferenced(filePathOrUrl)) {
+            throw new ValidationException("File is still used by property images");
+        }
+        boolean deleted = storageService.delete(filePathOrUrl);
         if (deleted) {
-            log.info("File deleted from Cloudinary: {}", filePathOrUrl);
+            log.info("File deleted from storage: {}", filePathOrUrl);
         } else {
-            log.warn("Failed to delete file from Cloudinary: {}", filePathOrUrl);
+            log.warn("Failed to delete file from storage: {}", filePathOrUrl);
         }
     }
 
     @Override
     @Transactional
     public void deletePropertyImage(Long imageId) {
+        Long propertyId = lockPropertyOfImage(imageId);
         PropertyImage image = propertyImageRepository.findById(imageId)
                 .orElseThrow(() -> new ResourceNotFoundException("PropertyImage", "id", imageId));
 
-        deleteFile(image.getFilePath());
-
         propertyImageRepository.delete(image);
+        // Duplicated properties share files, so storage is only cleaned up with the last reference
+        imageAssetService.release(imageAssetService.urlsOf(image.getFilePath(), image.getVariants()));
+        propertyRepository.adjustImageCount(propertyId, -1);
+        propertyRepository.refreshCoverImage(propertyId);
 
         log.info("Property image deleted: {}", imageId);
     }
@@ -135,28 +220,243 @@ public class FileUploadServiceImpl implements FileUploadService {
     @Override
     @Transactional
     public void updateImageSortOrder(Long imageId, Short sortOrder) {
-        if (!propertyImageRepository.existsById(imageId)) {
-            throw new ResourceNotFoundException("PropertyImage", "id", imageId);
-        }
+        Long propertyId = lockPropertyOfImage(imageId);
 
         propertyImageRepository.updateSortOrder(imageId, sortOrder);
+        // Without a flagged cover, the first image by sort order is the cover
+        propertyRepository.refreshCoverImage(propertyId);
         log.info("Image sort order updated: {} -> {}", imageId, sortOrder);
     }
 
     @Override
     @Transactional
     public void setCoverImage(Long imageId) {
+        Long propertyId = lockPropertyOfImage(imageId);
         PropertyImage image = propertyImageRepository.findById(imageId)
                 .orElseThrow(() -> new ResourceNotFoundException("PropertyImage", "id", imageId));
 
-        propertyImageRepository.removeCoverFlagFromProperty(image.getProperty().getId());
+        propertyImageRepository.removeCoverFlagFromProperty(propertyId);
 
         image.setIsCover(true);
         propertyImageRepository.save(image);
+        propertyRepository.refreshCoverImage(propertyId);
 
         log.info("Cover image set: {}", imageId);
     }
 
+    private FileUploadResponse storeFile(MultipartFile file, FileType expectedType) {
+        return toUploadResponse(file, storeObject(file, cloudinaryConfig.getFolder() + "/" + expectedType.name().toLowerCase()));
+    }
+
+    private StorageService.StoredObject storeObject(MultipartFile file, String folder) {
+        StorageService.StoredObject stored = storageService.store(file, folder);
+
+        log.info("File uploaded successfully: {}", stored.key());
+        return stored;
+    }
+
+    private FileUploadResponse toUploadResponse(MultipartFile file, StorageService.StoredObject stored) {
+        return FileUploadResponse.builder()
+                .fileName(stored.key())
+                .filePath(stored.url())
+                .fileUrl(stored.url())
+                .mimeType(file.getContentType())
+                .fileSize(stored.size())
+                .fileSizeFormatted(formatFileSize(file.getSize()))
+                .build();
+    }
+
+    // Variants are cut first: uploading the original moves the multipart temp file away
+    private StoredImage storePropertyImage(MultipartFile file) {
+        ImageVariantService.CreatedVariants variants = imageVariantService.createVariants(file,
+                cloudinaryConfig.propertyImageFolder() + "/variants");
+        try {
+            StorageService.StoredObject original = storeObject(file, cloudinaryConfig.propertyImageFolder());
+            Set<String> reusedUrls = new HashSet<>(variants.reusedUrls());
+            if (original.deduplicated()) {
+                reusedUrls.add(original.url());
+            }
+            return new StoredImage(toUploadResponse(file, original), variants.variants(), reusedUrls);
+        } catch (RuntimeException e) {
+            imageVariantService.discardVariants(variants);
+            throw e;
+        }
+    }
+
+    private PropertyImage saveImage(Long propertyId, StoredImage stored, Short sortOrder, Boolean isCover) {
+        Property property = propertyRepository.findByIdForUpdate(propertyId)
+                .orElseThrow(() -> new ResourceNotFoundException("Property", "id", propertyId));
+        checkImageLimit(propertyId);
+
+        if (Boolean.TRUE.equals(isCover)) {
+            propertyImageRepository.removeCoverFlagFromProperty(propertyId);
+        }
+
+        FileUploadResponse upload = stored.upload();
+        PropertyImage propertyImage = PropertyImage.builder()
+                .property(property)
+                .filePath(upload.getFilePath())
+                .mimeType(upload.getMimeType())
+                .fileSize(upload.getFileSize().intValue())
+                .sortOrder(sortOrder != null ? sortOrder : 0)
+                .isCover(Boolean.TRUE.equals(isCover))
+                .variants(stored.variants())
+                .build();
+
+        propertyImage = propertyImageRepository.save(propertyImage);
+        imageAssetService.acquire(imageAssetService.urlsOf(propertyImage.getFilePath(), propertyImage.getVariants()),
+                stored.reusedUrls());
+        propertyRepository.adjustImageCount(propertyId, 1);
+        propertyRepository.refreshCoverImage(propertyId);
+        return propertyImage;
+    }
+
+    // Same lock as uploads take, so the denormalized cover is computed from settled images
+    private Long lockPropertyOfImage(Long imageId) {
+        Long propertyId = propertyImageRepository.findPropertyIdById(imageId)
+                .orElseThrow(() -> new ResourceNotFoundException("PropertyImage", "id", imageId));
+        propertyRepository.findByIdForUpdate(propertyId);
+        return propertyId;
+    }
+
+    private void checkImageLimit(Long propertyId) {
+        if (propertyImageRepository.countByPropertyId(propertyId) >= BusinessConstants.MAX_IMAGES_PER_PROPERTY) {
+            throw new ValidationException("Cannot add more than " + BusinessConstants.MAX_IMAGES_PER_PROPERTY + " images per property");
+        }
+    }
+
+    // Fills results for files that fail validation or upload; returns the rest in request order
+    private List<UploadedImage> uploadConcurrently(List<MultipartFile> files, PropertyImageUploadResult[] results) {
+        Semaphore slots = new Semaphore(Math.max(1, fileUploadConfig.getBatchParallelism()));
+        Map<Integer, CompletableFuture<StoredImage>> uploads = new LinkedHashMap<>();
+        for (int i = 0; i < files.size(); i++) {
+            MultipartFile file = files.get(i);
+            try {
+                validateFile(file, FileType.IMAGE);
+            } catch (FileUploadException e) {
+                results[i] = failure(i, file.getOriginalFilename(), e.getMessage());
+                continue;
+            }
+            slots.acquireUninterruptibly();
+            uploads.put(i, CompletableFuture.supplyAsync(() -> storePropertyImage(file), uploadExecutor)
+                    .whenComplete((upload, error) -> slots.release()));
+        }
+
+        List<UploadedImage> uploaded = new ArrayList<>();
+        uploads.forEach((index, upload) -> {
+            String fileName = files.get(index).getOriginalFilename();
+            try {
+                StoredImage stored = upload.join();
+                uploaded.add(new UploadedImage(index, fileName, stored.upload(), stored.variants(), stored.reusedUrls()));
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                log.error("Failed to upload {}: {}", fileName, cause.getMessage());
+                results[index] = failure(index, fileName, cause.getMessage());
+            }
+        });
+        return uploaded;
+    }
+
+    // Returns the images that fit under the per-property limit, in order, with their generated ids
+    private List<PropertyImage> insertImages(Long propertyId, List<UploadedImage> uploaded, Integer coverIndex) {
+        Property property = propertyRepository.findByIdForUpdate(propertyId)
+                .orElseThrow(() -> new ResourceNotFoundException("Property", "id", propertyId));
+
+        long capacity = BusinessConstants.MAX_IMAGES_PER_PROPERTY - propertyImageRepository.countByPropertyId(propertyId);
+        List<UploadedImage> accepted = uploaded.subList(0, (int) Math.max(0, Math.min(capacity, uploaded.size())));
+        if (accepted.isEmpty()) {
+            return List.of();
+        }
+
+        Integer cover = null;
+        if (coverIndex != null && accepted.stream().anyMatch(image -> image.index() == coverIndex)) {
+            propertyImageRepository.removeCoverFlagFromProperty(propertyId);
+            cover = coverIndex;
+        } else if (!propertyImageRepository.existsByPropertyIdAndIsCoverTrue(propertyId)) {
+            cover = accepted.get(0).index();
+        }
+
+        Short maxSortOrder = propertyImageRepository.findMaxSortOrder(propertyId);
+        int nextSortOrder = maxSortOrder != null ? maxSortOrder + 1 : 0;
+        LocalDateTime now = LocalDateTime.now();
+
+        List<PropertyImage> images = new ArrayList<>(accepted.size());
+        for (UploadedImage image : accepted) {
+            PropertyImage propertyImage = PropertyImage.builder()
+                    .property(property)
+                    .filePath(image.upload().getFilePath())
+                    .mimeType(image.upload().getMimeType())
+                    .fileSize(image.upload().getFileSize().intValue())
+                    .sortOrder((short) nextSortOrder++)
+                    .isCover(Objects.equals(image.index(), cover))
+                    .variants(image.variants())
+                    .build();
+            propertyImage.setCreatedAt(now);
+            propertyImage.setUpdatedAt(now);
+            images.add(propertyImage);
+        }
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_IMAGE_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        PropertyImage image = images.get(i);
+                        ps.setLong(1, propertyId);
+                        ps.setString(2, image.getFilePath());
+                        ps.setString(3, image.getMimeType());
+                        ps.setInt(4, image.getFileSize());
+                        ps.setShort(5, image.getSortOrder());
+                        ps.setBoolean(6, image.getIsCover());
+                        ps.setString(7, VARIANTS_CONVERTER.convertToDatabaseColumn(image.getVariants()));
+                        ps.setTimestamp(8, Timestamp.valueOf(now));
+                        ps.setTimestamp(9, Timestamp.valueOf(now));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return images.size();
+                    }
+                }, keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        List<String> urls = new ArrayList<>();
+        Set<String> reusedUrls = new HashSet<>();
+        for (int i = 0; i < images.size(); i++) {
+            images.get(i).setId(((Number) keys.get(i).get("id")).longValue());
+            urls.addAll(imageAssetService.urlsOf(images.get(i).getFilePath(), images.get(i).getVariants()));
+            reusedUrls.addAll(accepted.get(i).reusedUrls());
+        }
+        imageAssetService.acquire(urls, reusedUrls);
+        propertyRepository.adjustImageCount(propertyId, images.size());
+        propertyRepository.refreshCoverImage(propertyId);
+        return images;
+    }
+
+    private PropertyImageUploadResult failure(int index, String fileName, String error) {
+        return PropertyImageUploadResult.builder()
+                .index(index)
+                .fileName(fileName)
+                .success(false)
+                .error(error)
+                .build();
+    }
+
+    // reusedUrls: files whose identical content was already stored, so they were not written by this upload
+    private record StoredImage(FileUploadResponse upload, List<ImageVariant> variants, Set<String> reusedUrls) {
+    }
+
+    private record UploadedImage(int index, String fileName, FileUploadResponse upload, List<ImageVariant> variants,
+                                 Set<String> reusedUrls) {
+    }
+
+    // Reused files belong to the upload that stored them first and may already be in use
+    private void discardWritten(FileUploadResponse upload, List<ImageVariant> variants, Set<String> reusedUrls) {
+        imageAssetService.discard(imageAssetService.urlsOf(upload.getFilePath(), variants).stream()
+                .filter(url -> !reusedUrls.contains(url))
+                .toList());
+    }
+
     private void validateFile(MultipartFile file, FileType expectedType) {
         if (file.isEmpty()) {
             throw new FileUploadException("File is empty");
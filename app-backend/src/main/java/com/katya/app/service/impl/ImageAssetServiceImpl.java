@@ -0,0 +1,233 @@
+package com.katya.app.service.impl;
+
+import com.katya.app.exception.FileUploadException;
+import com.katya.app.model.converter.ImageVariantListConverter;
+import com.katya.app.model.embeddable.ImageVariant;
+import com.katya.app.model.entity.ImageAsset;
+import com.katya.app.repository.ImageAssetRepository;
+import com.katya.app.repository.PropertyImageRepository;
+import com.katya.app.service.ImageAssetService;
+import com.katya.app.service.StorageService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImageAssetServiceImpl implements ImageAssetService {
+
+    private static final String INSERT_ASSET_SQL =
+            "INSERT INTO image_asset (url, ref_count, created_at, updated_at) VALUES (?, ?, ?, ?) ON CONFLICT DO NOTHING";
+
+    private static final ImageVariantListConverter VARIANTS_CONVERTER = new ImageVariantListConverter();
+
+    private final ImageAssetRepository imageAssetRepository;
+    private final PropertyImageRepository propertyImageRepository;
+    private final StorageService storageService;
+    private final JdbcTemplate jdbcTemplate;
+    private final Executor taskExecutor;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public List<String> urlsOf(String filePath, List<ImageVariant> variants) {
+        List<String> urls = new ArrayList<>();
+        if (filePath != null) {
+            urls.add(filePath);
+        }
+        if (variants != null) {
+            variants.stream().map(ImageVariant::getUrl).filter(Objects::nonNull).forEach(urls::add);
+        }
+        return urls;
+    }
+
+    @Override
+    @Transactional
+    public void acquire(Collection<String> urls) {
+        acquire(urls, List.of());
+    }
+
+    @Override
+    @Transactional
+    public void acquire(Collection<String> urls, Collection<String> reusedUrls) {
+        if (urls.isEmpty()) {
+            return;
+        }
+        Map<String, Integer> occurrences = countOccurrences(urls);
+        LocalDateTime now = LocalDateTime.now();
+
+        // Sorted so concurrent writers lock rows in the same order
+        List<String> distinct = occurrences.keySet().stream().sorted().toList();
+        Set<String> existing = new HashSet<>(imageAssetRepository.findExistingUrls(distinct));
+        List<String> missing = distinct.stream().filter(url -> !existing.contains(url)).toList();
+        if (!missing.isEmpty()) {
+            // A file may already be shared by rows written before it was registered, so the row
+            // starts at those references; the rows being added are written already and come next
+            Map<String, Integer> references = countReferences(distinct);
+            insertAssets(missing, url -> Math.max(0, references.getOrDefault(url, 0) - occurrences.get(url)), now);
+        }
+        // Usually a single statement: each url appears once per image row being added
+        groupByCount(occurrences).forEach((count, group) -> imageAssetRepository.adjustRefCount(group, count, now));
+
+        // The rows are locked now, so a pending delete either already removed the file or will see the reference
+        for (String url : reusedUrls) {
+            if (!storageService.exists(url)) {
+                throw new FileUploadException("Stored file was removed during the upload, please try again");
+            }
+        }
+    }
+
+    @Override
+    @Transactional
+    public void release(Collection<String> urls) {
+        if (urls.isEmpty()) {
+            return;
+        }
+        Map<String, Integer> occurrences = countOccurrences(urls);
+        LocalDateTime now = LocalDateTime.now();
+        groupByCount(occurrences).forEach((count, group) -> imageAssetRepository.adjustRefCount(group, -count, now));
+
+        // Urls without a row predate the registry and are left alone. Rows at zero stay until
+        // the file is gone, so an upload reusing the file meanwhile finds and locks them
+        List<String> unreferenced = imageAssetRepository.findUnreferencedUrls(occurrences.keySet());
+        if (!unreferenced.isEmpty()) {
+            deleteAfterCommit(unreferenced);
+        }
+    }
+
+    @Override
+    public void discard(Collection<String> urls) {
+        if (urls.isEmpty()) {
+            return;
+        }
+        Set<String> registered = new HashSet<>(imageAssetRepository.findExistingUrls(new HashSet<>(urls)));
+        urls.stream()
+                .filter(url -> !registered.contains(url))
+                .distinct()
+                .forEach(this::deleteFromStorage);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean isReferenced(String url) {
+        return imageAssetRepository.existsByUrlAndRefCountGreaterThan(url, 0);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        try {
+            int assets = backfill();
+            if (assets > 0) {
+                log.info("Registered {} existing image files", assets);
+            }
+        } catch (Exception e) {
+            log.error("Image asset backfill failed: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    @Transactional
+    public int backfill() {
+        Map<String, Integer> references = new HashMap<>();
+        jdbcTemplate.query("SELECT file_path, variants FROM property_image", rs -> {
+            List<ImageVariant> variants = VARIANTS_CONVERTER.convertToEntityAttribute(rs.getString("variants"));
+            urlsOf(rs.getString("file_path"), variants).forEach(url -> references.merge(url, 1, Integer::sum));
+        });
+        // Read after the references: a url registered meanwhile counts its own new rows
+        imageAssetRepository.findAllUrls().forEach(references::remove);
+        if (references.isEmpty()) {
+            return 0;
+        }
+
+        List<String> missing = references.keySet().stream().sorted().toList();
+        insertAssets(missing, references::get, LocalDateTime.now());
+        return missing.size();
+    }
+
+    // Helper methods
+    // Rows a concurrent writer registered first are left as they are
+    private void insertAssets(List<String> urls, ToIntFunction<String> refCount, LocalDateTime now) {
+        jdbcTemplate.batchUpdate(INSERT_ASSET_SQL, urls, 500, (ps, url) -> {
+            ps.setString(1, url);
+            ps.setInt(2, refCount.applyAsInt(url));
+            ps.setTimestamp(3, Timestamp.valueOf(now));
+            ps.setTimestamp(4, Timestamp.valueOf(now));
+        });
+    }
+
+    // Variants are only ever stored alongside their original, so the originals find every row
+    private Map<String, Integer> countReferences(Collection<String> urls) {
+        Map<String, Integer> references = new HashMap<>();
+        for (Object[] row : propertyImageRepository.findFilesByFilePathIn(urls)) {
+            @SuppressWarnings("unchecked")
+            List<ImageVariant> variants = (List<ImageVariant>) row[1];
+            urlsOf((String) row[0], variants).forEach(url -> references.merge(url, 1, Integer::sum));
+        }
+        return references;
+    }
+
+    private void deleteAfterCommit(List<String> urls) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            taskExecutor.execute(() -> deleteIfStillUnreferenced(urls));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                // Off the request thread, so the connection is returned without waiting on storage
+                taskExecutor.execute(() -> deleteIfStillUnreferenced(urls));
+            }
+        });
+    }
+
+    // Holds the row locks while deleting, so an upload reusing identical content either waits
+    // and finds the file gone, or registered its reference first and the file is kept
+    private void deleteIfStillUnreferenced(List<String> urls) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<String> unreferenced = imageAssetRepository.lockUnreferenced(urls).stream()
+                    .map(ImageAsset::getUrl)
+                    .toList();
+            if (unreferenced.isEmpty()) {
+                return;
+            }
+            unreferenced.forEach(this::deleteFromStorage);
+            imageAssetRepository.deleteUnreferenced(unreferenced);
+        });
+    }
+
+    private void deleteFromStorage(String url) {
+        try {
+            if (storageService.delete(url)) {
+                log.info("Image file deleted from storage: {}", url);
+            } else {
+                log.warn("Failed to delete image file from storage: {}", url);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to delete image file {}: {}", url, e.getMessage());
+        }
+    }
+
+    private static Map<String, Integer> countOccurrences(Collection<String> urls) {
+        return urls.stream().collect(Collectors.toMap(url -> url, url -> 1, Integer::sum));
+    }
+
+    private static Map<Integer, List<String>> groupByCount(Map<String, Integer> occurrences) {
+        return occurrences.entrySet().stream()
+                .collect(Collectors.groupingBy(Map.Entry::getValue, TreeMap::new,
+                        Collectors.mapping(Map.Entry::getKey, Collectors.toList())));
+    }
+}
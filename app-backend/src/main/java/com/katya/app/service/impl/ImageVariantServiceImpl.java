@@ -0,0 +1,130 @@
+package com.katya.app.service.impl;
+
+import com.katya.app.config.ImageVariantProperties;
+import com.katya.app.model.embeddable.ImageVariant;
+import com.katya.app.service.ImageAssetService;
+import com.katya.app.service.ImageVariantService;
+import com.katya.app.service.StorageService;
+import com.katya.app.util.image.ImageVariantGenerator;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.InputStream;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+/**
+ * Creates the resized renditions of a property image at upload time. Decoding and encoding
+ * run on a small dedicated pool so a burst of uploads cannot take every core from request
+ * handling; the renditions are then uploaded next to the original.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ImageVariantServiceImpl implements ImageVariantService {
+
+    private final ImageVariantProperties properties;
+    private final StorageService storageService;
+    private final ImageAssetService imageAssetService;
+
+    private ImageVariantGenerator generator;
+    private ThreadPoolExecutor processingPool;
+
+    @PostConstruct
+    void init() {
+        generator = new ImageVariantGenerator(properties.getWidths(), properties.getQuality(),
+                properties.getMaxSourcePixels());
+        processingPool = new ThreadPoolExecutor(properties.getProcessingThreads(), properties.getProcessingThreads(),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getProcessingQueueCapacity()),
+                new CustomizableThreadFactory("image-variants-"), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        processingPool.shutdownNow();
+    }
+
+    @Override
+    public CreatedVariants createVariants(MultipartFile file, String folder) {
+        if (!properties.isEnabled()) {
+            return CreatedVariants.NONE;
+        }
+
+        List<ImageVariantGenerator.Variant> encoded;
+        try {
+            encoded = processingPool.submit(() -> {
+                try (InputStream source = file.getInputStream()) {
+                    return generator.generate(source);
+                }
+            }).get();
+        } catch (RejectedExecutionException e) {
+            log.warn("Image processing queue is full, storing {} without variants", file.getOriginalFilename());
+            return CreatedVariants.NONE;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CreatedVariants.NONE;
+        } catch (ExecutionException e) {
+            log.warn("Could not create variants for {}: {}", file.getOriginalFilename(), e.getCause().getMessage());
+            return CreatedVariants.NONE;
+        }
+
+        List<ImageVariant> variants = new ArrayList<>(encoded.size());
+        Set<String> reusedUrls = new HashSet<>();
+        try {
+            for (ImageVariantGenerator.Variant variant : encoded) {
+                StorageService.StoredObject stored = storageService.store(variant.content(), "image/jpeg", folder);
+                variants.add(ImageVariant.builder()
+                        .width(variant.width())
+                        .height(variant.height())
+                        .bytes(variant.content().length)
+                        .url(stored.url())
+                        .build());
+                if (stored.deduplicated()) {
+                    reusedUrls.add(stored.url());
+                }
+            }
+        } catch (RuntimeException e) {
+            // All or nothing, so srcset never advertises a width that is missing
+            log.warn("Failed to upload variants for {}: {}", file.getOriginalFilename(), e.getMessage());
+            discardVariants(new CreatedVariants(variants, reusedUrls));
+            return CreatedVariants.NONE;
+        }
+        return new CreatedVariants(variants, reusedUrls);
+    }
+
+    @Override
+    public void discardVariants(CreatedVariants created) {
+        List<String> written = imageAssetService.urlsOf(null, created.variants()).stream()
+                .filter(url -> !created.reusedUrls().contains(url))
+                .toList();
+        imageAssetService.discard(written);
+    }
+
+    @Override
+    public String toSrcset(List<ImageVariant> variants) {
+        if (variants == null || variants.isEmpty()) {
+            return null;
+        }
+        return variants.stream()
+                .sorted(Comparator.comparing(ImageVariant::getWidth))
+                .map(variant -> variant.getUrl() + " " + variant.getWidth() + "w")
+                .collect(Collectors.joining(", "));
+    }
+
+    @Override
+    public ImageVariant selectCardVariant(List<ImageVariant> variants) {
+        if (variants == null || variants.isEmpty()) {
+            return null;
+        }
+        return variants.stream()
+                .filter(variant -> variant.getWidth() >= properties.getCardWidth())
+                .min(Comparator.comparing(ImageVariant::getWidth))
+                .orElseGet(() -> variants.stream().max(Comparator.comparing(ImageVariant::getWidth)).orElseThrow());
+    }
+}
@@ -0,0 +1,244 @@
+package com.katya.app.service.impl;
+
+import com.katya.app.config.NotificationProperties;
+import com.katya.app.model.entity.ContactMessage;
+import com.katya.app.model.entity.NotificationOutbox;
+import com.katya.app.repository.ContactMessageRepository;
+import com.katya.app.repository.NotificationOutboxRepository;
+import com.katya.app.util.enums.OutboxStatus;
+import com.katya.app.util.ratelimit.TokenBucketRateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailSender;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Drains the notification outbox on a schedule. Due rows are claimed with SKIP LOCKED,
+ * grouped into one digest mail per admin and sent outside any transaction. Failures are
+ * retried with exponential backoff; the send rate is capped across all recipients.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InquiryNotificationDispatcher {
+
+    private static final List<OutboxStatus> OPEN_STATUSES = List.of(OutboxStatus.PENDING, OutboxStatus.SENDING);
+    private static final String RATE_KEY = "smtp";
+    private static final int MESSAGE_PREVIEW_LENGTH = 300;
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final NotificationProperties properties;
+    private final NotificationOutboxRepository outboxRepository;
+    private final ContactMessageRepository contactMessageRepository;
+    private final ObjectProvider<MailSender> mailSenderProvider;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicLong openCount = new AtomicLong();
+    private final AtomicLong oldestOpenAgeSeconds = new AtomicLong();
+
+    private MailSender mailSender;
+    private TokenBucketRateLimiter sendRateLimiter;
+    private Timer deliveryLag;
+    private Counter sentCounter;
+    private Counter failedCounter;
+
+    @PostConstruct
+    void init() {
+        mailSender = mailSenderProvider.getIfAvailable(LoggingMailSender::new);
+        sendRateLimiter = new TokenBucketRateLimiter(properties.getMaxEmailsPerMinute(), Duration.ofMinutes(1), 1);
+
+        Gauge.builder("notifications.outbox.pending", openCount, AtomicLong::get)
+                .description("Outbox rows waiting to be delivered")
+                .register(meterRegistry);
+        Gauge.builder("notifications.outbox.oldest.age", oldestOpenAgeSeconds, AtomicLong::get)
+                .description("Age of the oldest undelivered outbox row")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        deliveryLag = Timer.builder("notifications.delivery.lag")
+                .description("Time from inquiry submission to admin notification")
+                .register(meterRegistry);
+        sentCounter = Counter.builder("notifications.sent")
+                .description("Outbox rows delivered")
+                .register(meterRegistry);
+        failedCounter = Counter.builder("notifications.failed")
+                .description("Outbox rows that exhausted their retries")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.notifications.dispatch-interval-ms:30000}",
+            initialDelayString = "${app.notifications.dispatch-interval-ms:30000}")
+    public void dispatch() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            dispatchDue();
+        } catch (Exception e) {
+            log.error("Notification dispatch failed: {}", e.getMessage(), e);
+        } finally {
+            refreshBacklogGauges();
+        }
+    }
+
+    int dispatchDue() {
+        List<NotificationOutbox> claimed = transactionTemplate.execute(status -> claimDue());
+        if (claimed == null || claimed.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, ContactMessage> messages = contactMessageRepository.findAllWithPropertyByIdIn(
+                        claimed.stream().map(row -> row.getContactMessage().getId()).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(ContactMessage::getId, Function.identity()));
+
+        Map<String, List<NotificationOutbox>> byRecipient = claimed.stream()
+                .collect(Collectors.groupingBy(NotificationOutbox::getRecipientEmail, LinkedHashMap::new, Collectors.toList()));
+
+        List<Long> sentIds = new ArrayList<>();
+        List<NotificationOutbox> unsent = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (Map.Entry<String, List<NotificationOutbox>> entry : byRecipient.entrySet()) {
+            List<NotificationOutbox> rows = entry.getValue();
+
+            if (!sendRateLimiter.tryAcquire(RATE_KEY)) {
+                // Out of budget for this minute - hand the rows back without counting an attempt
+                rows.forEach(row -> {
+                    row.setStatus(OutboxStatus.PENDING);
+                    row.setNextAttemptAt(now);
+                });
+                unsent.addAll(rows);
+                continue;
+            }
+
+            try {
+                mailSender.send(buildDigest(entry.getKey(), rows, messages));
+                for (NotificationOutbox row : rows) {
+                    sentIds.add(row.getId());
+                    deliveryLag.record(Duration.between(row.getCreatedAt(), LocalDateTime.now()));
+                }
+            } catch (Exception e) {
+                log.warn("Failed to notify {} about {} inquiries: {}", entry.getKey(), rows.size(), e.getMessage());
+                rows.forEach(row -> scheduleRetry(row, e, now));
+                unsent.addAll(rows);
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sentIds.isEmpty()) {
+                outboxRepository.markSent(sentIds, LocalDateTime.now());
+            }
+            outboxRepository.saveAll(unsent);
+        });
+
+        sentCounter.increment(sentIds.size());
+        log.info("Dispatched {} inquiry notifications to {} recipients", sentIds.size(), byRecipient.size());
+        return sentIds.size();
+    }
+
+    private List<NotificationOutbox> claimDue() {
+        LocalDateTime now = LocalDateTime.now();
+        List<NotificationOutbox> due = outboxRepository.findDueForUpdate(
+                OPEN_STATUSES, now, PageRequest.of(0, properties.getBatchSize()));
+
+        // Leased rather than locked across the send, so no connection is held during SMTP
+        LocalDateTime leaseExpiry = now.plusSeconds(properties.getClaimLeaseSeconds());
+        due.forEach(row -> {
+            row.setStatus(OutboxStatus.SENDING);
+            row.setNextAttemptAt(leaseExpiry);
+        });
+        return due;
+    }
+
+    private void scheduleRetry(NotificationOutbox row, Exception error, LocalDateTime now) {
+        int attempts = row.getAttempts() + 1;
+        row.setAttempts(attempts);
+        row.setLastError(truncate(error.getMessage(), MAX_ERROR_LENGTH));
+
+        if (attempts >= properties.getMaxAttempts()) {
+            row.setStatus(OutboxStatus.FAILED);
+            failedCounter.increment();
+            log.error("Giving up on notification {} to {} after {} attempts",
+                    row.getId(), row.getRecipientEmail(), attempts);
+            return;
+        }
+
+        long backoff = properties.getInitialBackoffSeconds() << Math.min(attempts - 1, 20);
+        row.setStatus(OutboxStatus.PENDING);
+        row.setNextAttemptAt(now.plusSeconds(Math.min(backoff, properties.getMaxBackoffSeconds())));
+    }
+
+    private SimpleMailMessage buildDigest(String recipient, List<NotificationOutbox> rows,
+                                          Map<Long, ContactMessage> messages) {
+        List<ContactMessage> inquiries = rows.stream()
+                .map(row -> messages.get(row.getContactMessage().getId()))
+                .filter(Objects::nonNull)
+                .toList();
+
+        SimpleMailMessage mail = new SimpleMailMessage();
+        mail.setFrom(properties.getFrom());
+        mail.setTo(recipient);
+
+        if (inquiries.size() == 1) {
+            mail.setSubject("[Q Apartment] New inquiry from " + inquiries.get(0).getFullName());
+        } else {
+            mail.setSubject("[Q Apartment] " + inquiries.size() + " new inquiries");
+        }
+
+        StringBuilder body = new StringBuilder();
+        for (ContactMessage inquiry : inquiries) {
+            body.append("From: ").append(inquiry.getFullName());
+            if (inquiry.getEmail() != null) {
+                body.append(" <").append(inquiry.getEmail()).append(">");
+            }
+            if (inquiry.getPhone() != null) {
+                body.append(" / ").append(inquiry.getPhone());
+            }
+            body.append("\nProperty: ")
+                    .append(inquiry.getProperty() != null ? inquiry.getProperty().getCode() : "General Inquiry");
+            if (inquiry.getSubject() != null) {
+                body.append("\nSubject: ").append(inquiry.getSubject());
+            }
+            body.append("\nReceived: ").append(inquiry.getCreatedAt())
+                    .append("\n\n").append(truncate(inquiry.getMessage(), MESSAGE_PREVIEW_LENGTH))
+                    .append("\n\n----------------------------------------\n\n");
+        }
+        mail.setText(body.toString());
+        return mail;
+    }
+
+    private void refreshBacklogGauges() {
+        try {
+            openCount.set(outboxRepository.countByStatusIn(OPEN_STATUSES));
+            LocalDateTime oldest = outboxRepository.findOldestCreatedAt(OPEN_STATUSES);
+            oldestOpenAgeSeconds.set(oldest != null ? Duration.between(oldest, LocalDateTime.now()).toSeconds() : 0);
+        } catch (Exception e) {
+            log.warn("Could not refresh outbox gauges: {}", e.getMessage());
+        }
+    }
+
+    private static String truncate(String text, int maxLength) {
+        if (text == null || text.length() <= maxLength) {
+            return text;
+        }
+        return text.substring(0, maxLength) + "...";
+    }
+}
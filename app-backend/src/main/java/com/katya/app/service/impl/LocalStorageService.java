@@ -0,0 +1,238 @@
+package com.katya.app.service.impl;
+
+import com.katya.app.config.FileUploadConfig;
+import com.katya.app.exception.FileUploadException;
+import com.katya.app.service.StorageService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Stores files on the local filesystem in the folder they were uploaded to, under the
+ * SHA-256 of their content, sharded two levels deep (folder/ab/cd/abcd....jpg) so no
+ * directory grows without bound. Content is streamed into a temp file while it is hashed,
+ * then moved into place atomically, so readers never see a partial file. Identical content
+ * is stored once per folder.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.upload", name = "provider", havingValue = "local")
+public class LocalStorageService implements StorageService {
+
+    private static final Map<String, String> EXTENSIONS = Map.of(
+            "image/jpeg", ".jpg",
+            "image/jpg", ".jpg",
+            "image/png", ".png",
+            "image/gif", ".gif",
+            "image/webp", ".webp",
+            "application/pdf", ".pdf");
+
+    // folder/ab/cd/<sha-256><extension>; anything else under the root was not written here
+    private static final Pattern STORED_KEY = Pattern.compile("(?:.+/)?[0-9a-f]{2}/[0-9a-f]{2}/[0-9a-f]{64}[^/]*");
+
+    private final FileUploadConfig fileUploadConfig;
+
+    private Path root;
+    private Path tempDir;
+    private String baseUrl;
+
+    @PostConstruct
+    public void init() throws IOException {
+        root = Path.of(fileUploadConfig.getPath()).toAbsolutePath().normalize();
+        // Inside the root so the final move never crosses filesystems
+        tempDir = root.resolve(".tmp");
+        Files.createDirectories(tempDir);
+        baseUrl = fileUploadConfig.getBaseUrl().endsWith("/") ? fileUploadConfig.getBaseUrl() : fileUploadConfig.getBaseUrl() + "/";
+        log.info("Storing uploads locally in {}", root);
+    }
+
+    @Override
+    public StoredObject store(MultipartFile file, String folder) {
+        try (InputStream source = file.getInputStream()) {
+            return write(source, extensionOf(file.getContentType()), folder);
+        } catch (IOException e) {
+            log.error("Failed to store file locally: {}", e.getMessage(), e);
+            throw new FileUploadException("Failed to store file: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public StoredObject store(byte[] content, String contentType, String folder) {
+        try {
+            return write(new ByteArrayInputStream(content), extensionOf(contentType), folder);
+        } catch (IOException e) {
+            log.error("Failed to store file locally: {}", e.getMessage(), e);
+            throw new FileUploadException("Failed to store file: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean delete(String keyOrUrl) {
+        Path target = resolve(keyOrUrl);
+        if (target == null) {
+            log.warn("Refusing to delete outside the storage root: {}", keyOrUrl);
+            return false;
+        }
+        try {
+            return Files.deleteIfExists(target);
+        } catch (IOException e) {
+            log.error("Failed to delete local file {}: {}", target, e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public boolean exists(String keyOrUrl) {
+        Path target = resolve(keyOrUrl);
+        return target != null && Files.isRegularFile(target);
+    }
+
+    @Override
+    public Set<String> deleteAll(Collection<String> keys) {
+        Set<String> failed = new LinkedHashSet<>();
+        for (String key : keys) {
+            Path target = resolve(key);
+            try {
+                if (target != null) {
+                    Files.deleteIfExists(target);
+                }
+            } catch (IOException e) {
+                log.warn("Failed to delete local file {}: {}", target, e.getMessage());
+                failed.add(key);
+            }
+        }
+        return failed;
+    }
+
+    // Files under the prefix folder in key order, so the cursor is simply the last key returned.
+    // Directories before the cursor are skipped unopened and the walk stops at the limit
+    @Override
+    public Page list(String prefix, String cursor, int limit) {
+        Path base = prefix == null || prefix.isBlank() ? root : resolve(prefix);
+        if (base == null || !Files.isDirectory(base)) {
+            return new Page(List.of(), null);
+        }
+        List<ListedObject> objects = new ArrayList<>();
+        try {
+            collect(base, cursor, limit, objects);
+        } catch (IOException | UncheckedIOException e) {
+            throw new FileUploadException("Failed to list stored files: " + e.getMessage());
+        }
+        String nextCursor = objects.size() == limit ? objects.get(objects.size() - 1).key() : null;
+        return new Page(objects, nextCursor);
+    }
+
+    @Override
+    public String keyOf(String keyOrUrl) {
+        return keyOrUrl.startsWith(baseUrl) ? keyOrUrl.substring(baseUrl.length()) : keyOrUrl;
+    }
+
+    // Helper methods
+    private StoredObject write(InputStream source, String extension, String folder) throws IOException {
+        String directory = folderPrefix(folder);
+        MessageDigest digest = sha256();
+        Path temp = Files.createTempFile(tempDir, "upload-", ".tmp");
+        try {
+            long size;
+            try (InputStream in = new DigestInputStream(source, digest);
+                 OutputStream out = Files.newOutputStream(temp)) {
+                size = in.transferTo(out);
+            }
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            String key = directory + hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash + extension;
+            Path target = root.resolve(key);
+            if (Files.exists(target)) {
+                // Fresh mtime, so orphan reconciliation treats the reused file as a new upload
+                Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+                log.debug("Content already stored as {}", key);
+                return new StoredObject(key, baseUrl + key, size, true);
+            }
+
+            Files.createDirectories(target.getParent());
+            // A concurrent writer of the same content may win the race; its file is identical
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            log.info("File stored locally: {}", key);
+            return new StoredObject(key, baseUrl + key, size, false);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // Null for keys that would escape the storage root or reach the temp directory
+    private Path resolve(String keyOrUrl) {
+        Path target = root.resolve(keyOf(keyOrUrl)).normalize();
+        return target.startsWith(root) && !target.startsWith(tempDir) ? target : null;
+    }
+
+    // Depth first in key order: a directory sorts as its key plus '/', exactly where its files fall
+    private void collect(Path directory, String cursor, int limit, List<ListedObject> objects) throws IOException {
+        TreeMap<String, Path> children = new TreeMap<>();
+        try (Stream<Path> listing = Files.list(directory)) {
+            listing.filter(child -> !child.equals(tempDir))
+                    .forEach(child -> children.put(relativeKey(child) + (Files.isDirectory(child) ? "/" : ""), child));
+        }
+        for (Map.Entry<String, Path> child : children.entrySet()) {
+            if (objects.size() == limit) {
+                return;
+            }
+            String key = child.getKey();
+            if (key.endsWith("/")) {
+                if (cursor == null || key.compareTo(cursor) > 0 || cursor.startsWith(key)) {
+                    collect(child.getValue(), cursor, limit, objects);
+                }
+            } else if ((cursor == null || key.compareTo(cursor) > 0) && STORED_KEY.matcher(key).matches()
+                    && Files.isRegularFile(child.getValue())) {
+                objects.add(new ListedObject(key, Files.getLastModifiedTime(child.getValue()).toInstant()));
+            }
+        }
+    }
+
+    // "a/b/" for folder "a/b", empty for none
+    private String folderPrefix(String folder) {
+        if (folder == null || folder.isBlank()) {
+            return "";
+        }
+        Path directory = root.resolve(folder.replaceAll("^/+", "")).normalize();
+        if (!directory.startsWith(root) || directory.startsWith(tempDir)) {
+            throw new FileUploadException("Invalid storage folder: " + folder);
+        }
+        return directory.equals(root) ? "" : relativeKey(directory) + "/";
+    }
+
+    private String relativeKey(Path file) {
+        return root.relativize(file).toString().replace(File.separatorChar, '/');
+    }
+
+    private static String extensionOf(String contentType) {
+        return contentType != null ? EXTENSIONS.getOrDefault(contentType.toLowerCase(), "") : "";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
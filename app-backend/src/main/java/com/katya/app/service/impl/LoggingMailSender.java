@@ -0,0 +1,27 @@
+package com.katya.app.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSender;
+import org.springframework.mail.SimpleMailMessage;
+
+/**
+ * Fallback used when no SMTP host is configured (spring.mail.host): mail is written
+ * to the log instead of being sent, so local runs keep the outbox draining.
+ */
+@Slf4j
+public class LoggingMailSender implements MailSender {
+
+    @Override
+    public void send(SimpleMailMessage simpleMessage) throws MailException {
+        log.info("Mail to {} - {}\n{}", String.join(", ", simpleMessage.getTo()),
+                simpleMessage.getSubject(), simpleMessage.getText());
+    }
+
+    @Override
+    public void send(SimpleMailMessage... simpleMessages) throws MailException {
+        for (SimpleMailMessage message : simpleMessages) {
+            send(message);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.katya.app.service.impl;
+
+import com.katya.app.config.AssetReconcileProperties;
+import com.katya.app.config.CloudinaryConfig;
+import com.katya.app.model.embeddable.ImageVariant;
+import com.katya.app.model.entity.SiteSetting;
+import com.katya.app.repository.ImageAssetRepository;
+import com.katya.app.repository.PropertyImageRepository;
+import com.katya.app.repository.SiteSettingRepository;
+import com.katya.app.service.StorageService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Deletes stored files that no image row or hero setting points at, such as uploads whose
+ * transaction failed afterwards or deletes that failed. Only the folders those files are
+ * written to are scanned: generic uploads have no row to be matched against. Storage is
+ * paged through and diffed against a snapshot of the referenced keys taken first; only
+ * files older than the minimum age are considered, so uploads still being saved are never
+ * touched.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrphanAssetReconcileJob {
+
+    private static final String HERO_IMAGE_KEY = "hero_image_url";
+
+    private final AssetReconcileProperties properties;
+    private final CloudinaryConfig cloudinaryConfig;
+    private final StorageService storageService;
+    private final PropertyImageRepository propertyImageRepository;
+    private final ImageAssetRepository imageAssetRepository;
+    private final SiteSettingRepository siteSettingRepository;
+
+    @Scheduled(cron = "${app.assets.reconcile.cron:0 30 3 * * *}")
+    public void reconcileOnSchedule() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            int deleted = reconcile();
+            if (deleted > 0) {
+                log.info("Deleted {} orphaned image files", deleted);
+            }
+        } catch (Exception e) {
+            log.error("Orphaned image reconciliation failed: {}", e.getMessage(), e);
+        }
+    }
+
+    // Returns the number of files deleted
+    public int reconcile() {
+        Set<String> referenced = loadReferencedKeys();
+        Instant cutoff = Instant.now().minus(Duration.ofHours(properties.getMinAgeHours()));
+        int batchSize = Math.max(1, properties.getDeleteBatchSize());
+
+        int deleted = 0;
+        for (String prefix : prefixes()) {
+            List<String> orphans = new ArrayList<>();
+            String cursor = null;
+            do {
+                StorageService.Page page = storageService.list(prefix, cursor, properties.getPageSize());
+                for (StorageService.ListedObject object : page.objects()) {
+                    if (object.createdAt().isBefore(cutoff) && !referenced.contains(object.key())) {
+                        orphans.add(object.key());
+                    }
+                }
+                while (orphans.size() >= batchSize) {
+                    List<String> batch = orphans.subList(0, batchSize);
+                    deleted += deleteWithRetry(List.copyOf(batch));
+                    batch.clear();
+                }
+                cursor = page.nextCursor();
+            } while (cursor != null);
+
+            if (!orphans.isEmpty()) {
+                deleted += deleteWithRetry(orphans);
+            }
+        }
+        return deleted;
+    }
+
+    // Helper methods
+    private Set<String> loadReferencedKeys() {
+        Set<String> keys = new HashSet<>();
+        propertyImageRepository.findAllFilePaths().forEach(url -> keys.add(storageService.keyOf(url)));
+        for (List<ImageVariant> variants : propertyImageRepository.findAllVariants()) {
+            variants.forEach(variant -> keys.add(storageService.keyOf(variant.getUrl())));
+        }
+        imageAssetRepository.findAllUrls().forEach(url -> keys.add(storageService.keyOf(url)));
+
+        siteSettingRepository.findByKey(HERO_IMAGE_KEY)
+                .map(SiteSetting::getValue)
+                .filter(value -> !value.isBlank())
+                .ifPresent(url -> keys.add(storageService.keyOf(url)));
+        siteSettingRepository.findTranslatedValues(HERO_IMAGE_KEY).stream()
+                .filter(value -> value != null && !value.isBlank())
+                .forEach(url -> keys.add(storageService.keyOf(url)));
+        return keys;
+    }
+
+    private List<String> prefixes() {
+        List<String> prefixes = new ArrayList<>();
+        prefixes.add(cloudinaryConfig.propertyImageFolder() + "/");
+        // Variants written before property images had their own folder; originals there sit among generic uploads
+        prefixes.add(cloudinaryConfig.getFolder() + "/image/variants/");
+        properties.getExtraPrefixes().forEach(prefix -> prefixes.add(prefix.endsWith("/") ? prefix : prefix + "/"));
+        return prefixes;
+    }
+
+    private int deleteWithRetry(List<String> keys) {
+        List<String> pending = keys;
+        long backoffMs = properties.getInitialBackoffMs();
+        for (int attempt = 1; ; attempt++) {
+            Set<String> failed = storageService.deleteAll(pending);
+            if (failed.isEmpty()) {
+                return keys.size();
+            }
+            if (attempt >= properties.getMaxAttempts()) {
+                log.warn("Could not delete {} orphaned image files, leaving them for the next run", failed.size());
+                return keys.size() - failed.size();
+            }
+            log.debug("Retrying {} failed deletes in {} ms", failed.size(), backoffMs);
+            try {
+                Thread.sleep(backoffMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return keys.size() - failed.size();
+            }
+            backoffMs *= 2;
+            pending = List.copyOf(failed);
+        }
+    }
+}
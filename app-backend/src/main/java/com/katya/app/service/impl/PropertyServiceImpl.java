@@ -7,6 +7,7 @@ import com.katya.app.dto.request.PropertyTranslationRequest;
 import com.katya.app.dto.request.PropertyUpdateRequest;
 import com.katya.app.dto.response.PropertyDetailResponse;
 import com.katya.app.dto.response.PropertySummaryResponse;
+import com.katya.app.dto.response.PropertyViewStatsResponse;
 import com.katya.app.exception.DuplicateResourceException;
 import com.katya.app.exception.ResourceNotFoundException;
 import com.katya.app.exception.ValidationException;
@@ -14,12 +15,16 @@ import com.katya.app.model.embeddable.PropertyAmenityId;
 import com.katya.app.model.entity.*;
 import com.katya.app.model.embeddable.PropertyI18nId;
 import com.katya.app.repository.*;
+import com.katya.app.service.ImageAssetService;
 import com.katya.app.service.PropertyService;
+import com.katya.app.service.PropertyViewService;
+import com.katya.app.service.StatCounterService;
 import com.katya.app.util.DtoUtils;
 import com.katya.app.util.constant.BusinessConstants;
 import com.katya.app.util.enums.Locale;
 import com.katya.app.util.enums.PropertyStatus;
 import com.katya.app.util.enums.PropertyType;
+import com.katya.app.util.enums.StatCounterKey;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -42,6 +47,9 @@ public class PropertyServiceImpl implements PropertyService {
     private final AppUserRepository userRepository;
     private final PropertyMapper propertyMapper;
     private final PropertyImageRepository propertyImageRepository;
+    private final StatCounterService statCounterService;
+    private final PropertyViewService propertyViewService;
+    private final ImageAssetService imageAssetService;
 
     @Override
     @Transactional(readOnly = true)
@@ -53,8 +61,7 @@ public class PropertyServiceImpl implements PropertyService {
                 ? propertyRepository.findPublishedPropertiesByType(type, pageable)
                 : propertyRepository.findPublishedProperties(pageable);
 
-        Locale finalLocale = locale;
-        return properties.map(property -> propertyMapper.toSummaryResponse(property, finalLocale));
+        return toSummaryPage(properties, locale);
     }
 
     @Override
@@ -106,8 +113,7 @@ public class PropertyServiceImpl implements PropertyService {
             );
         }
 
-        Locale finalLocale = locale;
-        return properties.map(property -> propertyMapper.toSummaryResponse(property, finalLocale));
+        return toSummaryPage(properties, locale);
     }
 
     @Override
@@ -116,9 +122,9 @@ public class PropertyServiceImpl implements PropertyService {
         locale = DtoUtils.parseLocale(locale.getCode(), Locale.VI);
 
         List<Property> properties = propertyRepository.findFeaturedProperties();
-        Locale finalLocale = locale;
+        Map<Long, PropertySummaryResponse> cards = loadSummaryCards(properties, locale);
         return properties.stream()
-                .map(property -> propertyMapper.toSummaryResponse(property, finalLocale))
+                .map(property -> cards.get(property.getId()))
                 .collect(Collectors.toList());
     }
 
@@ -133,7 +139,7 @@ public class PropertyServiceImpl implements PropertyService {
                 pageable
         );
 
-        return properties.map(property -> propertyMapper.toSummaryResponse(property, Locale.VI));
+        return toSummaryPage(properties, Locale.VI);
     }
 
     @Override
@@ -142,7 +148,11 @@ public class PropertyServiceImpl implements PropertyService {
         Property property = propertyRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Property", "id", id));
 
-        return propertyMapper.toDetailResponse(property, Locale.VI);
+        PropertyDetailResponse response = propertyMapper.toDetailResponse(property, Locale.VI);
+        PropertyViewStatsResponse views = propertyViewService.getViewStats(id);
+        response.setViewCount(views.getViewCount());
+        response.setUniqueVisitors(views.getUniqueVisitors());
+        return response;
     }
 
     @Override
@@ -150,6 +160,8 @@ public class PropertyServiceImpl implements PropertyService {
     public PropertyDetailResponse createProperty(PropertyCreateRequest request, Long userId) {
         log.info("Creating property with slug: {}", request.getSlug());
 
+        checkSlugNotReserved(request.getSlug());
+
         // Validate slug uniqueness
         if (propertyRepository.existsBySlug(request.getSlug())) {
             throw new DuplicateResourceException("Property", "slug", request.getSlug());
@@ -170,13 +182,14 @@ public class PropertyServiceImpl implements PropertyService {
 
         // Save property first
         property = propertyRepository.save(property);
+        statCounterService.increment(statCounterService.keysFor(property), 1);
 
         // Save translations
         savePropertyTranslations(property, request.getTranslations());
 
         // Save amenities if provided
         if (request.getAmenityIds() != null && !request.getAmenityIds().isEmpty()) {
-            savePropertyAmenities(property, request.getAmenityIds());
+            adjustAmenityCount(property, savePropertyAmenities(property, request.getAmenityIds()));
         }
 
         log.info("Property created successfully with ID: {}", property.getId());
@@ -193,6 +206,7 @@ public class PropertyServiceImpl implements PropertyService {
 
         // Validate slug uniqueness if changed
         if (request.getSlug() != null && !request.getSlug().equals(property.getSlug())) {
+            checkSlugNotReserved(request.getSlug());
             if (propertyRepository.existsBySlugAndIdNot(request.getSlug(), id)) {
                 throw new DuplicateResourceException("Property", "slug", request.getSlug());
             }
@@ -203,6 +217,7 @@ public class PropertyServiceImpl implements PropertyService {
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
 
         // Update property entity
+        List<StatCounterKey> counterKeysBefore = statCounterService.keysFor(property);
         propertyMapper.updateEntity(property, request);
         property.setUpdatedBy(user);
 
@@ -212,6 +227,7 @@ public class PropertyServiceImpl implements PropertyService {
 
         // Save property
         property = propertyRepository.save(property);
+        statCounterService.move(counterKeysBefore, statCounterService.keysFor(property));
 
         // Update translations if provided
         if (request.getTranslations() != null) {
@@ -220,10 +236,9 @@ public class PropertyServiceImpl implements PropertyService {
 
         // Update amenities if provided
         if (request.getAmenityIds() != null) {
-            propertyAmenityRepository.deleteByPropertyId(property.getId());
-            if (!request.getAmenityIds().isEmpty()) {
-                savePropertyAmenities(property, request.getAmenityIds());
-            }
+            long removed = propertyAmenityRepository.deleteByPropertyId(property.getId());
+            int added = request.getAmenityIds().isEmpty() ? 0 : savePropertyAmenities(property, request.getAmenityIds());
+            adjustAmenityCount(property, added - (int) removed);
         }
 
         log.info("Property updated successfully: {}", id);
@@ -239,8 +254,10 @@ public class PropertyServiceImpl implements PropertyService {
                 .orElseThrow(() -> new ResourceNotFoundException("Property", "id", id));
 
         // Soft delete by changing status
+        List<StatCounterKey> counterKeysBefore = statCounterService.keysFor(property);
         property.setStatus(PropertyStatus.HIDDEN);
         propertyRepository.save(property);
+        statCounterService.move(counterKeysBefore, statCounterService.keysFor(property));
 
         log.info("Property soft deleted: {}", id);
     }
@@ -248,11 +265,29 @@ public class PropertyServiceImpl implements PropertyService {
     @Override
     @Transactional(readOnly = true)
     public boolean isSlugAvailable(String slug, Long excludeId) {
+        if (isReservedSlug(slug)) {
+            return false;
+        }
         return excludeId != null
                 ? !propertyRepository.existsBySlugAndIdNot(slug, excludeId)
                 : !propertyRepository.existsBySlug(slug);
     }
 
+    @Override
+    @Transactional
+    public int backfillCardFields() {
+        List<PropertyI18n> translations = propertyI18nRepository.findMissingShortDescription();
+        translations.forEach(PropertyI18n::refreshShortDescription);
+        propertyI18nRepository.saveAll(translations);
+
+        int covers = propertyRepository.refreshMissingCoverImages();
+        if (!translations.isEmpty() || covers > 0) {
+            log.info("Backfilled short description for {} translations and cover image for {} properties",
+                    translations.size(), covers);
+        }
+        return translations.size() + covers;
+    }
+
     // Helper methods
     private void validatePropertyRequest(PropertyCreateRequest request) {
         Map<String, String> errors = new HashMap<>();
@@ -281,6 +316,25 @@ public class PropertyServiceImpl implements PropertyService {
         }
     }
 
+    private Page<PropertySummaryResponse> toSummaryPage(Page<Property> properties, Locale locale) {
+        Map<Long, PropertySummaryResponse> cards = loadSummaryCards(properties.getContent(), locale);
+        return properties.map(property -> cards.get(property.getId()));
+    }
+
+    // One query for the whole page instead of lazy-loading translations and images per property
+    private Map<Long, PropertySummaryResponse> loadSummaryCards(List<Property> properties, Locale locale) {
+        if (properties.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> ids = properties.stream().map(Property::getId).toList();
+        Map<Long, PropertySummaryResponse> cards = new HashMap<>();
+        for (Object[] row : propertyRepository.findSummaryRowsByIdIn(ids, locale)) {
+            PropertySummaryResponse card = propertyMapper.toSummaryResponse(row);
+            cards.put(card.getId(), card);
+        }
+        return cards;
+    }
+
     private void savePropertyTranslations(Property property, Map<String, PropertyTranslationRequest> translations) {
         // Delete existing translations
         propertyI18nRepository.deleteByPropertyId(property.getId());
@@ -306,8 +360,10 @@ public class PropertyServiceImpl implements PropertyService {
         }
     }
 
-    private void savePropertyAmenities(Property property, List<Short> amenityIds) {
-        for (Short amenityId : amenityIds) {
+    // Returns how many amenities were linked; repeated ids are linked once
+    private int savePropertyAmenities(Property property, List<Short> amenityIds) {
+        int saved = 0;
+        for (Short amenityId : new LinkedHashSet<>(amenityIds)) {
             if (amenityRepository.existsById(amenityId)) {
                 PropertyAmenity propertyAmenity = PropertyAmenity.builder()
                         .id(new PropertyAmenityId(property.getId(), amenityId))
@@ -316,8 +372,19 @@ public class PropertyServiceImpl implements PropertyService {
                         .build();
 
                 propertyAmenityRepository.save(propertyAmenity);
+                saved++;
             }
         }
+        return saved;
+    }
+
+    // The column is only written by the relative update; the entity is kept in step for the response
+    private void adjustAmenityCount(Property property, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        propertyRepository.adjustAmenityCount(property.getId(), delta);
+        property.setAmenityCount(property.getAmenityCount() + delta);
     }
 
     private boolean hasOnlyQuery(PropertySearchRequest request) {
@@ -354,6 +421,7 @@ public class PropertyServiceImpl implements PropertyService {
 
         Property duplicatedProperty = createDuplicateProperty(sourceProperty, newCode, newSlug, user);
         duplicatedProperty = propertyRepository.save(duplicatedProperty);
+        statCounterService.increment(statCounterService.keysFor(duplicatedProperty), 1);
 
         copyPropertyData(sourceProperty, duplicatedProperty);
         copyPropertyImages(sourceProperty, duplicatedProperty); // NEW: Copy images
@@ -393,6 +461,7 @@ public class PropertyServiceImpl implements PropertyService {
 
                 Property duplicatedProperty = createDuplicateProperty(sourceProperty, newCode, newSlug, user);
                 duplicatedProperty = propertyRepository.save(duplicatedProperty);
+                statCounterService.increment(statCounterService.keysFor(duplicatedProperty), 1);
 
                 copyPropertyData(sourceProperty, duplicatedProperty);
                 copyPropertyImages(sourceProperty, duplicatedProperty); // NEW: Copy images for batch too
@@ -410,7 +479,10 @@ public class PropertyServiceImpl implements PropertyService {
         return results;
     }
 
+    // Copies share the source's stored files: one reference increment, nothing re-uploaded
     private void copyPropertyImages(Property source, Property target) {
+        List<String> urls = new ArrayList<>();
+        int copied = 0;
         for (PropertyImage sourceImage : source.getImages()) {
             try {
                 // Create new PropertyImage entity (without copying actual file)
@@ -421,9 +493,12 @@ public class PropertyServiceImpl implements PropertyService {
                         .fileSize(sourceImage.getFileSize())
                         .sortOrder(sourceImage.getSortOrder())
                         .isCover(sourceImage.getIsCover())
+                        .variants(sourceImage.getVariants())
                         .build();
 
                 propertyImageRepository.save(newImage);
+                urls.addAll(imageAssetService.urlsOf(newImage.getFilePath(), newImage.getVariants()));
+                copied++;
 
                 log.info("Copied image {} to property {}", sourceImage.getId(), target.getId());
 
@@ -432,13 +507,29 @@ public class PropertyServiceImpl implements PropertyService {
                         sourceImage.getId(), target.getId(), e.getMessage());
             }
         }
+        imageAssetService.acquire(urls);
+        propertyRepository.refreshCoverImage(target.getId());
+        if (copied > 0) {
+            propertyRepository.adjustImageCount(target.getId(), copied);
+            target.setImageCount(target.getImageCount() + copied);
+        }
+    }
+
+
+    private void checkSlugNotReserved(String slug) {
+        if (isReservedSlug(slug)) {
+            throw new ValidationException("Slug is reserved: " + DtoUtils.sanitizeSlug(slug));
+        }
     }
 
+    private static boolean isReservedSlug(String slug) {
+        return slug != null && BusinessConstants.RESERVED_PROPERTY_SLUGS.contains(DtoUtils.sanitizeSlug(slug));
+    }
 
     private String generateUniqueSlug(String code) {
         String baseSlug = DtoUtils.sanitizeSlug(code.toLowerCase());
 
-        if (!propertyRepository.existsBySlug(baseSlug)) {
+        if (!isReservedSlug(baseSlug) && !propertyRepository.existsBySlug(baseSlug)) {
             return baseSlug;
         }
 
@@ -511,6 +602,7 @@ public class PropertyServiceImpl implements PropertyService {
     }
 
     private void copyPropertyAmenities(Property source, Property target) {
+        int copied = 0;
         for (PropertyAmenity sourceAmenity : source.getAmenities()) {
             PropertyAmenity newAmenity = PropertyAmenity.builder()
                     .id(new PropertyAmenityId(target.getId(), sourceAmenity.getId().getAmenityId()))
@@ -519,6 +611,8 @@ public class PropertyServiceImpl implements PropertyService {
                     .build();
 
             propertyAmenityRepository.save(newAmenity);
+            copied++;
         }
+        adjustAmenityCount(target, copied);
     }
 }
\ No newline at end of file
@@ -0,0 +1,180 @@
+package com.katya.app.service.impl;
+
+import com.katya.app.config.ViewTrackingProperties;
+import com.katya.app.dto.response.PropertyViewStatsResponse;
+import com.katya.app.model.entity.PropertyViewStat;
+import com.katya.app.repository.PropertyViewStatRepository;
+import com.katya.app.service.PropertyViewService;
+import com.katya.app.service.TrendingService;
+import com.katya.app.util.sketch.HyperLogLog;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Counts property detail views in memory and periodically merges them into
+ * property_view_stat. Views go to a LongAdder per property; unique visitors go to a
+ * HyperLogLog per property that is merged with the stored sketch on flush. The request
+ * path never touches the database.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PropertyViewServiceImpl implements PropertyViewService {
+
+    private final ViewTrackingProperties properties;
+    private final PropertyViewStatRepository viewStatRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TrendingService trendingService;
+
+    private final ConcurrentHashMap<Long, ViewCounter> viewCounters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, HyperLogLog> pendingVisitors = new ConcurrentHashMap<>();
+
+    // Not synchronized: the flush holds it across database I/O, which would pin a virtual thread
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    @Override
+    public void recordView(Long propertyId, String visitorKey) {
+        if (!properties.isEnabled() || propertyId == null) {
+            return;
+        }
+        viewCounters.computeIfAbsent(propertyId, id -> new ViewCounter()).views.increment();
+        if (visitorKey != null) {
+            pendingVisitors.compute(propertyId, (id, sketch) -> {
+                HyperLogLog target = sketch != null ? sketch : new HyperLogLog();
+                target.add(visitorKey);
+                return target;
+            });
+        }
+        trendingService.recordView(propertyId);
+    }
+
+    @Override
+    public PropertyViewStatsResponse getViewStats(Long propertyId) {
+        PropertyViewStat stat = viewStatRepository.findById(propertyId).orElse(null);
+        return PropertyViewStatsResponse.builder()
+                .propertyId(propertyId)
+                .viewCount((stat != null ? stat.getViewCount() : 0L) + unflushedViews(propertyId))
+                .uniqueVisitors(stat != null ? stat.getUniqueVisitors() : 0L)
+                .build();
+    }
+
+    @Override
+    public List<PropertyViewStatsResponse> getTopViewed(int limit) {
+        return viewStatRepository.findTopViewed(PageRequest.of(0, limit));
+    }
+
+    @Override
+    public long getTotalViews() {
+        long unflushed = 0;
+        for (Long propertyId : viewCounters.keySet()) {
+            unflushed += unflushedViews(propertyId);
+        }
+        return viewStatRepository.sumViewCount() + unflushed;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.views.flush-interval-ms:60000}",
+            initialDelayString = "${app.views.flush-interval-ms:60000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // Helper methods
+    private void flushPending() {
+        Map<Long, Long> viewDeltas = new HashMap<>();
+        for (Map.Entry<Long, ViewCounter> entry : viewCounters.entrySet()) {
+            long delta = entry.getValue().views.sum() - entry.getValue().flushed;
+            if (delta > 0) {
+                viewDeltas.put(entry.getKey(), delta);
+            }
+        }
+
+        // Take ownership of the pending sketches; views arriving meanwhile start fresh ones
+        Map<Long, HyperLogLog> visitorSketches = new HashMap<>();
+        for (Long propertyId : new ArrayList<>(pendingVisitors.keySet())) {
+            HyperLogLog sketch = pendingVisitors.remove(propertyId);
+            if (sketch != null) {
+                visitorSketches.put(propertyId, sketch);
+            }
+        }
+
+        if (viewDeltas.isEmpty() && visitorSketches.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> persist(viewDeltas, visitorSketches));
+            viewDeltas.forEach((propertyId, delta) -> viewCounters.get(propertyId).flushed += delta);
+            log.debug("Flushed views for {} properties", viewDeltas.size());
+        } catch (Exception e) {
+            log.error("Failed to flush property views, keeping them for the next run: {}", e.getMessage());
+            visitorSketches.forEach((propertyId, sketch) ->
+                    pendingVisitors.merge(propertyId, sketch, HyperLogLog::merge));
+        }
+    }
+
+    private void persist(Map<Long, Long> viewDeltas, Map<Long, HyperLogLog> visitorSketches) {
+        Set<Long> propertyIds = new HashSet<>(viewDeltas.keySet());
+        propertyIds.addAll(visitorSketches.keySet());
+
+        Map<Long, PropertyViewStat> stats = new HashMap<>();
+        for (PropertyViewStat stat : viewStatRepository.findAllByIdForUpdate(propertyIds)) {
+            stats.put(stat.getPropertyId(), stat);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<PropertyViewStat> created = new ArrayList<>();
+        for (Long propertyId : propertyIds) {
+            PropertyViewStat stat = stats.get(propertyId);
+            if (stat == null) {
+                stat = PropertyViewStat.builder().propertyId(propertyId).build();
+                created.add(stat);
+            }
+
+            stat.setViewCount(stat.getViewCount() + viewDeltas.getOrDefault(propertyId, 0L));
+
+            HyperLogLog pending = visitorSketches.get(propertyId);
+            if (pending != null) {
+                HyperLogLog merged = stat.getVisitorSketch() != null
+                        ? HyperLogLog.fromBytes(stat.getVisitorSketch()).merge(pending)
+                        : pending;
+                stat.setVisitorSketch(merged.toBytes());
+                stat.setUniqueVisitors(merged.estimate());
+            }
+            stat.setUpdatedAt(now);
+        }
+        viewStatRepository.saveAll(created);
+    }
+
+    private long unflushedViews(Long propertyId) {
+        ViewCounter counter = viewCounters.get(propertyId);
+        return counter != null ? counter.views.sum() - counter.flushed : 0L;
+    }
+
+    // Counters are never reset, only the flushed watermark moves, so no increment is lost to a reset race
+    private static class ViewCounter {
+        private final LongAdder views = new LongAdder();
+        private volatile long flushed;
+    }
+}
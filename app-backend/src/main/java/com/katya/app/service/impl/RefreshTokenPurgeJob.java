@@ -0,0 +1,41 @@
+package com.katya.app.service.impl;
+
+import com.katya.app.config.JwtProperties;
+import com.katya.app.service.AuthService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Deletes expired and long-revoked refresh tokens. Each chunk is its own short
+ * transaction, so a large backlog never holds locks on the table for long.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RefreshTokenPurgeJob {
+
+    private final AuthService authService;
+    private final JwtProperties properties;
+
+    @Scheduled(fixedDelayString = "${app.jwt.refresh-purge-interval-ms:3600000}",
+            initialDelayString = "${app.jwt.refresh-purge-interval-ms:3600000}")
+    public void purge() {
+        int total = 0;
+        try {
+            for (int chunk = 0; chunk < properties.getRefreshPurgeMaxChunks(); chunk++) {
+                int deleted = authService.purgeRefreshTokens(properties.getRefreshPurgeChunkSize());
+                total += deleted;
+                if (deleted < properties.getRefreshPurgeChunkSize()) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Refresh token purge failed: {}", e.getMessage(), e);
+        }
+        if (total > 0) {
+            log.info("Purged {} expired or revoked refresh tokens", total);
+        }
+    }
+}
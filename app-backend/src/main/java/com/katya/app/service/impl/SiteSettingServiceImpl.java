@@ -12,14 +12,16 @@ import com.katya.app.model.embeddable.SiteSettingI18nId;
 import com.katya.app.repository.AppUserRepository;
 import com.katya.app.repository.SiteSettingI18nRepository;
 import com.katya.app.repository.SiteSettingRepository;
-import com.katya.app.service.CloudinaryService;
+import com.katya.app.service.ImageAssetService;
 import com.katya.app.service.SiteSettingService;
+import com.katya.app.service.StorageService;
 import com.katya.app.util.DtoUtils;
 import com.katya.app.util.enums.Locale;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.time.LocalDateTime;
@@ -37,7 +39,9 @@ public class SiteSettingServiceImpl implements SiteSettingService {
     private final SiteSettingI18nRepository siteSettingI18nRepository;
     private final AppUserRepository userRepository;
     private final UserMapper userMapper;
-    private final CloudinaryService cloudinaryService;
+    private final StorageService storageService;
+    private final ImageAssetService imageAssetService;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
     @Transactional(readOnly = true)
@@ -181,41 +185,48 @@ public class SiteSettingServiceImpl implements SiteSettingService {
         log.info("Default site settings initialized");
     }
 
-    @Transactional
+    // Stores the file with no connection held, then records it in a short transaction
     @Override
     public String uploadHeroImage(MultipartFile file, Long userId) {
         log.info("Uploading hero image");
 
+        StorageService.StoredObject stored;
         try {
-            // Upload to Cloudinary
-            Map<String, Object> uploadResult = cloudinaryService.uploadImage(file, "hero");
-            String imageUrl = (String) uploadResult.get("secure_url");
-
-            // Update hero_image_url setting
-            AppUser user = userRepository.findById(userId)
-                    .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
-
-            SiteSetting setting = siteSettingRepository.findByKey("hero_image_url")
-                    .orElse(SiteSetting.builder()
-                            .key("hero_image_url")
-                            .build());
-
-            setting.setValue(imageUrl);
-            setting.setUpdatedAt(LocalDateTime.now());
-            setting.setUpdatedBy(user);
-
-            siteSettingRepository.save(setting);
-
-            log.info("Hero image uploaded successfully: {}", imageUrl);
-            return imageUrl;
-
+            stored = storageService.store(file, "hero");
         } catch (Exception e) {
             log.error("Failed to upload hero image: {}", e.getMessage(), e);
             throw new FileUploadException("Failed to upload hero image: " + e.getMessage());
         }
-    }
+        String imageUrl = stored.url();
 
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                AppUser user = userRepository.findById(userId)
+                        .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
+
+                SiteSetting setting = siteSettingRepository.findByKey("hero_image_url")
+                        .orElse(SiteSetting.builder()
+                                .key("hero_image_url")
+                                .build());
+
+                setting.setValue(imageUrl);
+                setting.setUpdatedAt(LocalDateTime.now());
+                setting.setUpdatedBy(user);
+
+                siteSettingRepository.save(setting);
+            });
+        } catch (RuntimeException e) {
+            // The setting still points at the previous image, so nothing uses a newly written file;
+            // reused content may be the current hero itself
+            if (!stored.deduplicated()) {
+                imageAssetService.discard(List.of(imageUrl));
+            }
+            throw e;
+        }
 
+        log.info("Hero image uploaded successfully: {}", imageUrl);
+        return imageUrl;
+    }
 
     private SiteSettingResponse buildSiteSettingResponse(SiteSetting setting, Locale locale) {
         Map<String, String> translations = new HashMap<>();
@@ -0,0 +1,47 @@
+package com.katya.app.service.impl;
+
+import com.katya.app.service.StatCounterService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recounts the dashboard counters and the per-property child counters from the source tables
+ * at startup (creating any missing rows, filling new columns) and on a schedule, correcting
+ * drift from writes that bypassed the services.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StatCounterReconcileJob {
+
+    private final StatCounterService statCounterService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        reconcile();
+    }
+
+    @Scheduled(cron = "${app.stats.reconcile-cron:0 0 * * * *}")
+    public void reconcile() {
+        try {
+            int drifted = statCounterService.reconcile();
+            if (drifted > 0) {
+                log.warn("Reconciled {} drifted dashboard counters", drifted);
+            }
+        } catch (Exception e) {
+            log.error("Dashboard counter reconciliation failed: {}", e.getMessage(), e);
+        }
+        try {
+            int drifted = statCounterService.reconcilePropertyCounters();
+            if (drifted > 0) {
+                log.warn("Reconciled counters of {} properties", drifted);
+            }
+        } catch (Exception e) {
+            log.error("Property counter reconciliation failed: {}", e.getMessage(), e);
+        }
+    }
+}
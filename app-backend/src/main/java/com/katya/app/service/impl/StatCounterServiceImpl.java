@@ -0,0 +1,198 @@
+package com.katya.app.service.impl;
+
+import com.katya.app.model.entity.AppUser;
+import com.katya.app.model.entity.Property;
+import com.katya.app.model.entity.StatCounter;
+import com.katya.app.repository.AppUserRepository;
+import com.katya.app.repository.ContactMessageRepository;
+import com.katya.app.repository.PropertyRepository;
+import com.katya.app.repository.StatCounterRepository;
+import com.katya.app.service.StatCounterService;
+import com.katya.app.util.enums.PropertyStatus;
+import com.katya.app.util.enums.StatCounterKey;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StatCounterServiceImpl implements StatCounterService {
+
+    private static final int PROPERTY_RECONCILE_BATCH = 500;
+
+    private final StatCounterRepository statCounterRepository;
+    private final PropertyRepository propertyRepository;
+    private final ContactMessageRepository contactMessageRepository;
+    private final AppUserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<StatCounterKey, Long> getCounters() {
+        Map<StatCounterKey, Long> counters = new EnumMap<>(StatCounterKey.class);
+        for (StatCounter counter : statCounterRepository.findAll()) {
+            counters.put(counter.getKey(), counter.getValue());
+        }
+        return counters;
+    }
+
+    @Override
+    @Transactional
+    public void increment(Collection<StatCounterKey> keys, long delta) {
+        if (keys.isEmpty() || delta == 0) {
+            return;
+        }
+        if (keys.size() > 1) {
+            statCounterRepository.lockInKeyOrder(keys);
+        }
+        statCounterRepository.increment(keys, delta, LocalDateTime.now());
+    }
+
+    @Override
+    @Transactional
+    public void move(Collection<StatCounterKey> before, Collection<StatCounterKey> after) {
+        Set<StatCounterKey> removed = EnumSet.noneOf(StatCounterKey.class);
+        removed.addAll(before);
+        removed.removeAll(after);
+
+        Set<StatCounterKey> added = EnumSet.noneOf(StatCounterKey.class);
+        added.addAll(after);
+        added.removeAll(before);
+
+        if (removed.isEmpty() && added.isEmpty()) {
+            return;
+        }
+        // Both updates run under locks taken together in key order, so opposite transitions
+        // (DRAFT -> PUBLISHED and back) queue instead of deadlocking
+        Set<StatCounterKey> touched = EnumSet.copyOf(removed);
+        touched.addAll(added);
+        statCounterRepository.lockInKeyOrder(touched);
+
+        LocalDateTime now = LocalDateTime.now();
+        if (!removed.isEmpty()) {
+            statCounterRepository.increment(removed, -1, now);
+        }
+        if (!added.isEmpty()) {
+            statCounterRepository.increment(added, 1, now);
+        }
+    }
+
+    @Override
+    public List<StatCounterKey> keysFor(Property property) {
+        List<StatCounterKey> keys = new ArrayList<>();
+        keys.add(StatCounterKey.PROPERTIES_TOTAL);
+
+        if (property.getStatus() == PropertyStatus.PUBLISHED) {
+            keys.add(StatCounterKey.PROPERTIES_PUBLISHED);
+        } else if (property.getStatus() == PropertyStatus.DRAFT) {
+            keys.add(StatCounterKey.PROPERTIES_DRAFT);
+        }
+
+        if (Boolean.TRUE.equals(property.getIsFeatured())) {
+            keys.add(StatCounterKey.PROPERTIES_FEATURED);
+        }
+
+        if (property.getPropertyType() != null) {
+            switch (property.getPropertyType()) {
+                case APARTMENT -> keys.add(StatCounterKey.PROPERTIES_APARTMENT);
+                case ROOM -> keys.add(StatCounterKey.PROPERTIES_ROOM);
+                case STUDIO -> keys.add(StatCounterKey.PROPERTIES_STUDIO);
+                case HOUSE -> keys.add(StatCounterKey.PROPERTIES_HOUSE);
+            }
+        }
+        return keys;
+    }
+
+    @Override
+    public List<StatCounterKey> keysFor(AppUser user) {
+        return Boolean.TRUE.equals(user.getIsActive())
+                ? List.of(StatCounterKey.USERS_TOTAL, StatCounterKey.USERS_ACTIVE)
+                : List.of(StatCounterKey.USERS_TOTAL);
+    }
+
+    @Override
+    @Transactional
+    public int reconcile() {
+        // Lock first: writers block on their counter update until the recount is committed,
+        // so their increment lands on top of a value that did not include them
+        Map<StatCounterKey, StatCounter> stored = new EnumMap<>(StatCounterKey.class);
+        for (StatCounter counter : statCounterRepository.findAllForUpdate()) {
+            stored.put(counter.getKey(), counter);
+        }
+
+        Map<StatCounterKey, Long> actual = countSourceTables();
+        LocalDateTime now = LocalDateTime.now();
+        int drifted = 0;
+
+        for (Map.Entry<StatCounterKey, Long> entry : actual.entrySet()) {
+            StatCounter counter = stored.get(entry.getKey());
+            if (counter == null) {
+                statCounterRepository.save(StatCounter.builder()
+                        .key(entry.getKey())
+                        .value(entry.getValue())
+                        .updatedAt(now)
+                        .build());
+                continue;
+            }
+            if (!counter.getValue().equals(entry.getValue())) {
+                log.warn("Counter {} drifted: stored {}, actual {}",
+                        entry.getKey(), counter.getValue(), entry.getValue());
+                counter.setValue(entry.getValue());
+                counter.setUpdatedAt(now);
+                drifted++;
+            }
+        }
+        return drifted;
+    }
+
+    @Override
+    public int reconcilePropertyCounters() {
+        // One short transaction per page, so writers are never held up for the whole table
+        int drifted = 0;
+        long afterId = 0;
+        while (true) {
+            long from = afterId;
+            ReconcileBatch batch = transactionTemplate.execute(status -> {
+                List<Long> ids = propertyRepository.lockIdsAfter(from, PROPERTY_RECONCILE_BATCH);
+                return new ReconcileBatch(ids, ids.isEmpty() ? 0 : propertyRepository.recountChildRows(ids));
+            });
+            if (batch == null || batch.ids().isEmpty()) {
+                return drifted;
+            }
+            drifted += batch.drifted();
+            afterId = batch.ids().get(batch.ids().size() - 1);
+        }
+    }
+
+    // Helper methods
+    private Map<StatCounterKey, Long> countSourceTables() {
+        PropertyRepository.PropertyTotals properties = propertyRepository.getPropertyTotals();
+        ContactMessageRepository.MessageTotals messages = contactMessageRepository.getMessageTotals();
+        AppUserRepository.UserTotals users = userRepository.getUserTotals();
+
+        Map<StatCounterKey, Long> actual = new EnumMap<>(StatCounterKey.class);
+        actual.put(StatCounterKey.PROPERTIES_TOTAL, properties.getTotal());
+        actual.put(StatCounterKey.PROPERTIES_PUBLISHED, properties.getPublished());
+        actual.put(StatCounterKey.PROPERTIES_DRAFT, properties.getDraft());
+        actual.put(StatCounterKey.PROPERTIES_FEATURED, properties.getFeatured());
+        actual.put(StatCounterKey.PROPERTIES_APARTMENT, properties.getApartments());
+        actual.put(StatCounterKey.PROPERTIES_ROOM, properties.getRooms());
+        actual.put(StatCounterKey.PROPERTIES_STUDIO, properties.getStudios());
+        actual.put(StatCounterKey.PROPERTIES_HOUSE, properties.getHouses());
+        actual.put(StatCounterKey.MESSAGES_TOTAL, messages.getTotal());
+        actual.put(StatCounterKey.MESSAGES_UNHANDLED, messages.getUnhandled());
+        actual.put(StatCounterKey.MESSAGES_HANDLED, messages.getHandled());
+        actual.put(StatCounterKey.USERS_TOTAL, users.getTotal());
+        actual.put(StatCounterKey.USERS_ACTIVE, users.getActive());
+        return actual;
+    }
+
+    private record ReconcileBatch(List<Long> ids, int drifted) {
+    }
+}
@@ -0,0 +1,316 @@
+package com.katya.app.service.impl;
+
+import com.katya.app.config.TrendingProperties;
+import com.katya.app.dto.mapper.PropertyMapper;
+import com.katya.app.dto.response.PropertySummaryResponse;
+import com.katya.app.model.entity.PropertyTrendingScore;
+import com.katya.app.repository.PropertyRepository;
+import com.katya.app.repository.PropertyTrendingScoreRepository;
+import com.katya.app.service.TrendingService;
+import com.katya.app.util.DtoUtils;
+import com.katya.app.util.enums.Locale;
+import com.katya.app.util.enums.PropertyStatus;
+import com.katya.app.util.enums.PropertyType;
+import com.katya.app.util.ranking.TopK;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Ranks published properties by exponentially decayed interest (views and inquiries).
+ * Scores are held relative to an epoch - an event at time t adds w * e^(λ(t - epoch)) - so
+ * nothing is ever re-decayed in memory and relative order is stable over time. Each flush
+ * merges this node's deltas into property_trending_score and reloads the scores from the
+ * table, so every node converges on the same list. Top-K lists per property type are
+ * computed from the scores when read, at most once per app.trending.ranking-refresh-ms.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TrendingServiceImpl implements TrendingService {
+
+    private final TrendingProperties properties;
+    private final PropertyTrendingScoreRepository scoreRepository;
+    private final PropertyRepository propertyRepository;
+    private final PropertyMapper propertyMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    private double decayRate;
+
+    // New events go to current; previous was retired one flush ago and is persisted on the next,
+    // by which time no request thread can still be writing into it
+    private volatile ScoreWindow current = new ScoreWindow(LocalDateTime.now());
+    private volatile ScoreWindow previous = new ScoreWindow(current.epoch);
+    private volatile Ranking ranking;
+
+    // Serializes load, flush and shutdown; a ReentrantLock because they hold it across
+    // database I/O, where synchronized would pin a virtual thread to its carrier
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    @PostConstruct
+    void init() {
+        decayRate = Math.log(2) / (properties.getHalfLifeHours() * 3600);
+        ranking = new Ranking(LocalDateTime.now(), Map.of(), properties.getTopSize());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            rebuild(LocalDateTime.now());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public void recordView(Long propertyId) {
+        record(propertyId, properties.getViewWeight());
+    }
+
+    @Override
+    public void recordInquiry(Long propertyId) {
+        record(propertyId, properties.getInquiryWeight());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PropertySummaryResponse> getTrendingProperties(PropertyType type, Locale locale, int limit) {
+        locale = DtoUtils.parseLocale(locale.getCode(), Locale.VI);
+        List<Long> ids = ranking.top(type, Math.max(1, Math.min(limit, properties.getTopSize())),
+                TimeUnit.MILLISECONDS.toNanos(properties.getRankingRefreshMs()));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, PropertySummaryResponse> cards = new HashMap<>();
+        for (Object[] row : propertyRepository.findSummaryRowsByIdIn(ids, locale)) {
+            PropertySummaryResponse card = propertyMapper.toSummaryResponse(row);
+            cards.put(card.getId(), card);
+        }
+
+        // Listings unpublished since the last rebuild drop out here
+        return ids.stream()
+                .map(cards::get)
+                .filter(card -> card != null && card.getStatus() == PropertyStatus.PUBLISHED)
+                .toList();
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.trending.flush-interval-ms:300000}",
+            initialDelayString = "${app.trending.flush-interval-ms:300000}")
+    public void flush() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            rotateAndPersist();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void rotateAndPersist() {
+        LocalDateTime now = LocalDateTime.now();
+        ScoreWindow retired = previous;
+        previous = current;
+        current = new ScoreWindow(now);
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                persist(retired);
+                scoreRepository.deleteStale(now.minusSeconds(
+                        (long) (properties.getHalfLifeHours() * 3600 * properties.getRetentionHalfLives())));
+            });
+        } catch (Exception e) {
+            log.error("Failed to persist trending scores, carrying them to the next run: {}", e.getMessage());
+            // Re-express the deltas relative to the surviving window's epoch
+            double rescale = decay(retired.epoch, previous.epoch);
+            retired.deltas.forEach((propertyId, delta) -> previous.deltas
+                    .computeIfAbsent(propertyId, id -> new DoubleAdder()).add(delta.sum() * rescale));
+        }
+
+        rebuild(now);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                persist(previous);
+                persist(current);
+            });
+        } catch (Exception e) {
+            log.error("Failed to persist trending scores on shutdown: {}", e.getMessage());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Helper methods
+    private void record(Long propertyId, double weight) {
+        if (!properties.isEnabled() || propertyId == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        ScoreWindow window = current;
+        window.deltas.computeIfAbsent(propertyId, id -> new DoubleAdder()).add(weight * growth(window.epoch, now));
+
+        Ranking snapshot = ranking;
+        if (snapshot.eligible.containsKey(propertyId)) {
+            snapshot.add(propertyId, weight * growth(snapshot.epoch, now));
+        }
+    }
+
+    private void persist(ScoreWindow window) {
+        if (window.deltas.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        double toNow = decay(window.epoch, now);
+
+        Map<Long, PropertyTrendingScore> stored = new HashMap<>();
+        for (PropertyTrendingScore row : scoreRepository.findAllByIdForUpdate(window.deltas.keySet())) {
+            stored.put(row.getPropertyId(), row);
+        }
+
+        List<PropertyTrendingScore> created = new ArrayList<>();
+        window.deltas.forEach((propertyId, delta) -> {
+            PropertyTrendingScore row = stored.get(propertyId);
+            if (row == null) {
+                row = PropertyTrendingScore.builder().propertyId(propertyId).build();
+                created.add(row);
+            }
+            row.setScore(row.getScore() * decay(row.getUpdatedAt(), now) + delta.sum() * toNow);
+            row.setUpdatedAt(now);
+        });
+        scoreRepository.saveAll(created);
+        log.debug("Persisted trending scores for {} properties", window.deltas.size());
+    }
+
+    private void rebuild(LocalDateTime now) {
+        try {
+            Map<Long, PropertyType> eligible = new HashMap<>();
+            for (PropertyRepository.PropertyTypeRow row : propertyRepository.findPublishedTypeRows()) {
+                eligible.put(row.getId(), row.getPropertyType());
+            }
+
+            Ranking rebuilt = new Ranking(now, eligible, properties.getTopSize());
+            for (PropertyTrendingScore row : scoreRepository.findAll()) {
+                if (eligible.containsKey(row.getPropertyId())) {
+                    rebuilt.add(row.getPropertyId(), row.getScore() * decay(row.getUpdatedAt(), now));
+                }
+            }
+            // Local events that have not reached the table yet
+            for (ScoreWindow window : List.of(previous, current)) {
+                double rescale = decay(window.epoch, now);
+                window.deltas.forEach((propertyId, delta) -> {
+                    if (eligible.containsKey(propertyId)) {
+                        rebuilt.add(propertyId, delta.sum() * rescale);
+                    }
+                });
+            }
+
+            ranking = rebuilt;
+        } catch (Exception e) {
+            log.error("Failed to rebuild trending rankings, keeping the previous ones: {}", e.getMessage());
+        }
+    }
+
+    private double growth(LocalDateTime epoch, LocalDateTime at) {
+        return Math.exp(decayRate * seconds(epoch, at));
+    }
+
+    private double decay(LocalDateTime from, LocalDateTime to) {
+        return Math.exp(-decayRate * seconds(from, to));
+    }
+
+    private static double seconds(LocalDateTime from, LocalDateTime to) {
+        return Duration.between(from, to).toMillis() / 1000.0;
+    }
+
+    private static class ScoreWindow {
+        private final LocalDateTime epoch;
+        private final ConcurrentHashMap<Long, DoubleAdder> deltas = new ConcurrentHashMap<>();
+
+        private ScoreWindow(LocalDateTime epoch) {
+            this.epoch = epoch;
+        }
+    }
+
+    // Scores relative to epoch; replaced wholesale on every rebuild. Events only add to a
+    // score, so recording never locks; the top-K lists are computed from the scores on read
+    private static class Ranking {
+        private final LocalDateTime epoch;
+        private final Map<Long, PropertyType> eligible;
+        private final int topSize;
+        private final ConcurrentHashMap<Long, DoubleAdder> scores = new ConcurrentHashMap<>();
+        private volatile Leaders leaders;
+
+        private Ranking(LocalDateTime epoch, Map<Long, PropertyType> eligible, int topSize) {
+            this.epoch = epoch;
+            this.eligible = eligible;
+            this.topSize = topSize;
+        }
+
+        private void add(Long propertyId, double score) {
+            DoubleAdder total = scores.get(propertyId);
+            if (total == null) {
+                total = scores.computeIfAbsent(propertyId, id -> new DoubleAdder());
+            }
+            total.add(score);
+        }
+
+        // Readers that find the lists stale may each recompute them; any of the results will do
+        private List<Long> top(PropertyType type, int limit, long maxAgeNanos) {
+            Leaders current = leaders;
+            if (current == null || System.nanoTime() - current.computedAt() > maxAgeNanos) {
+                current = computeLeaders();
+                leaders = current;
+            }
+            List<Long> ids = type != null ? current.byType().getOrDefault(type, List.of()) : current.overall();
+            return ids.subList(0, Math.min(limit, ids.size()));
+        }
+
+        private Leaders computeLeaders() {
+            long computedAt = System.nanoTime();
+            TopK<Long> overall = new TopK<>(topSize);
+            EnumMap<PropertyType, TopK<Long>> byType = new EnumMap<>(PropertyType.class);
+            scores.forEach((propertyId, total) -> {
+                double score = total.sum();
+                overall.offer(propertyId, score);
+                byType.computeIfAbsent(eligible.get(propertyId), type -> new TopK<>(topSize)).offer(propertyId, score);
+            });
+
+            EnumMap<PropertyType, List<Long>> byTypeIds = new EnumMap<>(PropertyType.class);
+            byType.forEach((type, top) -> byTypeIds.put(type, top.top(topSize)));
+            return new Leaders(computedAt, overall.top(topSize), byTypeIds);
+        }
+    }
+
+    private record Leaders(long computedAt, List<Long> overall, Map<PropertyType, List<Long>> byType) {
+    }
+}
@@ -11,8 +11,12 @@ import com.katya.app.exception.ResourceNotFoundException;
 import com.katya.app.exception.ValidationException;
 import com.katya.app.model.entity.AppUser;
 import com.katya.app.repository.AppUserRepository;
+import com.katya.app.repository.RefreshTokenRepository;
+import com.katya.app.security.TokenVersionCache;
+import com.katya.app.service.StatCounterService;
 import com.katya.app.service.UserService;
 import com.katya.app.util.DtoUtils;
+import com.katya.app.util.enums.StatCounterKey;
 import com.katya.app.util.enums.UserRole;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,6 +26,9 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -30,6 +37,9 @@ public class UserServiceImpl implements UserService {
     private final AppUserRepository userRepository;
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
+    private final StatCounterService statCounterService;
+    private final TokenVersionCache tokenVersionCache;
+    private final RefreshTokenRepository refreshTokenRepository;
 
     @Override
     @Transactional(readOnly = true)
@@ -81,6 +91,7 @@ public class UserServiceImpl implements UserService {
         user.setPasswordHash(passwordEncoder.encode(request.getPassword()));
 
         user = userRepository.save(user);
+        statCounterService.increment(statCounterService.keysFor(user), 1);
 
         log.info("User created successfully with ID: {}", user.getId());
         return userMapper.toSummaryResponse(user);
@@ -102,6 +113,9 @@ public class UserServiceImpl implements UserService {
         }
 
         // Update fields
+        List<StatCounterKey> counterKeysBefore = statCounterService.keysFor(user);
+        String emailBefore = user.getEmail();
+        UserRole roleBefore = user.getRole();
         if (request.getEmail() != null) {
             user.setEmail(request.getEmail());
         }
@@ -115,7 +129,18 @@ public class UserServiceImpl implements UserService {
             user.setIsActive(request.getIsActive());
         }
 
+        // Tokens carry email and role, so changing either revokes them
+        boolean revokeSessions = !user.getEmail().equals(emailBefore) || user.getRole() != roleBefore || !user.getIsActive();
+        if (revokeSessions) {
+            user.incrementTokenVersion();
+        }
+
         user = userRepository.save(user);
+        tokenVersionCache.evictAfterCommit(id);
+        if (revokeSessions) {
+            refreshTokenRepository.revokeAllUserTokens(id, LocalDateTime.now());
+        }
+        statCounterService.move(counterKeysBefore, statCounterService.keysFor(user));
 
         log.info("User updated successfully: {}", id);
         return userMapper.toSummaryResponse(user);
@@ -134,7 +159,11 @@ public class UserServiceImpl implements UserService {
         }
 
         user.setIsActive(false);
+        user.incrementTokenVersion();
         userRepository.save(user);
+        tokenVersionCache.evictAfterCommit(id);
+        refreshTokenRepository.revokeAllUserTokens(id, LocalDateTime.now());
+        statCounterService.increment(List.of(StatCounterKey.USERS_ACTIVE), -1);
 
         log.info("User deactivated successfully: {}", id);
     }
@@ -153,6 +182,8 @@ public class UserServiceImpl implements UserService {
 
         user.setIsActive(true);
         userRepository.save(user);
+        tokenVersionCache.evictAfterCommit(id);
+        statCounterService.increment(List.of(StatCounterKey.USERS_ACTIVE), 1);
 
         log.info("User activated successfully: {}", id);
     }
@@ -175,7 +206,10 @@ public class UserServiceImpl implements UserService {
 
         // Update password
         user.setPasswordHash(passwordEncoder.encode(request.getNewPassword()));
+        user.incrementTokenVersion();
         userRepository.save(user);
+        tokenVersionCache.evictAfterCommit(id);
+        refreshTokenRepository.revokeAllUserTokens(id, LocalDateTime.now());
 
         log.info("Password changed successfully for user: {}", id);
     }
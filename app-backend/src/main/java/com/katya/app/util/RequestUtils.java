@@ -0,0 +1,18 @@
+package com.katya.app.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+public class RequestUtils {
+
+    // X-Forwarded-For is resolved by Tomcat's RemoteIpValve (server.forward-headers-strategy):
+    // only hops appended by trusted proxies are honoured, so a client cannot pick its own address
+    public static String getClientIp(HttpServletRequest request) {
+        return request.getRemoteAddr();
+    }
+
+    // Approximate visitor identity for unique counting; never stored, only hashed into sketches
+    public static String getVisitorKey(HttpServletRequest request) {
+        String userAgent = request.getHeader("User-Agent");
+        return getClientIp(request) + "|" + (userAgent != null ? userAgent : "");
+    }
+}
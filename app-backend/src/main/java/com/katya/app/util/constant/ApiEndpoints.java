@@ -13,6 +13,7 @@ public final class ApiEndpoints {
     public static final String CONTACT = API_BASE + "/contact";
     public static final String CONTENT = API_BASE + "/content";
     public static final String COMPANY_INFO = API_BASE + "/company-info";
+    public static final String UPLOADS = "/uploads";
 
     // Auth endpoints
     public static final String AUTH = API_BASE + "/auth";
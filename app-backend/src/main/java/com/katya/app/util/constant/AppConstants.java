@@ -21,6 +21,17 @@ public final class AppConstants {
     public static final String CACHE_AMENITIES = "amenities";
     public static final String CACHE_SITE_SETTINGS = "siteSettings";
 
+    // Hibernate second-level cache regions, sized under app.l2-cache.regions
+    public static final String L2_AMENITY = "amenity";
+    public static final String L2_AMENITY_TRANSLATIONS = "amenity.translations";
+    public static final String L2_AMENITY_I18N = "amenity_i18n";
+    public static final String L2_SITE_SETTING = "site_setting";
+    public static final String L2_SITE_SETTING_TRANSLATIONS = "site_setting.translations";
+    public static final String L2_SITE_SETTING_I18N = "site_setting_i18n";
+    public static final String L2_APP_USER = "app_user";
+    public static final String L2_QUERY_AMENITIES = "query.amenities";
+    public static final String L2_QUERY_COMPANY_INFO = "query.company_info";
+
     // Error messages
     public static final String ERROR_RESOURCE_NOT_FOUND = "Resource not found";
     public static final String ERROR_DUPLICATE_RESOURCE = "Resource already exists";
@@ -1,6 +1,7 @@
 package com.katya.app.util.constant;
 
 import java.math.BigDecimal;
+import java.util.Set;
 
 public final class BusinessConstants {
 
@@ -13,6 +14,9 @@ public final class BusinessConstants {
     public static final int MIN_BATHROOMS = 0;
     public static final int MAX_BATHROOMS = 20;
 
+    // Literal paths under /api/properties, which would shadow a property with the same slug
+    public static final Set<String> RESERVED_PROPERTY_SLUGS = Set.of("search", "featured", "trending");
+
     // Image constraints
     public static final int MAX_IMAGES_PER_PROPERTY = 20;
     public static final int MAX_IMAGE_WIDTH = 2048;
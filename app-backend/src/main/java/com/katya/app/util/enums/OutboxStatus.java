@@ -0,0 +1,5 @@
+package com.katya.app.util.enums;
+
+public enum OutboxStatus {
+    PENDING, SENDING, SENT, FAILED
+}
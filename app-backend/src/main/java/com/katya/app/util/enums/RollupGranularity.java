@@ -0,0 +1,5 @@
+package com.katya.app.util.enums;
+
+public enum RollupGranularity {
+    HOUR, DAY
+}
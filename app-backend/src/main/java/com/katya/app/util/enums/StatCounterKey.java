@@ -0,0 +1,17 @@
+package com.katya.app.util.enums;
+
+public enum StatCounterKey {
+    PROPERTIES_TOTAL,
+    PROPERTIES_PUBLISHED,
+    PROPERTIES_DRAFT,
+    PROPERTIES_FEATURED,
+    PROPERTIES_APARTMENT,
+    PROPERTIES_ROOM,
+    PROPERTIES_STUDIO,
+    PROPERTIES_HOUSE,
+    MESSAGES_TOTAL,
+    MESSAGES_UNHANDLED,
+    MESSAGES_HANDLED,
+    USERS_TOTAL,
+    USERS_ACTIVE
+}
@@ -0,0 +1,271 @@
+package com.katya.app.util.image;
+
+import javax.imageio.*;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Produces downscaled JPEG renditions of an uploaded photo. The source is decoded once,
+ * subsampled while reading so a 24 MP photo never becomes a full-size raster, turned
+ * upright from its EXIF orientation and then scaled down width by width. Renditions are
+ * written without metadata, which strips EXIF (camera details, GPS position).
+ */
+public class ImageVariantGenerator {
+
+    private static final int SOI_MARKER = 0xFFD8;
+    private static final int APP1_MARKER = 0xE1;
+    private static final int SOS_MARKER = 0xDA;
+    private static final int EOI_MARKER = 0xD9;
+    private static final int ORIENTATION_TAG = 0x0112;
+
+    private final int[] widths;
+    private final float quality;
+    private final long maxSourcePixels;
+
+    public ImageVariantGenerator(List<Integer> widths, float quality, long maxSourcePixels) {
+        if (widths.isEmpty()) {
+            throw new IllegalArgumentException("At least one variant width is required");
+        }
+        this.widths = widths.stream().mapToInt(Integer::intValue).sorted().distinct().toArray();
+        this.quality = quality;
+        this.maxSourcePixels = maxSourcePixels;
+    }
+
+    public record Variant(int width, int height, byte[] content) {
+    }
+
+    /**
+     * Returns one variant per configured width that is smaller than the source, smallest
+     * first; a source narrower than every width yields a single variant at its own width.
+     */
+    public List<Variant> generate(InputStream source) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source)) {
+            if (input == null) {
+                throw new IOException("Cannot read image");
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IOException("Unsupported image format");
+            }
+
+            int orientation = readOrientation(input);
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int sourceWidth = reader.getWidth(0);
+                int sourceHeight = reader.getHeight(0);
+                // Checked before decoding: a small file can declare an enormous raster
+                if ((long) sourceWidth * sourceHeight > maxSourcePixels) {
+                    throw new IOException("Image is too large to process: " + sourceWidth + "x" + sourceHeight);
+                }
+
+                int uprightWidth = orientation >= 5 ? sourceHeight : sourceWidth;
+
+                // Keep twice the largest width so the final downscale can still smooth
+                int largest = Math.min(widths[widths.length - 1], uprightWidth);
+                int subsampling = Math.max(1, uprightWidth / (largest * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+
+                BufferedImage image = orient(toRgb(reader.read(0, param)), orientation);
+                return scaleAndEncode(image);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Helper methods
+    private List<Variant> scaleAndEncode(BufferedImage image) throws IOException {
+        List<Integer> targets = new ArrayList<>();
+        for (int width : widths) {
+            if (width < image.getWidth()) {
+                targets.add(width);
+            }
+        }
+        if (targets.isEmpty()) {
+            targets.add(image.getWidth());
+        }
+
+        // Largest first, each one scaled from the previous rendition
+        List<Variant> variants = new ArrayList<>();
+        BufferedImage current = image;
+        for (int i = targets.size() - 1; i >= 0; i--) {
+            current = resize(current, targets.get(i));
+            variants.add(0, new Variant(current.getWidth(), current.getHeight(), encode(current)));
+        }
+        return variants;
+    }
+
+    // Halves repeatedly with bilinear filtering; one big bilinear step would alias
+    private static BufferedImage resize(BufferedImage source, int width) {
+        BufferedImage current = source;
+        while (current.getWidth() > width) {
+            int nextWidth = Math.max(width, current.getWidth() / 2);
+            int nextHeight = Math.max(1, (int) Math.round((double) source.getHeight() * nextWidth / source.getWidth()));
+
+            BufferedImage next = new BufferedImage(nextWidth, nextHeight, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(current, 0, 0, nextWidth, nextHeight, null);
+            graphics.dispose();
+            current = next;
+        }
+        return current;
+    }
+
+    private byte[] encode(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            // Progressive JPEGs show a full preview early on slow connections
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    // Flattens alpha onto white, since the output is JPEG
+    private static BufferedImage toRgb(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+            return image;
+        }
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = rgb.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+        graphics.drawImage(image, 0, 0, null);
+        graphics.dispose();
+        return rgb;
+    }
+
+    private static BufferedImage orient(BufferedImage image, int orientation) {
+        if (orientation <= 1) {
+            return image;
+        }
+        int width = image.getWidth();
+        int height = image.getHeight();
+        AffineTransform transform = new AffineTransform();
+        switch (orientation) {
+            case 2 -> {
+                transform.scale(-1, 1);
+                transform.translate(-width, 0);
+            }
+            case 3 -> {
+                transform.translate(width, height);
+                transform.rotate(Math.PI);
+            }
+            case 4 -> {
+                transform.scale(1, -1);
+                transform.translate(0, -height);
+            }
+            case 5 -> {
+                transform.rotate(-Math.PI / 2);
+                transform.scale(-1, 1);
+            }
+            case 6 -> {
+                transform.translate(height, 0);
+                transform.rotate(Math.PI / 2);
+            }
+            case 7 -> {
+                transform.scale(-1, 1);
+                transform.translate(-height, width);
+                transform.rotate(3 * Math.PI / 2);
+            }
+            default -> {
+                transform.translate(0, width);
+                transform.rotate(3 * Math.PI / 2);
+            }
+        }
+
+        boolean quarterTurn = orientation >= 5;
+        BufferedImage oriented = new BufferedImage(quarterTurn ? height : width, quarterTurn ? width : height,
+                BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = oriented.createGraphics();
+        graphics.drawImage(image, transform, null);
+        graphics.dispose();
+        return oriented;
+    }
+
+    // Scans the JPEG segments ahead of the image data. Read directly rather than through ImageIO
+    // metadata, which refuses files where the EXIF segment precedes the JFIF one
+    private static int readOrientation(ImageInputStream input) throws IOException {
+        input.mark();
+        try {
+            if (input.readUnsignedShort() != SOI_MARKER) {
+                return 1;
+            }
+            while (true) {
+                if (input.readUnsignedByte() != 0xFF) {
+                    return 1;
+                }
+                int marker = input.readUnsignedByte();
+                if (marker == SOS_MARKER || marker == EOI_MARKER) {
+                    return 1;
+                }
+                int length = input.readUnsignedShort() - 2;
+                if (length < 0) {
+                    return 1;
+                }
+                if (marker == APP1_MARKER) {
+                    byte[] data = new byte[length];
+                    input.readFully(data);
+                    int orientation = parseExifOrientation(data);
+                    if (orientation != 1) {
+                        return orientation;
+                    }
+                } else {
+                    input.skipBytes(length);
+                }
+            }
+        } catch (EOFException e) {
+            return 1;
+        } finally {
+            input.reset();
+        }
+    }
+
+    // APP1 payload: "Exif\0\0", then a TIFF header whose first IFD may hold the orientation tag
+    static int parseExifOrientation(byte[] data) {
+        if (data.length < 14 || data[0] != 'E' || data[1] != 'x' || data[2] != 'i' || data[3] != 'f') {
+            return 1;
+        }
+        ByteBuffer tiff = ByteBuffer.wrap(data, 6, data.length - 6).slice();
+        tiff.order(tiff.get(0) == 'I' ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+        int ifd = tiff.getInt(4);
+        if (ifd < 8 || ifd + 2 > tiff.limit()) {
+            return 1;
+        }
+        int entries = tiff.getShort(ifd) & 0xFFFF;
+        for (int i = 0; i < entries; i++) {
+            int entry = ifd + 2 + i * 12;
+            if (entry + 12 > tiff.limit()) {
+                break;
+            }
+            if ((tiff.getShort(entry) & 0xFFFF) == ORIENTATION_TAG) {
+                int value = tiff.getShort(entry + 8) & 0xFFFF;
+                return value >= 1 && value <= 8 ? value : 1;
+            }
+        }
+        return 1;
+    }
+}
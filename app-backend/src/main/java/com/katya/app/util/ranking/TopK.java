@@ -0,0 +1,61 @@
+package com.katya.app.util.ranking;
+
+import java.util.*;
+
+/**
+ * Keeps the highest-scoring keys up to a fixed capacity. Offering a key that is already
+ * tracked replaces its score; a new key only gets in by beating the current minimum,
+ * which then drops out. All operations are O(log capacity). Not thread-safe: fill it on
+ * one thread, then read it.
+ */
+public class TopK<K extends Comparable<K>> {
+
+    private final int capacity;
+    private final Map<K, Double> scores = new HashMap<>();
+    // Ascending by score, so first() is the entry to evict
+    private final TreeSet<Map.Entry<K, Double>> ordered = new TreeSet<>(
+            Map.Entry.<K, Double>comparingByValue().thenComparing(Map.Entry.comparingByKey()));
+
+    public TopK(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    public void offer(K key, double score) {
+        Double current = scores.get(key);
+        if (current != null) {
+            ordered.remove(Map.entry(key, current));
+        } else if (scores.size() >= capacity) {
+            Map.Entry<K, Double> lowest = ordered.first();
+            if (score <= lowest.getValue()) {
+                return;
+            }
+            ordered.pollFirst();
+            scores.remove(lowest.getKey());
+        }
+        scores.put(key, score);
+        ordered.add(Map.entry(key, score));
+    }
+
+    public void remove(K key) {
+        Double current = scores.remove(key);
+        if (current != null) {
+            ordered.remove(Map.entry(key, current));
+        }
+    }
+
+    // Highest first
+    public List<K> top(int limit) {
+        List<K> keys = new ArrayList<>(Math.min(limit, ordered.size()));
+        for (Iterator<Map.Entry<K, Double>> it = ordered.descendingIterator(); it.hasNext() && keys.size() < limit; ) {
+            keys.add(it.next().getKey());
+        }
+        return keys;
+    }
+
+    public int size() {
+        return scores.size();
+    }
+}
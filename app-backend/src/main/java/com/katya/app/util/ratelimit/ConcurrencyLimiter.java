@@ -0,0 +1,77 @@
+package com.katya.app.util.ratelimit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fair semaphore that caps how many callers may use a shared resource (connection pool,
+ * remote API) at once. Callers over the limit park until a permit frees up or the acquire
+ * timeout passes, which is cheap for virtual threads and keeps the resource itself from
+ * being the queue.
+ */
+public class ConcurrencyLimiter implements MeterBinder {
+
+    private final String name;
+    private final int maxConcurrent;
+    private final long acquireTimeoutNanos;
+    private final Semaphore permits;
+    private final AtomicLong rejected = new AtomicLong();
+
+    public ConcurrencyLimiter(String name, int maxConcurrent, Duration acquireTimeout) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("Max concurrency must be at least 1");
+        }
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    /**
+     * Waits up to the acquire timeout for a permit. Returns false on timeout or interrupt;
+     * a caller that gets true must call {@link #release()} exactly once.
+     */
+    public boolean acquire() {
+        try {
+            if (permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejected.incrementAndGet();
+        return false;
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public int getActive() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    public int getWaiting() {
+        return permits.getQueueLength();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("concurrency.limiter.active", this, ConcurrencyLimiter::getActive)
+                .tag("name", name)
+                .register(registry);
+        Gauge.builder("concurrency.limiter.waiting", this, ConcurrencyLimiter::getWaiting)
+                .tag("name", name)
+                .register(registry);
+        FunctionCounter.builder("concurrency.limiter.rejected", rejected, AtomicLong::get)
+                .tag("name", name)
+                .register(registry);
+    }
+}
@@ -0,0 +1,53 @@
+package com.katya.app.util.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+
+/**
+ * Remembers a digest of recently seen payloads and reports repeats within a sliding
+ * window. Every repeat pushes the window forward, so a bot resubmitting the same
+ * content keeps being rejected until it stays quiet for a full window. At the size bound
+ * the least valuable digests are evicted, never the whole set.
+ */
+public class SlidingWindowDeduplicator {
+
+    private final Cache<String, Boolean> lastSeen;
+
+    public SlidingWindowDeduplicator(Duration window, int maxEntries) {
+        this.lastSeen = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    public boolean isDuplicate(String... parts) {
+        // Rewriting the entry restarts its window
+        return lastSeen.asMap().put(digest(parts), Boolean.TRUE) != null;
+    }
+
+    // Undoes isDuplicate() for a payload that was rejected afterwards, so a retry is not mistaken for a repeat
+    public void forget(String... parts) {
+        lastSeen.invalidate(digest(parts));
+    }
+
+    private static String digest(String... parts) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                String normalized = part != null ? part.trim().toLowerCase().replaceAll("\\s+", " ") : "";
+                md.update(normalized.getBytes(StandardCharsets.UTF_8));
+                md.update((byte) 0);
+            }
+            // 128 bits is plenty to keep collisions out of the picture
+            return HexFormat.of().formatHex(md.digest(), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
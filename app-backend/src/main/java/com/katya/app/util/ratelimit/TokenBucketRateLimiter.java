@@ -0,0 +1,81 @@
+package com.katya.app.util.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * In-memory token buckets keyed by an arbitrary string (client IP, account email...).
+ * Each key may burst up to {@code capacity} requests and regains {@code capacity}
+ * tokens per {@code refillPeriod}. A bucket idle for a whole period is full again and
+ * is dropped. Tracked keys are bounded without evicting live buckets: once the bound is
+ * reached, new keys share one overflow bucket until idle ones expire, so a flood of
+ * distinct keys is throttled as a group and never resets anyone else's bucket.
+ */
+public class TokenBucketRateLimiter {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final int maxKeys;
+    private final Cache<String, Bucket> buckets;
+    private final Bucket overflow;
+
+    public TokenBucketRateLimiter(int capacity, Duration refillPeriod, int maxKeys) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        this.capacity = capacity;
+        this.tokensPerNano = capacity / (double) refillPeriod.toNanos();
+        this.maxKeys = maxKeys;
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(refillPeriod)
+                .build();
+        this.overflow = new Bucket(capacity, System.nanoTime());
+    }
+
+    public boolean tryAcquire(String key) {
+        if (key == null) {
+            key = "unknown";
+        }
+        long now = System.nanoTime();
+        Bucket bucket = buckets.getIfPresent(key);
+        if (bucket == null) {
+            bucket = buckets.estimatedSize() < maxKeys
+                    ? buckets.get(key, k -> new Bucket(capacity, now))
+                    : overflow;
+        }
+        return bucket.tryConsume(now);
+    }
+
+    public long getTrackedKeys() {
+        return buckets.estimatedSize();
+    }
+
+    private final class Bucket {
+        private double tokens;
+        private long lastRefill;
+
+        private Bucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.lastRefill = now;
+        }
+
+        private synchronized boolean tryConsume(long now) {
+            refill(now);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return true;
+            }
+            return false;
+        }
+
+        private void refill(long now) {
+            long elapsed = now - lastRefill;
+            if (elapsed > 0) {
+                tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+                lastRefill = now;
+            }
+        }
+    }
+}
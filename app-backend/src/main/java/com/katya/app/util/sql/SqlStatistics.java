@@ -0,0 +1,92 @@
+package com.katya.app.util.sql;
+
+import java.time.Duration;
+
+/**
+ * Database work done by one thread between {@link #begin()} and {@link #end()}: JDBC
+ * statements and the time spent executing them, entities loaded and lazy collections fetched.
+ * Work handed to other threads (async listeners, upload executors) is not counted.
+ */
+public final class SqlStatistics {
+
+    private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+
+    private final SqlStatistics previous;
+
+    private long statements;
+    private long jdbcNanos;
+    private long entityLoads;
+    private long collectionFetches;
+
+    private SqlStatistics(SqlStatistics previous) {
+        this.previous = previous;
+    }
+
+    // Starts counting on this thread; at end() the counts are added to any enclosing recording
+    public static SqlStatistics begin() {
+        SqlStatistics statistics = new SqlStatistics(CURRENT.get());
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    public static boolean isRecording() {
+        return CURRENT.get() != null;
+    }
+
+    public static void statementExecuted(long nanos) {
+        SqlStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.statements++;
+            statistics.jdbcNanos += nanos;
+        }
+    }
+
+    public static void entityLoaded() {
+        SqlStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.entityLoads++;
+        }
+    }
+
+    public static void collectionFetched() {
+        SqlStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.collectionFetches++;
+        }
+    }
+
+    public void end() {
+        if (previous != null) {
+            previous.statements += statements;
+            previous.jdbcNanos += jdbcNanos;
+            previous.entityLoads += entityLoads;
+            previous.collectionFetches += collectionFetches;
+            CURRENT.set(previous);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    // A JDBC batch counts as one statement: it is one round trip
+    public long getStatements() {
+        return statements;
+    }
+
+    public Duration getJdbcTime() {
+        return Duration.ofNanos(jdbcNanos);
+    }
+
+    public long getEntityLoads() {
+        return entityLoads;
+    }
+
+    public long getCollectionFetches() {
+        return collectionFetches;
+    }
+
+    @Override
+    public String toString() {
+        return statements + " statements in " + getJdbcTime().toMillis() + " ms, "
+                + entityLoads + " entity loads, " + collectionFetches + " collection fetches";
+    }
+}
@@ -0,0 +1,83 @@
+package com.katya.app.util.sql;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * Counts statement executions and their duration into the thread's {@link SqlStatistics}.
+ * Sits under Hibernate and JdbcTemplate alike, so both show up. Connections borrowed while
+ * nothing is recording (scheduled jobs, background writers) are handed out unwrapped.
+ */
+public class SqlStatisticsDataSource extends DelegatingDataSource {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    public SqlStatisticsDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return instrument(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return instrument(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    // Helper methods
+    private static Connection instrument(Connection target) {
+        if (!SqlStatistics.isRecording()) {
+            return target;
+        }
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(target, method, args);
+                    if (result instanceof CallableStatement statement) {
+                        return timing(statement, CallableStatement.class);
+                    }
+                    if (result instanceof PreparedStatement statement) {
+                        return timing(statement, PreparedStatement.class);
+                    }
+                    if (result instanceof Statement statement) {
+                        return timing(statement, Statement.class);
+                    }
+                    return result;
+                });
+    }
+
+    private static Object timing(Statement target, Class<? extends Statement> type) {
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if (!EXECUTE_METHODS.contains(method.getName())) {
+                        return invoke(target, method, args);
+                    }
+                    long start = System.nanoTime();
+                    try {
+                        return invoke(target, method, args);
+                    } finally {
+                        SqlStatistics.statementExecuted(System.nanoTime() - start);
+                    }
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.katya.app.controller;
+
+import com.katya.app.dto.request.PropertyCreateRequest;
+import com.katya.app.dto.request.PropertyTranslationRequest;
+import com.katya.app.model.entity.Amenity;
+import com.katya.app.model.entity.Property;
+import com.katya.app.model.entity.PropertyImage;
+import com.katya.app.repository.AmenityRepository;
+import com.katya.app.repository.AppUserRepository;
+import com.katya.app.repository.PropertyImageRepository;
+import com.katya.app.repository.PropertyRepository;
+import com.katya.app.service.PropertyService;
+import com.katya.app.service.StatCounterService;
+import com.katya.app.util.enums.PropertyStatus;
+import com.katya.app.util.enums.PropertyType;
+import com.katya.app.util.sql.SqlBudget;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement budgets for the read endpoints against a seeded dataset large enough that an
+ * N+1 shows up as a blown budget. Each endpoint is called once to warm the second-level
+ * cache, then measured. Raise a budget only for a deliberate extra query.
+ * Runs against a throwaway PostgreSQL container, so it is skipped where Docker is missing.
+ */
+@SpringBootTest(properties = {
+        "app.jwt.secret=sql-budget-test-secret-sql-budget-test-secret-sql-budget-test-secret",
+        "app.admin.email=admin@sql-budget.test",
+        "app.admin.password=Admin12345",
+        "app.cloudinary.cloud-name=test",
+        "app.cloudinary.api-key=test",
+        "app.cloudinary.api-secret=test"
+})
+@AutoConfigureMockMvc
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ControllerSqlBudgetTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final int PROPERTIES = 12;
+    private static final int IMAGES_PER_PROPERTY = 3;
+    private static final String SLUG_PREFIX = "sql-budget-";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private PropertyService propertyService;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private PropertyImageRepository propertyImageRepository;
+
+    @Autowired
+    private AmenityRepository amenityRepository;
+
+    @Autowired
+    private AppUserRepository userRepository;
+
+    @Autowired
+    private StatCounterService statCounterService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.admin.email}")
+    private String adminEmail;
+
+    private final List<Long> seeded = new ArrayList<>();
+
+    @BeforeAll
+    void seed() {
+        Long adminId = userRepository.findByEmail(adminEmail).orElseThrow().getId();
+        List<Short> amenityIds = amenityRepository.findAll().stream().limit(5).map(Amenity::getId).toList();
+
+        for (int i = 0; i < PROPERTIES; i++) {
+            PropertyCreateRequest request = PropertyCreateRequest.builder()
+                    .slug(SLUG_PREFIX + i)
+                    .code("SQLB" + i)
+                    .propertyType(i % 2 == 0 ? PropertyType.APARTMENT : PropertyType.HOUSE)
+                    .priceMonth(BigDecimal.valueOf(1000 + i))
+                    .status(PropertyStatus.PUBLISHED)
+                    .isFeatured(i < 4)
+                    .translations(Map.of(
+                            "vi", new PropertyTranslationRequest("Căn hộ " + i, "Mô tả " + i, "Địa chỉ " + i),
+                            "en", new PropertyTranslationRequest("Apartment " + i, "Description " + i, "Address " + i)))
+                    .amenityIds(amenityIds)
+                    .build();
+            Long id = propertyService.createProperty(request, adminId).getId();
+            seeded.add(id);
+            transactionTemplate.executeWithoutResult(tx -> addImages(id));
+        }
+    }
+
+    // Hard delete (images, translations and amenities cascade), so a rerun can seed the same slugs
+    @AfterAll
+    void cleanUp() {
+        transactionTemplate.executeWithoutResult(tx -> seeded.forEach(id -> {
+            Property property = propertyRepository.findById(id).orElseThrow();
+            statCounterService.increment(statCounterService.keysFor(property), -1);
+            propertyRepository.delete(property);
+        }));
+    }
+
+    @ParameterizedTest(name = "{0} <= {1} statements")
+    @CsvSource({
+            "/api/properties?locale=vi,                         2",
+            "/api/properties?locale=en&propertyType=APARTMENT,  2",
+            "/api/properties/search?locale=vi&minPrice=1000,    2",
+            "/api/properties/featured?locale=vi,                2",
+            "/api/properties/sql-budget-0?locale=vi,            4",
+            "/api/amenities?locale=vi,                          0",
+            "/api/company-info?locale=vi,                       1",
+            "/api/content?locale=vi,                            1",
+    })
+    void publicEndpointsStayWithinBudget(String url, long budget) throws Exception {
+        mvc.perform(get(url)).andExpect(status().isOk());
+        mvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(SqlBudget.maxStatements(budget));
+    }
+
+    @ParameterizedTest(name = "{0} <= {1} statements")
+    @CsvSource({
+            "/api/admin/properties,  2",
+    })
+    @WithMockUser(roles = "ADMIN")
+    void adminEndpointsStayWithinBudget(String url, long budget) throws Exception {
+        mvc.perform(get(url)).andExpect(status().isOk());
+        mvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(SqlBudget.maxStatements(budget));
+    }
+
+    // Helper methods
+    private void addImages(Long propertyId) {
+        Property property = propertyRepository.getReferenceById(propertyId);
+        for (int i = 0; i < IMAGES_PER_PROPERTY; i++) {
+            propertyImageRepository.save(PropertyImage.builder()
+                    .property(property)
+                    .filePath("https://example.com/" + propertyId + "/" + i + ".jpg")
+                    .sortOrder((short) i)
+                    .isCover(i == 0)
+                    .build());
+        }
+        propertyRepository.adjustImageCount(propertyId, IMAGES_PER_PROPERTY);
+        propertyRepository.refreshCoverImage(propertyId);
+    }
+}
@@ -0,0 +1,112 @@
+package com.katya.app.controller.page;
+
+import com.katya.app.config.FileUploadConfig;
+import com.katya.app.service.StorageService.StoredObject;
+import com.katya.app.service.impl.LocalStorageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+class UploadControllerTest {
+
+    // sha256("hello world")
+    private static final String HASH = "b94d27b9934d3e08a52e52d7da7dabfac484efe37a5380ee9088f7ace2efcde9";
+    private static final String URL = "/uploads/b9/4d/" + HASH + ".png";
+
+    @TempDir
+    Path root;
+
+    private FileUploadConfig config;
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path file = root.resolve("b9/4d/" + HASH + ".png");
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "hello world", StandardCharsets.UTF_8);
+
+        config = new FileUploadConfig();
+        config.setPath(root.toString());
+        UploadController controller = new UploadController(config);
+        controller.init();
+        mvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void servesWithImmutableCachingAndHashEtag() throws Exception {
+        mvc.perform(get(URL))
+                .andExpect(status().isOk())
+                .andExpect(content().string("hello world"))
+                .andExpect(content().contentType("image/png"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + HASH + "\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"));
+    }
+
+    @Test
+    void answersConditionalRequestsWithoutTheFile() throws Exception {
+        Files.delete(root.resolve("b9/4d/" + HASH + ".png"));
+
+        mvc.perform(get(URL).header(HttpHeaders.IF_NONE_MATCH, "\"" + HASH + "\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void servesByteRanges() throws Exception {
+        mvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=6-"))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("world"))
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 6-10/11"));
+
+        mvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=0-4").header(HttpHeaders.IF_RANGE, "\"other\""))
+                .andExpect(status().isOk())
+                .andExpect(content().string("hello world"));
+
+        mvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=20-30"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */11"));
+    }
+
+    @Test
+    void headSkipsTheBodyAndMismatchedPathsAreNotFound() throws Exception {
+        mvc.perform(head(URL))
+                .andExpect(status().isOk())
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 11))
+                .andExpect(content().string(""));
+
+        mvc.perform(get("/uploads/aa/4d/" + HASH + ".png")).andExpect(status().isNotFound());
+        mvc.perform(get("/uploads/b9/4d/b94d.png")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void servesFilesWrittenByLocalStorageInTheirFolders() throws Exception {
+        LocalStorageService storage = new LocalStorageService(config);
+        storage.init();
+        for (String folder : new String[]{"hero", "q-apartment/property", "q-apartment/property/variants"}) {
+            StoredObject stored = storage.store(new MockMultipartFile("file", "a.jpg", "image/jpeg",
+                    folder.getBytes(StandardCharsets.UTF_8)), folder);
+            String hash = stored.key().substring(stored.key().lastIndexOf('/') + 1, stored.key().indexOf('.'));
+
+            mvc.perform(get(stored.url()))
+                    .andExpect(status().isOk())
+                    .andExpect(content().string(folder))
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"" + hash + "\""))
+                    .andExpect(header().string(HttpHeaders.CACHE_CONTROL, containsString("immutable")));
+        }
+
+        mvc.perform(get("/uploads/.tmp/b9/4d/" + HASH + ".png")).andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,130 @@
+package com.katya.app.security;
+
+import com.katya.app.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newFixedThreadPool(8);
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        if (encoder != null) {
+            encoder.shutdown();
+        }
+    }
+
+    @Test
+    void neverRunsMoreHashesThanTheConcurrencyLimit() throws Exception {
+        SlowEncoder slow = new SlowEncoder(50);
+        encoder = new BoundedPasswordEncoder(slow, 2, 16, Duration.ofSeconds(5), meterRegistry);
+
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(callers.submit(() -> encoder.matches("secret", "secret")));
+        }
+        for (Future<Boolean> result : results) {
+            assertThat(result.get()).isTrue();
+        }
+
+        assertThat(slow.maxConcurrent.get()).isEqualTo(2);
+        assertThat(meterRegistry.get("auth.password.hash.duration").timer().count()).isEqualTo(8);
+    }
+
+    @Test
+    void refusesWorkThatWaitsPastTheQueueTimeout() throws Exception {
+        SlowEncoder slow = new SlowEncoder(500);
+        encoder = new BoundedPasswordEncoder(slow, 1, 16, Duration.ofMillis(100), meterRegistry);
+
+        Future<Boolean> first = callers.submit(() -> encoder.matches("secret", "secret"));
+        Thread.sleep(20);
+
+        assertThatThrownBy(() -> encoder.matches("secret", "secret"))
+                .isInstanceOf(RateLimitExceededException.class);
+        assertThat(first.get()).isTrue();
+        assertThat(slow.calls.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("auth.password.hash.rejected").tag("reason", "timeout").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void timedOutWorkGivesUpItsQueueSlot() throws Exception {
+        SlowEncoder slow = new SlowEncoder(500);
+        encoder = new BoundedPasswordEncoder(slow, 1, 1, Duration.ofMillis(100), meterRegistry);
+
+        Future<Boolean> running = callers.submit(() -> encoder.matches("secret", "secret"));
+        Thread.sleep(20);
+        assertThatThrownBy(() -> encoder.matches("secret", "secret"))
+                .isInstanceOf(RateLimitExceededException.class);
+
+        assertThat(meterRegistry.get("auth.password.hash.queue").gauge().value()).isZero();
+        // The only queue slot is free again while the first hash is still running
+        Future<Boolean> queued = callers.submit(() -> encoder.matches("secret", "secret"));
+        Thread.sleep(20);
+        assertThat(meterRegistry.get("auth.password.hash.queue").gauge().value()).isEqualTo(1);
+        assertThat(running.get()).isTrue();
+        assertThatThrownBy(queued::get).hasCauseInstanceOf(RateLimitExceededException.class);
+        assertThat(meterRegistry.get("auth.password.hash.rejected").tag("reason", "queue_full").counter().count())
+                .isZero();
+    }
+
+    @Test
+    void refusesWorkWhenTheQueueIsFull() throws Exception {
+        encoder = new BoundedPasswordEncoder(new SlowEncoder(300), 1, 1, Duration.ofSeconds(5), meterRegistry);
+
+        Future<Boolean> running = callers.submit(() -> encoder.matches("secret", "secret"));
+        Thread.sleep(20);
+        Future<Boolean> queued = callers.submit(() -> encoder.matches("secret", "secret"));
+        Thread.sleep(20);
+
+        assertThatThrownBy(() -> encoder.matches("secret", "secret"))
+                .isInstanceOf(RateLimitExceededException.class);
+        assertThat(running.get()).isTrue();
+        assertThat(queued.get()).isTrue();
+    }
+
+    private static class SlowEncoder implements PasswordEncoder {
+        private final long delayMs;
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicInteger maxConcurrent = new AtomicInteger();
+        private final AtomicInteger calls = new AtomicInteger();
+
+        private SlowEncoder(long delayMs) {
+            this.delayMs = delayMs;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            calls.incrementAndGet();
+            maxConcurrent.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+            }
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    }
+}
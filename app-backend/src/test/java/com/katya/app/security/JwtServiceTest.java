@@ -0,0 +1,70 @@
+package com.katya.app.security;
+
+import com.katya.app.config.JwtProperties;
+import com.katya.app.model.entity.AppUser;
+import com.katya.app.util.enums.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtServiceTest {
+
+    private JwtProperties properties;
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new JwtProperties();
+        properties.setSecret("0123456789012345678901234567890123456789012345678901234567890123456789");
+        properties.setAccessTokenExpiration(60_000);
+        properties.setRefreshTokenExpiration(120_000);
+        jwtService = new JwtService(properties);
+        jwtService.init();
+    }
+
+    @Test
+    void verifiesAccessTokenClaimsOnce() {
+        String token = jwtService.generateAccessToken(admin());
+
+        VerifiedToken first = jwtService.verify(token).orElseThrow();
+        assertThat(first.email()).isEqualTo("admin@example.com");
+        assertThat(first.userId()).isEqualTo(42L);
+        assertThat(first.fullName()).isEqualTo("Site Admin");
+        assertThat(first.role()).isEqualTo("ADMIN");
+        assertThat(first.tokenVersion()).isEqualTo(3);
+        assertThat(first.isAccessToken()).isTrue();
+
+        // Served from the cache rather than parsed again
+        assertThat(jwtService.verify(token)).containsSame(first);
+    }
+
+    @Test
+    void distinguishesRefreshTokens() {
+        VerifiedToken refresh = jwtService.verify(jwtService.generateRefreshToken(admin())).orElseThrow();
+        assertThat(refresh.isRefreshToken()).isTrue();
+        assertThat(refresh.isAccessToken()).isFalse();
+        assertThat(refresh.tokenVersion()).isEqualTo(3);
+    }
+
+    @Test
+    void rejectsTamperedAndExpiredTokens() {
+        String token = jwtService.generateAccessToken(admin());
+        String tampered = token.substring(0, token.length() - 4) + (token.endsWith("AAAA") ? "BBBB" : "AAAA");
+        assertThat(jwtService.verify(tampered)).isEmpty();
+        assertThat(jwtService.verify("not-a-jwt")).isEmpty();
+
+        properties.setAccessTokenExpiration(-1_000);
+        assertThat(jwtService.verify(jwtService.generateAccessToken(admin()))).isEmpty();
+    }
+
+    private static AppUser admin() {
+        return AppUser.builder()
+                .id(42L)
+                .email("admin@example.com")
+                .fullName("Site Admin")
+                .role(UserRole.ADMIN)
+                .tokenVersion(3)
+                .build();
+    }
+}
@@ -0,0 +1,96 @@
+package com.katya.app.security;
+
+import com.katya.app.config.JwtProperties;
+import com.katya.app.model.entity.AppUser;
+import com.katya.app.util.enums.UserRole;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.crypto.SecretKey;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating a bearer token: the old path (three full parses, each
+ * rebuilding the key and parser) against {@link JwtService#verify} uncached and cached.
+ * After {@code mvn test-compile}, run the main method from the IDE, or
+ * {@code java -cp target/test-classes:target/classes:<test classpath> org.openjdk.jmh.Main JwtVerifyBenchmark}
+ * (classpath from {@code mvn dependency:build-classpath -Dmdep.includeScope=test}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerifyBenchmark {
+
+    private static final String SECRET = "0123456789012345678901234567890123456789012345678901234567890123456789";
+
+    private JwtService cached;
+    private JwtService uncached;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cached = jwtService(10_000);
+        uncached = jwtService(0);
+        token = cached.generateAccessToken(AppUser.builder()
+                .id(42L)
+                .email("admin@example.com")
+                .fullName("Site Admin")
+                .role(UserRole.ADMIN)
+                .tokenVersion(3)
+                .build());
+    }
+
+    @Benchmark
+    public String legacyThreeParses() {
+        // isTokenValid, isRefreshToken, then extractEmail, as the filter did before
+        legacyClaims(token);
+        boolean refresh = "refresh".equals(legacyClaims(token).get("type"));
+        return refresh ? null : legacyClaims(token).getSubject();
+    }
+
+    @Benchmark
+    public VerifiedToken verifyUncached() {
+        return uncached.verify(token).orElseThrow();
+    }
+
+    @Benchmark
+    public VerifiedToken verifyCached() {
+        return cached.verify(token).orElseThrow();
+    }
+
+    // Every request thread hitting the same cache at once
+    @Benchmark
+    @Threads(8)
+    public VerifiedToken verifyCachedContended() {
+        return cached.verify(token).orElseThrow();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtVerifyBenchmark.class.getSimpleName()).build()).run();
+    }
+
+    // Helper methods
+    private static JwtService jwtService(int cacheSize) {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret(SECRET);
+        properties.setAccessTokenExpiration(3_600_000);
+        properties.setRefreshTokenExpiration(7_200_000);
+        properties.setVerifiedCacheSize(cacheSize);
+        JwtService service = new JwtService(properties);
+        service.init();
+        return service;
+    }
+
+    private static Claims legacyClaims(String token) {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+    }
+}
@@ -0,0 +1,253 @@
+package com.katya.app.security;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.cloudinary.Cloudinary;
+import com.cloudinary.Uploader;
+import com.katya.app.config.CloudinaryConfig;
+import com.katya.app.config.ExecutionProperties;
+import com.katya.app.config.JwtProperties;
+import com.katya.app.model.entity.AppUser;
+import com.katya.app.service.impl.CloudinaryServiceImpl;
+import com.katya.app.util.enums.UserRole;
+import com.katya.app.util.ratelimit.ConcurrencyLimitedDataSource;
+import com.katya.app.util.ratelimit.ConcurrencyLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+/**
+ * Throughput of the image upload request path on a 200-thread pool (Tomcat's default) against
+ * virtual threads, with the same bounds the app runs with: a 20-connection pool, and the
+ * DB and Cloudinary limiters. Each upload verifies the bearer token, checks the property,
+ * calls {@link CloudinaryServiceImpl#uploadImage} and records the image; a share of the
+ * requests are reads that only verify and query. Database and Cloudinary latency are
+ * simulated with sleeps, which park a virtual thread the way socket reads do.
+ * <p>
+ * A closed loop of clients keeps that many requests in flight. After {@code mvn test-compile}:
+ * {@code java -cp target/test-classes:target/classes:<test classpath> com.katya.app.security.RequestThreadModeBenchmark}
+ * with optional {@code -Dclients=1000 -Dseconds=20 -DuploadPercent=5 -DdbMs=10 -DcloudinaryMs=400}.
+ * The virtual-thread run needs Java 21+; on older runtimes only the platform run is reported.
+ */
+public class RequestThreadModeBenchmark {
+
+    private static final String SECRET = "0123456789012345678901234567890123456789012345678901234567890123456789";
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final int HIKARI_POOL_SIZE = 20;
+
+    private final int clients = Integer.getInteger("clients", 1000);
+    private final int seconds = Integer.getInteger("seconds", 20);
+    private final int uploadPercent = Integer.getInteger("uploadPercent", 5);
+    private final long dbMs = Long.getLong("dbMs", 10);
+    private final long cloudinaryMs = Long.getLong("cloudinaryMs", 400);
+
+    private final ExecutionProperties executionProperties = new ExecutionProperties();
+    private final byte[] image = new byte[64 * 1024];
+    private JwtService jwtService;
+    private String token;
+
+    public static void main(String[] args) throws Exception {
+        // Keep per-request logging out of the results
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+        new RequestThreadModeBenchmark().run();
+    }
+
+    private void run() throws Exception {
+        jwtService = jwtService();
+        token = jwtService.generateAccessToken(AppUser.builder()
+                .id(42L)
+                .email("admin@example.com")
+                .fullName("Site Admin")
+                .role(UserRole.ADMIN)
+                .build());
+        System.out.printf("%d clients for %ds, %d%% uploads, db %dms, cloudinary %dms (max %d in flight)%n",
+                clients, seconds, uploadPercent, dbMs, cloudinaryMs, executionProperties.getCloudinaryMaxConcurrency());
+
+        ExecutorService platform = Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+        try {
+            // Platform mode has no DB limiter; the pool's own wait queue bounds connections
+            measure("platform", platform, pool());
+        } finally {
+            platform.shutdownNow();
+        }
+
+        if (Runtime.version().feature() < 21) {
+            System.out.println("virtual   skipped: needs Java 21+, running on " + Runtime.version());
+            return;
+        }
+        try (SimpleAsyncTaskExecutor virtual = new SimpleAsyncTaskExecutor("request-")) {
+            virtual.setVirtualThreads(true);
+            // As VirtualThreadConfig wraps the DataSource
+            ConcurrencyLimiter dbLimiter = new ConcurrencyLimiter("db", executionProperties.getDbMaxConcurrency(),
+                    Duration.ofMillis(executionProperties.getDbAcquireTimeoutMs()));
+            measure("virtual", virtual, new ConcurrencyLimitedDataSource(pool(), dbLimiter));
+        }
+    }
+
+    private void measure(String mode, Executor executor, DataSource dataSource) throws Exception {
+        CloudinaryServiceImpl cloudinaryService = cloudinaryService();
+        AtomicBoolean running = new AtomicBoolean(true);
+        Stats uploads = new Stats();
+        Stats reads = new Stats();
+        AtomicLong failures = new AtomicLong();
+        CountDownLatch stopped = new CountDownLatch(clients);
+
+        for (int client = 0; client < clients; client++) {
+            submitNext(executor, running, stopped, () -> {
+                boolean upload = ThreadLocalRandom.current().nextInt(100) < uploadPercent;
+                long start = System.nanoTime();
+                try {
+                    if (upload) {
+                        upload(dataSource, cloudinaryService);
+                    } else {
+                        read(dataSource);
+                    }
+                    // Requests still draining after the window don't count towards its throughput
+                    if (running.get()) {
+                        (upload ? uploads : reads).record(System.nanoTime() - start);
+                    }
+                } catch (Exception e) {
+                    failures.incrementAndGet();
+                }
+            });
+        }
+
+        Thread.sleep(seconds * 1000L);
+        running.set(false);
+        stopped.await(2, TimeUnit.MINUTES);
+
+        System.out.printf("%-9s %8.1f req/s | uploads %6.1f/s p50 %5dms p99 %6dms | reads %8.1f/s p50 %5dms p99 %6dms | failed %d%n",
+                mode, (uploads.count() + reads.count()) / (double) seconds,
+                uploads.count() / (double) seconds, uploads.percentileMs(50), uploads.percentileMs(99),
+                reads.count() / (double) seconds, reads.percentileMs(50), reads.percentileMs(99), failures.get());
+    }
+
+    // Each client sends its next request once the previous one has been served
+    private void submitNext(Executor executor, AtomicBoolean running, CountDownLatch stopped, Runnable request) {
+        if (!running.get()) {
+            stopped.countDown();
+            return;
+        }
+        executor.execute(() -> {
+            request.run();
+            submitNext(executor, running, stopped, request);
+        });
+    }
+
+    // POST /api/admin/properties/{id}/images: check the property, upload, then record the image
+    private void upload(DataSource dataSource, CloudinaryServiceImpl cloudinaryService) throws Exception {
+        jwtService.verify(token).orElseThrow();
+        query(dataSource);
+        cloudinaryService.uploadImage(new MockMultipartFile("file", "photo.jpg", "image/jpeg", image), "benchmark");
+        query(dataSource);
+    }
+
+    // An authenticated read such as GET /api/admin/properties/{id}
+    private void read(DataSource dataSource) throws Exception {
+        jwtService.verify(token).orElseThrow();
+        query(dataSource);
+    }
+
+    private void query(DataSource dataSource) throws Exception {
+        try (Connection ignored = dataSource.getConnection()) {
+            Thread.sleep(dbMs);
+        }
+    }
+
+    // Helper methods
+
+    private JwtService jwtService() {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret(SECRET);
+        properties.setAccessTokenExpiration(3_600_000);
+        properties.setRefreshTokenExpiration(7_200_000);
+        JwtService service = new JwtService(properties);
+        service.init();
+        return service;
+    }
+
+    private CloudinaryServiceImpl cloudinaryService() throws Exception {
+        Cloudinary cloudinary = mock(Cloudinary.class, withSettings().stubOnly());
+        Uploader uploader = mock(Uploader.class, withSettings().stubOnly());
+        when(cloudinary.uploader()).thenReturn(uploader);
+        when(uploader.upload(any(), anyMap())).thenAnswer(invocation -> {
+            Thread.sleep(cloudinaryMs);
+            return Map.of("public_id", "benchmark/photo", "secure_url", "https://res/photo.jpg", "bytes", image.length);
+        });
+        CloudinaryServiceImpl service = new CloudinaryServiceImpl(cloudinary, new CloudinaryConfig(),
+                executionProperties, new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(service, "init");
+        return service;
+    }
+
+    // Hands out at most HIKARI_POOL_SIZE connections and waits up to Hikari's connection timeout
+    private static DataSource pool() {
+        Semaphore connections = new Semaphore(HIKARI_POOL_SIZE, true);
+        return new AbstractDataSource() {
+            @Override
+            public Connection getConnection() throws SQLException {
+                try {
+                    if (!connections.tryAcquire(20, TimeUnit.SECONDS)) {
+                        throw new SQLTransientConnectionException("Connection is not available");
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLTransientConnectionException("Interrupted", e);
+                }
+                AtomicBoolean closed = new AtomicBoolean();
+                return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                        (proxy, method, args) -> {
+                            if (method.getName().equals("close") && closed.compareAndSet(false, true)) {
+                                connections.release();
+                            }
+                            return method.getName().equals("isClosed") ? closed.get() : null;
+                        });
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                return getConnection();
+            }
+        };
+    }
+
+    // Latencies of one request kind, in nanoseconds
+    private static final class Stats {
+
+        private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+
+        void record(long nanos) {
+            latencies.add(nanos);
+        }
+
+        long count() {
+            return latencies.size();
+        }
+
+        long percentileMs(int percentile) {
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+            if (sorted.length == 0) {
+                return 0;
+            }
+            return TimeUnit.NANOSECONDS.toMillis(sorted[Math.min(sorted.length - 1, sorted.length * percentile / 100)]);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.katya.app.service.impl;
+
+import com.cloudinary.Cloudinary;
+import com.cloudinary.Uploader;
+import com.katya.app.config.CloudinaryConfig;
+import com.katya.app.config.ExecutionProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CloudinaryServiceImplTest {
+
+    private static final int UPLOADS = 20;
+    private static final int IMAGE_SIZE = 5 * 1024 * 1024;
+
+    @TempDir
+    Path tempDir;
+
+    private final ExecutorService callers = Executors.newFixedThreadPool(UPLOADS);
+    private final AtomicInteger streamedUploads = new AtomicInteger();
+    private CloudinaryServiceImpl cloudinaryService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Cloudinary cloudinary = mock(Cloudinary.class);
+        Uploader uploader = mock(Uploader.class);
+        when(cloudinary.uploader()).thenReturn(uploader);
+        // Reads the body the way the HTTP client does, through a small fixed buffer
+        when(uploader.upload(any(), anyMap())).thenAnswer(invocation -> {
+            Object body = invocation.getArgument(0);
+            assertThat(body).isInstanceOf(File.class);
+            assertThat(((File) body).toPath().getParent()).isEqualTo(stagingDir());
+            long read = 0;
+            byte[] buffer = new byte[4096];
+            try (InputStream in = Files.newInputStream(((File) body).toPath())) {
+                for (int n; (n = in.read(buffer)) > 0; ) {
+                    read += n;
+                }
+            }
+            assertThat(read).isEqualTo(IMAGE_SIZE);
+            streamedUploads.incrementAndGet();
+            return Map.of("public_id", "test/" + streamedUploads.get(), "bytes", (int) read);
+        });
+
+        ExecutionProperties properties = new ExecutionProperties();
+        properties.setCloudinaryMaxConcurrency(UPLOADS);
+        CloudinaryConfig config = new CloudinaryConfig();
+        config.setStagingDir(stagingDir().toString());
+        cloudinaryService = new CloudinaryServiceImpl(cloudinary, config, properties, new SimpleMeterRegistry());
+        cloudinaryService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void concurrentUploadsDoNotBufferImagesOnTheHeap() throws Exception {
+        List<MultipartFile> files = new ArrayList<>();
+        for (int i = 0; i < UPLOADS; i++) {
+            Path part = tempDir.resolve("part-" + i);
+            Files.write(part, new byte[IMAGE_SIZE]);
+            files.add(new DiskMultipartFile(part, "photo-" + i + ".jpg"));
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> allocations = new ArrayList<>();
+        for (MultipartFile file : files) {
+            allocations.add(callers.submit(() -> {
+                start.await();
+                long before = threads.getCurrentThreadAllocatedBytes();
+                cloudinaryService.uploadImage(file, "test");
+                return threads.getCurrentThreadAllocatedBytes() - before;
+            }));
+        }
+        start.countDown();
+
+        long allocated = 0;
+        for (Future<Long> allocation : allocations) {
+            allocated += allocation.get(30, TimeUnit.SECONDS);
+        }
+
+        assertThat(streamedUploads.get()).isEqualTo(UPLOADS);
+        // Buffering would allocate at least 100 MB across the 20 uploads
+        assertThat(allocated).isLessThan((long) UPLOADS * IMAGE_SIZE / 10);
+        try (var staged = Files.list(stagingDir())) {
+            assertThat(staged).isEmpty();
+        }
+    }
+
+    private Path stagingDir() {
+        return tempDir.resolve("staging");
+    }
+
+    // Behaves like a servlet part that was written to disk: transferTo moves the file
+    private record DiskMultipartFile(Path path, String originalFilename) implements MultipartFile {
+
+        @Override
+        public String getName() {
+            return "file";
+        }
+
+        @Override
+        public String getOriginalFilename() {
+            return originalFilename;
+        }
+
+        @Override
+        public String getContentType() {
+            return "image/jpeg";
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return getSize() == 0;
+        }
+
+        @Override
+        public long getSize() {
+            return IMAGE_SIZE;
+        }
+
+        @Override
+        public byte[] getBytes() throws IOException {
+            return Files.readAllBytes(path);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return Files.newInputStream(path);
+        }
+
+        @Override
+        public void transferTo(File dest) throws IOException {
+            Files.move(path, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
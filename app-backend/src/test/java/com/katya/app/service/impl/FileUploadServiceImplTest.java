@@ -0,0 +1,243 @@
+package com.katya.app.service.impl;
+
+import com.katya.app.config.CloudinaryConfig;
+import com.katya.app.config.FileUploadConfig;
+import com.katya.app.dto.mapper.PropertyMapper;
+import com.katya.app.dto.response.PropertyImageBatchResponse;
+import com.katya.app.dto.response.PropertyImageResponse;
+import com.katya.app.dto.response.PropertyImageUploadResult;
+import com.katya.app.exception.FileUploadException;
+import com.katya.app.model.entity.Property;
+import com.katya.app.model.entity.PropertyImage;
+import com.katya.app.repository.PropertyImageRepository;
+import com.katya.app.repository.PropertyRepository;
+import com.katya.app.service.ImageAssetService;
+import com.katya.app.service.ImageVariantService;
+import com.katya.app.service.StorageService;
+import com.katya.app.util.constant.BusinessConstants;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class FileUploadServiceImplTest {
+
+    private static final Long PROPERTY_ID = 7L;
+
+    private StorageService storageService;
+    private ImageAssetService imageAssetService;
+    private PropertyRepository propertyRepository;
+    private PropertyImageRepository propertyImageRepository;
+    private JdbcTemplate jdbcTemplate;
+
+    // Stands in for the property row lock taken inside the insert transaction
+    private final ReentrantLock rowLock = new ReentrantLock();
+    private final AtomicLong imageCount = new AtomicLong();
+    private final AtomicLong nextId = new AtomicLong(100);
+    private final List<String> discarded = new CopyOnWriteArrayList<>();
+
+    private FileUploadServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        storageService = mock(StorageService.class);
+        imageAssetService = mock(ImageAssetService.class);
+        propertyRepository = mock(PropertyRepository.class);
+        propertyImageRepository = mock(PropertyImageRepository.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+
+        ImageVariantService imageVariantService = mock(ImageVariantService.class);
+        when(imageVariantService.createVariants(any(MultipartFile.class), anyString()))
+                .thenReturn(ImageVariantService.CreatedVariants.NONE);
+        when(storageService.store(any(MultipartFile.class), anyString())).thenAnswer(invocation -> {
+            MultipartFile file = invocation.getArgument(0);
+            String url = "https://res/" + file.getOriginalFilename();
+            return new StorageService.StoredObject(url, url, file.getSize(), false);
+        });
+        when(imageAssetService.urlsOf(anyString(), any())).thenAnswer(invocation -> List.of(invocation.<String>getArgument(0)));
+        doAnswer(invocation -> discarded.addAll(invocation.<Collection<String>>getArgument(0)))
+                .when(imageAssetService).discard(anyCollection());
+
+        when(propertyRepository.existsById(PROPERTY_ID)).thenReturn(true);
+        when(propertyRepository.findByIdForUpdate(PROPERTY_ID))
+                .thenReturn(Optional.of(Property.builder().id(PROPERTY_ID).build()));
+        when(propertyImageRepository.countByPropertyId(PROPERTY_ID)).thenAnswer(invocation -> imageCount.get());
+        when(jdbcTemplate.batchUpdate(any(PreparedStatementCreator.class), any(BatchPreparedStatementSetter.class),
+                any(KeyHolder.class))).thenAnswer(invocation -> {
+            BatchPreparedStatementSetter setter = invocation.getArgument(1);
+            KeyHolder keyHolder = invocation.getArgument(2);
+            for (int i = 0; i < setter.getBatchSize(); i++) {
+                keyHolder.getKeyList().add(Map.of("id", nextId.getAndIncrement()));
+            }
+            imageCount.addAndGet(setter.getBatchSize());
+            return new int[setter.getBatchSize()];
+        });
+
+        PropertyMapper propertyMapper = mock(PropertyMapper.class);
+        when(propertyMapper.toImageResponse(any(PropertyImage.class))).thenAnswer(invocation -> {
+            PropertyImage image = invocation.getArgument(0);
+            return PropertyImageResponse.builder()
+                    .id(image.getId())
+                    .filePath(image.getFilePath())
+                    .sortOrder(image.getSortOrder())
+                    .isCover(image.getIsCover())
+                    .build();
+        });
+
+        FileUploadConfig fileUploadConfig = new FileUploadConfig();
+        fileUploadConfig.setBatchParallelism(2);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class)) {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) throws TransactionException {
+                rowLock.lock();
+                try {
+                    return super.execute(action);
+                } finally {
+                    rowLock.unlock();
+                }
+            }
+        };
+
+        service = new FileUploadServiceImpl(storageService, imageVariantService, imageAssetService,
+                new CloudinaryConfig(), fileUploadConfig, propertyRepository, propertyImageRepository, propertyMapper,
+                jdbcTemplate, transactionTemplate, new MockEnvironment());
+        service.init();
+    }
+
+    @Test
+    void continuesSortOrderAndFlagsTheRequestedCover() {
+        imageCount.set(3);
+        when(propertyImageRepository.findMaxSortOrder(PROPERTY_ID)).thenReturn((short) 4);
+
+        PropertyImageBatchResponse response = service.uploadPropertyImages(PROPERTY_ID, files("a", "b", "c"), 1);
+
+        assertThat(response.getUploaded()).isEqualTo(3);
+        assertThat(response.getResults()).extracting(result -> result.getImage().getSortOrder())
+                .containsExactly((short) 5, (short) 6, (short) 7);
+        assertThat(response.getResults()).extracting(result -> result.getImage().getIsCover())
+                .containsExactly(false, true, false);
+        verify(propertyImageRepository).removeCoverFlagFromProperty(PROPERTY_ID);
+        verify(imageAssetService).acquire(List.of("https://res/a.jpg", "https://res/b.jpg", "https://res/c.jpg"), Set.of());
+        verify(propertyRepository).adjustImageCount(PROPERTY_ID, 3);
+    }
+
+    @Test
+    void firstImageBecomesCoverWhenThePropertyHasNone() {
+        when(propertyImageRepository.findMaxSortOrder(PROPERTY_ID)).thenReturn(null);
+
+        PropertyImageBatchResponse response = service.uploadPropertyImages(PROPERTY_ID, files("a", "b"), null);
+
+        assertThat(response.getResults()).extracting(result -> result.getImage().getSortOrder())
+                .containsExactly((short) 0, (short) 1);
+        assertThat(response.getResults()).extracting(result -> result.getImage().getIsCover())
+                .containsExactly(true, false);
+        verify(propertyImageRepository, never()).removeCoverFlagFromProperty(any());
+    }
+
+    @Test
+    void reportsFilesThatFailValidationOrUploadAndSavesTheRest() {
+        List<MultipartFile> files = new ArrayList<>(files("a", "b", "c"));
+        files.set(0, new MockMultipartFile("files", "notes.txt", "text/plain", new byte[]{1}));
+        doThrow(new FileUploadException("Storage unavailable")).when(storageService)
+                .store(argThat((MultipartFile file) -> "c.jpg".equals(file.getOriginalFilename())), anyString());
+
+        PropertyImageBatchResponse response = service.uploadPropertyImages(PROPERTY_ID, files, null);
+
+        assertThat(response.getUploaded()).isEqualTo(1);
+        assertThat(response.getFailed()).isEqualTo(2);
+        assertThat(response.getResults()).extracting(PropertyImageUploadResult::getSuccess)
+                .containsExactly(false, true, false);
+        assertThat(response.getResults().get(0).getError()).isEqualTo("File type not allowed: text/plain");
+        assertThat(response.getResults().get(2).getError()).isEqualTo("Storage unavailable");
+        // The only saved image is the cover, since the failed first file never reached the insert
+        assertThat(response.getResults().get(1).getImage().getIsCover()).isTrue();
+        assertThat(discarded).isEmpty();
+    }
+
+    @Test
+    void discardsUploadedFilesWhenTheInsertFails() {
+        when(jdbcTemplate.batchUpdate(any(PreparedStatementCreator.class), any(BatchPreparedStatementSetter.class),
+                any(KeyHolder.class))).thenThrow(new DataAccessResourceFailureException("Connection lost"));
+
+        PropertyImageBatchResponse response = service.uploadPropertyImages(PROPERTY_ID, files("a", "b"), null);
+
+        assertThat(response.getUploaded()).isZero();
+        assertThat(response.getResults()).extracting(PropertyImageUploadResult::getError)
+                .containsOnly("Image could not be saved");
+        assertThat(discarded).containsExactlyInAnyOrder("https://res/a.jpg", "https://res/b.jpg");
+        verify(imageAssetService, never()).acquire(anyCollection(), anyCollection());
+    }
+
+    @Test
+    void concurrentBatchesStopAtThePerPropertyLimit() throws Exception {
+        // Both batches pass the up-front count before either inserts, so only the locked re-check stops them
+        CountDownLatch bothChecked = new CountDownLatch(2);
+        when(propertyImageRepository.countByPropertyId(PROPERTY_ID)).thenAnswer(invocation -> {
+            if (!rowLock.isHeldByCurrentThread()) {
+                bothChecked.countDown();
+                bothChecked.await(5, TimeUnit.SECONDS);
+            }
+            return imageCount.get();
+        });
+        int batchSize = 12;
+
+        CompletableFuture<PropertyImageBatchResponse> first = CompletableFuture.supplyAsync(
+                () -> service.uploadPropertyImages(PROPERTY_ID, files("first", batchSize), null));
+        CompletableFuture<PropertyImageBatchResponse> second = CompletableFuture.supplyAsync(
+                () -> service.uploadPropertyImages(PROPERTY_ID, files("second", batchSize), null));
+
+        PropertyImageBatchResponse a = first.get(10, TimeUnit.SECONDS);
+        PropertyImageBatchResponse b = second.get(10, TimeUnit.SECONDS);
+
+        assertThat(a.getUploaded() + b.getUploaded()).isEqualTo(BusinessConstants.MAX_IMAGES_PER_PROPERTY);
+        assertThat(imageCount.get()).isEqualTo(BusinessConstants.MAX_IMAGES_PER_PROPERTY);
+        assertThat(discarded).hasSize(2 * batchSize - BusinessConstants.MAX_IMAGES_PER_PROPERTY);
+        // The batch that locked second keeps its leading files and reports the rest as unsaved
+        PropertyImageBatchResponse later = a.getUploaded() < b.getUploaded() ? a : b;
+        assertThat(later.getResults()).extracting(PropertyImageUploadResult::getSuccess)
+                .containsExactlyElementsOf(IntStream.range(0, batchSize)
+                        .mapToObj(i -> i < BusinessConstants.MAX_IMAGES_PER_PROPERTY - batchSize)
+                        .toList());
+    }
+
+    // Helper methods
+
+    private static List<MultipartFile> files(String... names) {
+        return Arrays.stream(names)
+                .<MultipartFile>map(name -> new MockMultipartFile("files", name + ".jpg", "image/jpeg", new byte[]{1, 2, 3}))
+                .toList();
+    }
+
+    private static List<MultipartFile> files(String prefix, int count) {
+        return files(IntStream.range(0, count).mapToObj(i -> prefix + i).toArray(String[]::new));
+    }
+}
@@ -0,0 +1,119 @@
+package com.katya.app.service.impl;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.katya.app.config.NotificationProperties;
+import com.katya.app.model.entity.ContactMessage;
+import com.katya.app.model.entity.NotificationOutbox;
+import com.katya.app.repository.ContactMessageRepository;
+import com.katya.app.repository.NotificationOutboxRepository;
+import com.katya.app.util.enums.OutboxStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mail.MailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class InquiryNotificationDispatcherTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private NotificationProperties properties;
+    private NotificationOutboxRepository outboxRepository;
+    private ContactMessageRepository contactMessageRepository;
+    private JavaMailSenderImpl mailSender;
+
+    @BeforeEach
+    void setUp() {
+        properties = new NotificationProperties();
+        outboxRepository = mock(NotificationOutboxRepository.class);
+        contactMessageRepository = mock(ContactMessageRepository.class);
+
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost(ServerSetupTest.SMTP.getBindAddress());
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+    }
+
+    @Test
+    void sendsOneDigestPerAdmin() throws Exception {
+        ContactMessage first = message(1L, "Nguyen Van A");
+        ContactMessage second = message(2L, "Tran Thi B");
+        when(outboxRepository.findDueForUpdate(anyCollection(), any(), any())).thenReturn(List.of(
+                outbox(10L, first, "admin@example.com"),
+                outbox(11L, second, "admin@example.com"),
+                outbox(12L, first, "editor@example.com")));
+        when(contactMessageRepository.findAllWithPropertyByIdIn(anyCollection())).thenReturn(List.of(first, second));
+
+        int sent = dispatcher(mailSender).dispatchDue();
+
+        assertThat(sent).isEqualTo(3);
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(2);
+        assertThat(received[0].getSubject()).isEqualTo("[Q Apartment] 2 new inquiries");
+        assertThat(received[1].getSubject()).isEqualTo("[Q Apartment] New inquiry from Nguyen Van A");
+        verify(outboxRepository).markSent(eq(List.of(10L, 11L, 12L)), any());
+    }
+
+    @Test
+    void backsOffWhenSmtpIsDown() {
+        JavaMailSenderImpl unreachable = new JavaMailSenderImpl();
+        unreachable.setHost("127.0.0.1");
+        unreachable.setPort(1);
+
+        ContactMessage inquiry = message(1L, "Nguyen Van A");
+        NotificationOutbox row = outbox(10L, inquiry, "admin@example.com");
+        when(outboxRepository.findDueForUpdate(anyCollection(), any(), any())).thenReturn(List.of(row));
+        when(contactMessageRepository.findAllWithPropertyByIdIn(anyCollection())).thenReturn(List.of(inquiry));
+
+        int sent = dispatcher(unreachable).dispatchDue();
+
+        assertThat(sent).isZero();
+        assertThat(row.getStatus()).isEqualTo(OutboxStatus.PENDING);
+        assertThat(row.getAttempts()).isEqualTo(1);
+        assertThat(row.getNextAttemptAt()).isAfter(LocalDateTime.now().plusSeconds(properties.getInitialBackoffSeconds() - 5));
+        verify(outboxRepository, never()).markSent(anyCollection(), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private InquiryNotificationDispatcher dispatcher(MailSender sender) {
+        ObjectProvider<MailSender> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable(any())).thenReturn(sender);
+
+        InquiryNotificationDispatcher dispatcher = new InquiryNotificationDispatcher(properties, outboxRepository,
+                contactMessageRepository, provider, new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                new SimpleMeterRegistry());
+        dispatcher.init();
+        return dispatcher;
+    }
+
+    private static ContactMessage message(Long id, String fullName) {
+        return ContactMessage.builder()
+                .id(id)
+                .fullName(fullName)
+                .email("guest" + id + "@example.com")
+                .message("Is the apartment still available?")
+                .build();
+    }
+
+    private static NotificationOutbox outbox(Long id, ContactMessage message, String recipient) {
+        return NotificationOutbox.builder()
+                .id(id)
+                .contactMessage(message)
+                .recipientEmail(recipient)
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,151 @@
+package com.katya.app.service.impl;
+
+import com.katya.app.config.FileUploadConfig;
+import com.katya.app.exception.FileUploadException;
+import com.katya.app.service.StorageService;
+import com.katya.app.service.StorageService.StoredObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LocalStorageServiceTest {
+
+    @TempDir
+    Path root;
+
+    private LocalStorageService storage;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        FileUploadConfig config = new FileUploadConfig();
+        config.setPath(root.toString());
+        config.setBaseUrl("/uploads/");
+        storage = new LocalStorageService(config);
+        storage.init();
+    }
+
+    @Test
+    void storesContentUnderItsShardedHash() throws Exception {
+        byte[] content = "hello".getBytes(StandardCharsets.UTF_8);
+        // sha256("hello")
+        String hash = "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+
+        StoredObject stored = storage.store(new MockMultipartFile("file", "a.png", "image/png", content), "images");
+
+        assertThat(stored.key()).isEqualTo("images/2c/f2/" + hash + ".png");
+        assertThat(stored.url()).isEqualTo("/uploads/images/2c/f2/" + hash + ".png");
+        assertThat(stored.size()).isEqualTo(content.length);
+        assertThat(stored.deduplicated()).isFalse();
+        assertThat(Files.readAllBytes(root.resolve(stored.key()))).isEqualTo(content);
+        // The temp file was moved into place, not left behind
+        try (Stream<Path> temp = Files.list(root.resolve(".tmp"))) {
+            assertThat(temp).isEmpty();
+        }
+    }
+
+    @Test
+    void storesIdenticalContentOnce() throws Exception {
+        byte[] content = new byte[64 * 1024];
+        content[100] = 7;
+
+        StoredObject first = storage.store(new MockMultipartFile("file", "a.jpg", "image/jpeg", content), "images");
+        StoredObject second = storage.store(content, "image/jpeg", "images/");
+
+        assertThat(second.key()).isEqualTo(first.key());
+        assertThat(second.deduplicated()).isTrue();
+        try (Stream<Path> files = Files.walk(root)) {
+            assertThat(files.filter(Files::isRegularFile)).hasSize(1);
+        }
+    }
+
+    @Test
+    void deletesByUrlButNeverOutsideTheRoot() throws Exception {
+        Path outside = Files.writeString(root.getParent().resolve("outside-" + System.nanoTime()), "keep");
+        try {
+            StoredObject stored = storage.store("bye".getBytes(StandardCharsets.UTF_8), "image/png", "images");
+
+            assertThat(storage.delete("../" + outside.getFileName())).isFalse();
+            assertThat(outside).exists();
+
+            assertThat(storage.delete(stored.url())).isTrue();
+            assertThat(root.resolve(stored.key())).doesNotExist();
+            assertThat(storage.delete(stored.url())).isFalse();
+        } finally {
+            Files.deleteIfExists(outside);
+        }
+    }
+
+    @Test
+    void refusesFoldersOutsideTheRoot() {
+        byte[] content = "x".getBytes(StandardCharsets.UTF_8);
+
+        assertThatThrownBy(() -> storage.store(content, "image/png", "../escape"))
+                .isInstanceOf(FileUploadException.class);
+        assertThatThrownBy(() -> storage.store(content, "image/png", ".tmp"))
+                .isInstanceOf(FileUploadException.class);
+    }
+
+    @Test
+    void listsStoredFilesInPagesAndDeletesThemByKey() throws Exception {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            keys.add(storage.store(("file " + i).getBytes(StandardCharsets.UTF_8), "image/jpeg", "app/images").key());
+        }
+        keys.add(storage.store("variant".getBytes(StandardCharsets.UTF_8), "image/jpeg", "app/images/variants").key());
+        StoredObject document = storage.store("other".getBytes(StandardCharsets.UTF_8), "application/pdf", "app/documents");
+        // Files outside the shard layout are never listed
+        Files.writeString(root.resolve("legacy.jpg"), "old");
+
+        List<String> listed = new ArrayList<>();
+        String cursor = null;
+        do {
+            StorageService.Page page = storage.list("app/images/", cursor, 2);
+            page.objects().forEach(object -> listed.add(object.key()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertThat(listed).containsExactlyElementsOf(keys.stream().sorted().toList());
+        assertThat(storage.keyOf("/uploads/" + keys.get(0))).isEqualTo(keys.get(0));
+
+        assertThat(storage.deleteAll(listed)).isEmpty();
+        assertThat(storage.list("app/images/", null, 10).objects()).isEmpty();
+        assertThat(storage.list("missing/", null, 10).objects()).isEmpty();
+        assertThat(storage.list(null, null, 10).objects())
+                .extracting(StorageService.ListedObject::key)
+                .containsExactly(document.key());
+        assertThat(root.resolve("legacy.jpg")).exists();
+    }
+
+    @Test
+    void pagesInKeyOrderAcrossNestedFolders() throws Exception {
+        List<String> keys = new ArrayList<>();
+        // '-' and '.' sort before '/', so "a-b/..." precedes "a/..." in key order
+        for (String folder : new String[]{"a", "a/b", "a-b", "a.b", "a/b/c"}) {
+            for (int i = 0; i < 3; i++) {
+                keys.add(storage.store((folder + i).getBytes(StandardCharsets.UTF_8), "image/png", folder).key());
+            }
+        }
+
+        List<String> listed = new ArrayList<>();
+        String cursor = null;
+        do {
+            StorageService.Page page = storage.list(null, cursor, 4);
+            assertThat(page.objects()).hasSizeLessThanOrEqualTo(4);
+            page.objects().forEach(object -> listed.add(object.key()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertThat(listed).containsExactlyElementsOf(keys.stream().sorted().toList());
+    }
+}
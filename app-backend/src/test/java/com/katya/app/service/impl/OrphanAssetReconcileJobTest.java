@@ -0,0 +1,176 @@
+package com.katya.app.service.impl;
+
+import com.katya.app.config.AssetReconcileProperties;
+import com.katya.app.config.CloudinaryConfig;
+import com.katya.app.model.embeddable.ImageVariant;
+import com.katya.app.model.entity.SiteSetting;
+import com.katya.app.repository.ImageAssetRepository;
+import com.katya.app.repository.PropertyImageRepository;
+import com.katya.app.repository.SiteSettingRepository;
+import com.katya.app.service.StorageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OrphanAssetReconcileJobTest {
+
+    private static final Instant OLD = Instant.now().minus(Duration.ofDays(3));
+
+    private final FakeStorage storage = new FakeStorage();
+    private final PropertyImageRepository propertyImageRepository = mock(PropertyImageRepository.class);
+    private final ImageAssetRepository imageAssetRepository = mock(ImageAssetRepository.class);
+    private final SiteSettingRepository siteSettingRepository = mock(SiteSettingRepository.class);
+    private OrphanAssetReconcileJob job;
+
+    @BeforeEach
+    void setUp() {
+        AssetReconcileProperties properties = new AssetReconcileProperties();
+        properties.setPageSize(30);
+        properties.setInitialBackoffMs(1);
+        CloudinaryConfig cloudinaryConfig = new CloudinaryConfig();
+        cloudinaryConfig.setFolder("app");
+
+        when(siteSettingRepository.findByKey("hero_image_url"))
+                .thenReturn(Optional.of(SiteSetting.builder().key("hero_image_url").value("/files/hero/current").build()));
+        when(siteSettingRepository.findTranslatedValues("hero_image_url")).thenReturn(List.of("/files/hero/english"));
+
+        job = new OrphanAssetReconcileJob(properties, cloudinaryConfig, storage, propertyImageRepository,
+                imageAssetRepository, siteSettingRepository);
+    }
+
+    @Test
+    void deletesOnlyOldUnreferencedFilesInBatchesOfAHundred() {
+        for (int i = 0; i < 260; i++) {
+            storage.put("app/property/orphan-" + i, OLD);
+        }
+        storage.put("app/property/used", OLD);
+        storage.put("app/property/variants/used-320", OLD);
+        storage.put("app/property/shared", OLD);
+        storage.put("app/property/uploading", Instant.now());
+        storage.put("hero/current", OLD);
+        storage.put("hero/english", OLD);
+        storage.put("hero/previous", OLD);
+        storage.put("elsewhere/untouched", OLD);
+
+        when(propertyImageRepository.findAllFilePaths()).thenReturn(List.of("/files/app/property/used"));
+        when(propertyImageRepository.findAllVariants()).thenReturn(List.of(List.of(
+                ImageVariant.builder().width(320).url("/files/app/property/variants/used-320").build())));
+        when(imageAssetRepository.findAllUrls()).thenReturn(List.of("/files/app/property/shared"));
+
+        int deleted = job.reconcile();
+
+        assertThat(deleted).isEqualTo(261);
+        assertThat(storage.objects.keySet()).containsExactlyInAnyOrder(
+                "app/property/used", "app/property/variants/used-320", "app/property/shared", "app/property/uploading",
+                "hero/current", "hero/english", "elsewhere/untouched");
+        assertThat(storage.deleteCalls).allMatch(size -> size <= 100);
+        assertThat(storage.deleteCalls).hasSize(4);
+    }
+
+    @Test
+    void leavesGenericUploadsAlone() {
+        storage.put("app/image/generic", OLD);
+        storage.put("app/document/contract", OLD);
+        storage.put("app/other/archive", OLD);
+        storage.put("app/image/variants/legacy-orphan-320", OLD);
+        storage.put("app/property/orphan", OLD);
+
+        int deleted = job.reconcile();
+
+        assertThat(deleted).isEqualTo(2);
+        assertThat(storage.objects).containsOnlyKeys("app/image/generic", "app/document/contract", "app/other/archive");
+    }
+
+    @Test
+    void retriesFailedDeletesWithBackoff() {
+        storage.put("app/property/flaky", OLD);
+        storage.put("app/property/stuck", OLD);
+        storage.failures.put("app/property/flaky", 2);
+        storage.failures.put("app/property/stuck", Integer.MAX_VALUE);
+
+        int deleted = job.reconcile();
+
+        assertThat(deleted).isEqualTo(1);
+        assertThat(storage.objects).containsOnlyKeys("app/property/stuck");
+        // First call with both keys, then retries of the failures until maxAttempts
+        assertThat(storage.deleteCalls).containsExactly(2, 2, 2, 1);
+    }
+
+    // In-memory backend with folder-like keys, opaque cursors and injectable delete failures
+    private static class FakeStorage implements StorageService {
+        private static final String URL_PREFIX = "/files/";
+
+        private final TreeMap<String, Instant> objects = new TreeMap<>();
+        private final Map<String, Integer> failures = new HashMap<>();
+        private final List<Integer> deleteCalls = new ArrayList<>();
+
+        void put(String key, Instant createdAt) {
+            objects.put(key, createdAt);
+        }
+
+        @Override
+        public Set<String> deleteAll(Collection<String> keys) {
+            deleteCalls.add(keys.size());
+            Set<String> failed = new LinkedHashSet<>();
+            for (String key : keys) {
+                int remaining = failures.getOrDefault(key, 0);
+                if (remaining > 0) {
+                    failures.put(key, remaining - 1);
+                    failed.add(key);
+                } else {
+                    objects.remove(key);
+                }
+            }
+            return failed;
+        }
+
+        @Override
+        public Page list(String prefix, String cursor, int limit) {
+            List<ListedObject> page = new ArrayList<>();
+            SortedMap<String, Instant> remaining = cursor == null ? objects : objects.tailMap(cursor, false);
+            for (Map.Entry<String, Instant> entry : remaining.entrySet()) {
+                if (!entry.getKey().startsWith(prefix)) {
+                    continue;
+                }
+                page.add(new ListedObject(entry.getKey(), entry.getValue()));
+                if (page.size() == limit) {
+                    return new Page(page, entry.getKey());
+                }
+            }
+            return new Page(page, null);
+        }
+
+        @Override
+        public String keyOf(String keyOrUrl) {
+            return keyOrUrl.startsWith(URL_PREFIX) ? keyOrUrl.substring(URL_PREFIX.length()) : keyOrUrl;
+        }
+
+        @Override
+        public StoredObject store(MultipartFile file, String folder) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public StoredObject store(byte[] content, String contentType, String folder) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean delete(String keyOrUrl) {
+            return deleteAll(List.of(keyOf(keyOrUrl))).isEmpty();
+        }
+
+        @Override
+        public boolean exists(String keyOrUrl) {
+            return objects.containsKey(keyOf(keyOrUrl));
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.katya.app.service.impl;
+
+import com.katya.app.config.TrendingProperties;
+import com.katya.app.dto.mapper.PropertyMapper;
+import com.katya.app.dto.response.PropertySummaryResponse;
+import com.katya.app.repository.PropertyRepository;
+import com.katya.app.repository.PropertyTrendingScoreRepository;
+import com.katya.app.util.enums.Locale;
+import com.katya.app.util.enums.PropertyStatus;
+import com.katya.app.util.enums.PropertyType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TrendingServiceImplTest {
+
+    private TrendingProperties properties;
+    private TrendingServiceImpl trendingService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new TrendingProperties();
+        properties.setTopSize(3);
+        properties.setRankingRefreshMs(0);
+
+        PropertyRepository propertyRepository = mock(PropertyRepository.class);
+        when(propertyRepository.findPublishedTypeRows()).thenReturn(List.of(
+                new TypeRow(1L, PropertyType.APARTMENT),
+                new TypeRow(2L, PropertyType.APARTMENT),
+                new TypeRow(3L, PropertyType.APARTMENT),
+                new TypeRow(4L, PropertyType.ROOM)));
+        when(propertyRepository.findSummaryRowsByIdIn(anyCollection(), any())).thenAnswer(invocation ->
+                invocation.<Collection<Long>>getArgument(0).stream().map(id -> new Object[]{id}).toList());
+
+        PropertyMapper propertyMapper = mock(PropertyMapper.class);
+        when(propertyMapper.toSummaryResponse(any(Object[].class))).thenAnswer(invocation ->
+                PropertySummaryResponse.builder()
+                        .id((Long) invocation.<Object[]>getArgument(0)[0])
+                        .status(PropertyStatus.PUBLISHED)
+                        .build());
+
+        trendingService = new TrendingServiceImpl(properties, mock(PropertyTrendingScoreRepository.class),
+                propertyRepository, propertyMapper, new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        trendingService.init();
+        trendingService.loadOnStartup();
+    }
+
+    @Test
+    void ranksViewsRecordedSinceTheLastRebuild() {
+        views(3L, 3);
+        views(1L, 2);
+        views(2L, 1);
+        views(4L, 5);
+        // Not published, so never ranked
+        views(99L, 10);
+
+        assertThat(trending(null)).containsExactly(4L, 3L, 1L);
+        assertThat(trending(PropertyType.APARTMENT)).containsExactly(3L, 1L, 2L);
+        assertThat(trending(PropertyType.ROOM)).containsExactly(4L);
+        assertThat(trending(PropertyType.HOUSE)).isEmpty();
+    }
+
+    @Test
+    void servesTheSameListsWithinTheRefreshInterval() {
+        properties.setRankingRefreshMs(60_000);
+        views(1L, 2);
+        assertThat(trending(null)).containsExactly(1L);
+
+        views(2L, 5);
+
+        assertThat(trending(null)).containsExactly(1L);
+    }
+
+    @Test
+    void countsEveryViewRecordedConcurrently() {
+        List<CompletableFuture<Void>> callers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            int oneFewer = i == 0 ? 999 : 1000;
+            callers.add(CompletableFuture.runAsync(() -> views(2L, 1000)));
+            callers.add(CompletableFuture.runAsync(() -> views(1L, oneFewer)));
+        }
+        callers.forEach(CompletableFuture::join);
+
+        assertThat(trending(null)).containsExactly(2L, 1L);
+    }
+
+    // Helper methods
+
+    private void views(Long propertyId, int count) {
+        IntStream.range(0, count).forEach(i -> trendingService.recordView(propertyId));
+    }
+
+    private List<Long> trending(PropertyType type) {
+        return trendingService.getTrendingProperties(type, Locale.VI, 10).stream()
+                .map(PropertySummaryResponse::getId)
+                .toList();
+    }
+
+    private record TypeRow(Long getId, PropertyType getPropertyType) implements PropertyRepository.PropertyTypeRow {
+    }
+}
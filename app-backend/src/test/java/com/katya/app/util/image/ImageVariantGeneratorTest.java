@@ -0,0 +1,113 @@
+package com.katya.app.util.image;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImageVariantGeneratorTest {
+
+    private final ImageVariantGenerator generator = new ImageVariantGenerator(List.of(320, 640, 1024), 0.8f, 40_000_000);
+
+    @Test
+    void producesEachSmallerWidthWithoutMetadata() throws Exception {
+        byte[] source = withExif(jpeg(2000, 1000), 1);
+
+        List<ImageVariantGenerator.Variant> variants = generator.generate(new ByteArrayInputStream(source));
+
+        assertThat(variants).extracting(ImageVariantGenerator.Variant::width).containsExactly(320, 640, 1024);
+        assertThat(variants).extracting(ImageVariantGenerator.Variant::height).containsExactly(160, 320, 512);
+        for (ImageVariantGenerator.Variant variant : variants) {
+            assertThat(variant.content().length).isLessThan(source.length);
+            assertThat(new String(variant.content(), StandardCharsets.ISO_8859_1)).doesNotContain("Exif");
+            BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(variant.content()));
+            assertThat(decoded.getWidth()).isEqualTo(variant.width());
+        }
+    }
+
+    @Test
+    void turnsRotatedPhotosUpright() throws Exception {
+        // Stored landscape, tagged "rotate 90° clockwise to display"
+        List<ImageVariantGenerator.Variant> variants =
+                generator.generate(new ByteArrayInputStream(withExif(jpeg(1600, 1200), 6)));
+
+        ImageVariantGenerator.Variant largest = variants.get(variants.size() - 1);
+        assertThat(largest.width()).isEqualTo(1024);
+        assertThat(largest.height()).isGreaterThan(largest.width());
+
+        // The red band along the stored top edge ends up on the right
+        BufferedImage upright = ImageIO.read(new ByteArrayInputStream(largest.content()));
+        Color right = new Color(upright.getRGB(upright.getWidth() - 5, upright.getHeight() / 2));
+        Color left = new Color(upright.getRGB(5, upright.getHeight() / 2));
+        assertThat(right.getRed()).isGreaterThan(200);
+        assertThat(left.getRed()).isLessThan(100);
+    }
+
+    @Test
+    void keepsSmallImagesAtTheirOwnWidthAndRejectsHugeOnes() throws Exception {
+        assertThat(generator.generate(new ByteArrayInputStream(jpeg(200, 100))))
+                .extracting(ImageVariantGenerator.Variant::width).containsExactly(200);
+
+        ImageVariantGenerator strict = new ImageVariantGenerator(List.of(320), 0.8f, 10_000);
+        assertThatThrownBy(() -> strict.generate(new ByteArrayInputStream(jpeg(200, 100))))
+                .isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> generator.generate(new ByteArrayInputStream("not an image".getBytes())))
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void readsOrientationFromBothByteOrders() {
+        assertThat(ImageVariantGenerator.parseExifOrientation(exifPayload(8, false))).isEqualTo(8);
+        assertThat(ImageVariantGenerator.parseExifOrientation(exifPayload(3, true))).isEqualTo(3);
+        assertThat(ImageVariantGenerator.parseExifOrientation("garbage-garbage".getBytes())).isEqualTo(1);
+    }
+
+    private static byte[] jpeg(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.BLUE);
+        graphics.fillRect(0, 0, width, height);
+        graphics.setColor(Color.RED);
+        graphics.fillRect(0, 0, width, height / 5);
+        graphics.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpeg", out);
+        return out.toByteArray();
+    }
+
+    // Inserts an APP1 EXIF segment carrying only an orientation tag right after SOI
+    private static byte[] withExif(byte[] jpeg, int orientation) {
+        byte[] payload = exifPayload(orientation, false);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(jpeg, 0, 2);
+        out.write(0xFF);
+        out.write(0xE1);
+        int length = payload.length + 2;
+        out.write(length >> 8);
+        out.write(length & 0xFF);
+        out.write(payload, 0, payload.length);
+        out.write(jpeg, 2, jpeg.length - 2);
+        return out.toByteArray();
+    }
+
+    private static byte[] exifPayload(int orientation, boolean littleEndian) {
+        java.nio.ByteBuffer buffer = java.nio.ByteBuffer.allocate(6 + 8 + 2 + 12 + 4);
+        buffer.put("Exif\0\0".getBytes(StandardCharsets.ISO_8859_1));
+        buffer.put(littleEndian ? (byte) 'I' : (byte) 'M').put(littleEndian ? (byte) 'I' : (byte) 'M');
+        buffer.order(littleEndian ? java.nio.ByteOrder.LITTLE_ENDIAN : java.nio.ByteOrder.BIG_ENDIAN);
+        buffer.putShort((short) 42).putInt(8);
+        buffer.putShort((short) 1);
+        buffer.putShort((short) 0x0112).putShort((short) 3).putInt(1).putShort((short) orientation).putShort((short) 0);
+        buffer.putInt(0);
+        return buffer.array();
+    }
+}
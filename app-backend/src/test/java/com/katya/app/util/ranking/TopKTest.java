@@ -0,0 +1,43 @@
+package com.katya.app.util.ranking;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TopKTest {
+
+    @Test
+    void keepsOnlyTheHighestScores() {
+        TopK<Long> top = new TopK<>(3);
+        for (long id = 1; id <= 10; id++) {
+            top.offer(id, id * 1.5);
+        }
+        assertThat(top.size()).isEqualTo(3);
+        assertThat(top.top(10)).containsExactly(10L, 9L, 8L);
+    }
+
+    @Test
+    void reofferedKeyMovesInsteadOfDuplicating() {
+        TopK<Long> top = new TopK<>(3);
+        top.offer(1L, 5.0);
+        top.offer(2L, 4.0);
+        top.offer(3L, 3.0);
+
+        top.offer(3L, 9.0);
+        top.offer(4L, 1.0);
+
+        assertThat(top.top(3)).containsExactly(3L, 1L, 2L);
+        assertThat(top.top(1)).containsExactly(3L);
+    }
+
+    @Test
+    void removedKeyFreesItsSlot() {
+        TopK<Long> top = new TopK<>(2);
+        top.offer(1L, 5.0);
+        top.offer(2L, 4.0);
+        top.remove(1L);
+        top.offer(3L, 1.0);
+
+        assertThat(top.top(5)).containsExactly(2L, 3L);
+    }
+}
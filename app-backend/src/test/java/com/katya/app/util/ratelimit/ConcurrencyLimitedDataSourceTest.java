@@ -0,0 +1,48 @@
+package com.katya.app.util.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class ConcurrencyLimitedDataSourceTest {
+
+    @Test
+    void holdsAPermitUntilTheConnectionIsClosed() throws Exception {
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("db", 1, Duration.ofMillis(50));
+        ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(target, limiter);
+
+        Connection first = dataSource.getConnection();
+        assertThat(limiter.getActive()).isEqualTo(1);
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+
+        first.close();
+        first.close();
+        verify(connection, times(2)).close();
+        assertThat(limiter.getActive()).isZero();
+
+        dataSource.getConnection().close();
+        assertThat(limiter.getActive()).isZero();
+    }
+
+    @Test
+    void releasesThePermitWhenTheTargetFails() throws Exception {
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenThrow(new SQLException("pool exhausted"));
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("db", 1, Duration.ofMillis(50));
+        ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(target, limiter);
+
+        assertThatThrownBy(dataSource::getConnection).hasMessage("pool exhausted");
+        assertThat(limiter.getActive()).isZero();
+    }
+}
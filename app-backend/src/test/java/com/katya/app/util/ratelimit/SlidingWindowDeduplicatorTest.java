@@ -0,0 +1,34 @@
+package com.katya.app.util.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlidingWindowDeduplicatorTest {
+
+    @Test
+    void floodOfDistinctPayloadsKeepsTheSetBounded() {
+        SlidingWindowDeduplicator deduplicator = new SlidingWindowDeduplicator(Duration.ofHours(1), 100);
+        assertThat(deduplicator.isDuplicate("a@example.com", "Hello")).isFalse();
+        assertThat(deduplicator.isDuplicate("A@example.com ", "hello")).isTrue();
+
+        for (int i = 0; i < 10_000; i++) {
+            deduplicator.isDuplicate("bot@example.com", "message " + i);
+        }
+
+        assertThat(deduplicator.isDuplicate("bot@example.com", "message 9999")).isTrue();
+    }
+
+    @Test
+    void forgottenPayloadIsNotADuplicate() {
+        SlidingWindowDeduplicator deduplicator = new SlidingWindowDeduplicator(Duration.ofHours(1), 100);
+        assertThat(deduplicator.isDuplicate("a@example.com", "Hello")).isFalse();
+
+        deduplicator.forget("a@example.com", "Hello");
+
+        assertThat(deduplicator.isDuplicate("a@example.com", "Hello")).isFalse();
+        assertThat(deduplicator.isDuplicate("a@example.com", "Hello")).isTrue();
+    }
+}
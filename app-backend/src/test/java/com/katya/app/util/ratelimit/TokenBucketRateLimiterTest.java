@@ -0,0 +1,31 @@
+package com.katya.app.util.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketRateLimiterTest {
+
+    @Test
+    void floodOfDistinctKeysDoesNotResetAThrottledKey() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(5, Duration.ofHours(1), 100);
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("victim@example.com")).isTrue();
+        }
+        assertThat(limiter.tryAcquire("victim@example.com")).isFalse();
+
+        int allowed = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (limiter.tryAcquire("attacker-" + i)) {
+                allowed++;
+            }
+        }
+
+        assertThat(limiter.tryAcquire("victim@example.com")).isFalse();
+        assertThat(limiter.getTrackedKeys()).isLessThanOrEqualTo(100);
+        // 99 keys fit, then everyone else shares the overflow bucket's 5 tokens
+        assertThat(allowed).isEqualTo(99 + 5);
+    }
+}
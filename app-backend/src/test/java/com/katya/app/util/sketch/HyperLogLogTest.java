@@ -0,0 +1,43 @@
+package com.katya.app.util.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class HyperLogLogTest {
+
+    @Test
+    void estimatesDistinctCountsWithinErrorBound() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = 0; i < 100_000; i++) {
+            sketch.add("203.0.113." + (i % 256) + "|agent-" + i);
+            sketch.add("203.0.113." + (i % 256) + "|agent-" + i);
+        }
+        assertThat((double) sketch.estimate()).isCloseTo(100_000, within(5_000.0));
+    }
+
+    @Test
+    void smallCountsAreNearlyExact() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = 0; i < 50; i++) {
+            sketch.add("visitor-" + i);
+        }
+        assertThat(sketch.estimate()).isBetween(49L, 51L);
+    }
+
+    @Test
+    void mergeOfSerializedSketchesMatchesUnion() {
+        HyperLogLog first = new HyperLogLog();
+        HyperLogLog second = new HyperLogLog();
+        for (int i = 0; i < 20_000; i++) {
+            first.add("visitor-" + i);
+            second.add("visitor-" + (i + 10_000));
+        }
+
+        HyperLogLog merged = HyperLogLog.fromBytes(first.toBytes()).merge(second);
+
+        assertThat((double) merged.estimate()).isCloseTo(30_000, within(1_500.0));
+        assertThat(first.estimate()).isLessThan(merged.estimate());
+    }
+}
@@ -0,0 +1,43 @@
+package com.katya.app.util.sql;
+
+import com.katya.app.config.SqlStatisticsFilter;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * MockMvc matchers for the database work of a request, read from what
+ * {@link SqlStatisticsFilter} recorded. Needs a MockMvc built from the application context
+ * (e.g. @AutoConfigureMockMvc) so the filter is in the chain.
+ * <pre>
+ * mvc.perform(get("/api/properties")).andExpect(SqlBudget.maxStatements(4));
+ * </pre>
+ */
+public final class SqlBudget {
+
+    private SqlBudget() {
+    }
+
+    public static ResultMatcher maxStatements(long max) {
+        return result -> {
+            SqlStatistics statistics = statistics(result);
+            assertThat(statistics.getStatements())
+                    .as("statements for %s (%s)", describe(result), statistics)
+                    .isLessThanOrEqualTo(max);
+        };
+    }
+
+    public static SqlStatistics statistics(MvcResult result) {
+        Object statistics = result.getRequest().getAttribute(SqlStatisticsFilter.STATISTICS_ATTRIBUTE);
+        assertThat(statistics)
+                .as("SQL statistics for %s; is SqlStatisticsFilter registered?", describe(result))
+                .isInstanceOf(SqlStatistics.class);
+        return (SqlStatistics) statistics;
+    }
+
+    // Helper methods
+    private static String describe(MvcResult result) {
+        return result.getRequest().getMethod() + " " + result.getRequest().getRequestURI();
+    }
+}
@@ -0,0 +1,73 @@
+package com.katya.app.util.sql;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class SqlStatisticsDataSourceTest {
+
+    @Test
+    void countsExecutionsWhileRecording() throws Exception {
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        PreparedStatement prepared = mock(PreparedStatement.class);
+        Statement plain = mock(Statement.class);
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(prepared);
+        when(connection.createStatement()).thenReturn(plain);
+        SqlStatisticsDataSource dataSource = new SqlStatisticsDataSource(target);
+
+        SqlStatistics statistics = SqlStatistics.begin();
+        try (Connection wrapped = dataSource.getConnection()) {
+            PreparedStatement statement = wrapped.prepareStatement("SELECT 1");
+            statement.setInt(1, 1);
+            statement.executeQuery();
+            statement.addBatch();
+            statement.executeBatch();
+            wrapped.createStatement().execute("SELECT 2");
+        } finally {
+            statistics.end();
+        }
+
+        assertThat(statistics.getStatements()).isEqualTo(3);
+        verify(prepared).executeQuery();
+        verify(prepared).executeBatch();
+        verify(plain).execute("SELECT 2");
+        verify(connection).close();
+    }
+
+    @Test
+    void leavesConnectionsAloneOutsideARecording() throws Exception {
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+
+        assertThat(new SqlStatisticsDataSource(target).getConnection()).isSameAs(connection);
+        assertThat(SqlStatistics.isRecording()).isFalse();
+    }
+
+    @Test
+    void nestedRecordingsAddToTheEnclosingOne() {
+        SqlStatistics outer = SqlStatistics.begin();
+        SqlStatistics.statementExecuted(1_000);
+        SqlStatistics inner = SqlStatistics.begin();
+        SqlStatistics.statementExecuted(2_000);
+        SqlStatistics.entityLoaded();
+        inner.end();
+        SqlStatistics.collectionFetched();
+        outer.end();
+
+        assertThat(inner.getStatements()).isEqualTo(1);
+        assertThat(outer.getStatements()).isEqualTo(2);
+        assertThat(outer.getJdbcTime().toNanos()).isEqualTo(3_000);
+        assertThat(outer.getEntityLoads()).isEqualTo(1);
+        assertThat(outer.getCollectionFetches()).isEqualTo(1);
+        assertThat(SqlStatistics.isRecording()).isFalse();
+    }
+}